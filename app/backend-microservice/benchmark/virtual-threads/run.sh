@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Compara hilos de plataforma y virtuales en TransactionController.create y
+# ReportController.getReportSummary con 1k y 10k clientes concurrentes.
+#
+# Requisitos: hey (https://github.com/rakyll/hey) y ambos servicios levantados
+# con la misma infraestructura (MySQL + RabbitMQ). Ejecutar el script una vez con
+# cada modo y pasar el nombre del modo como primer argumento:
+#
+#   SPRING_PROFILES_ACTIVE=default          -> ./run.sh platform
+#   SPRING_PROFILES_ACTIVE=virtual-threads  -> ./run.sh virtual
+#
+# Los resultados se guardan en results/<modo>-<endpoint>-<clientes>.txt.
+set -euo pipefail
+
+MODE="${1:?usage: run.sh <platform|virtual>}"
+TRANSACTION_URL="${TRANSACTION_URL:-http://localhost:8081}"
+REPORT_URL="${REPORT_URL:-http://localhost:8082}"
+USER_ID="${USER_ID:-bench-user}"
+REQUESTS_PER_CLIENT="${REQUESTS_PER_CLIENT:-20}"
+CONCURRENCY_LEVELS="${CONCURRENCY_LEVELS:-1000 10000}"
+
+RESULTS_DIR="$(dirname "$0")/results"
+mkdir -p "$RESULTS_DIR"
+
+TRANSACTION_BODY=$(cat <<JSON
+{"userId":"${USER_ID}","type":"EXPENSE","amount":12.50,"category":"Benchmark","date":"$(date +%Y-%m-%d)","description":"virtual threads benchmark"}
+JSON
+)
+
+# Calentamiento: JIT, pool de conexiones y al menos un reporte para el resumen.
+hey -n 2000 -c 50 -m POST -T application/json -d "$TRANSACTION_BODY" \
+    "${TRANSACTION_URL}/api/v1/transactions" > /dev/null
+sleep 2
+
+for clients in $CONCURRENCY_LEVELS; do
+  total=$((clients * REQUESTS_PER_CLIENT))
+
+  echo "[$MODE] POST /api/v1/transactions - ${clients} clients, ${total} requests"
+  hey -n "$total" -c "$clients" -m POST -T application/json -d "$TRANSACTION_BODY" \
+      "${TRANSACTION_URL}/api/v1/transactions" \
+      | tee "${RESULTS_DIR}/${MODE}-transaction-create-${clients}.txt"
+
+  echo "[$MODE] GET /api/v1/reports/{userId}/summary - ${clients} clients, ${total} requests"
+  hey -n "$total" -c "$clients" \
+      "${REPORT_URL}/api/v1/reports/${USER_ID}/summary?startPeriod=2000-01&endPeriod=2099-12" \
+      | tee "${RESULTS_DIR}/${MODE}-report-summary-${clients}.txt"
+done
@@ -1,5 +1,6 @@
 package com.microservice.report.controller;
 
+import com.microservice.report.dto.BalanceResponse;
 import com.microservice.report.dto.PaginatedResponse;
 import com.microservice.report.dto.RecalculateReportRequest;
 import com.microservice.report.dto.ReportResponse;
@@ -63,16 +64,36 @@ public class ReportController {
 
     /**
      * Genera un resumen financiero basado en un rango de periodos.
+     *
+     * <p>Con {@code includeReports=false} solo se devuelven los totales, agregados en BD,
+     * y la lista {@code reports} va vacía.</p>
      */
     @GetMapping("/{userId}/summary")
     public ResponseEntity<ReportSummary> getReportSummary(
             @PathVariable String userId,
             @RequestParam @ValidPeriod String startPeriod,
-            @RequestParam @ValidPeriod String endPeriod) {
-        ReportSummary summary = reportService.getReportsByPeriodRange(userId, startPeriod, endPeriod);
+            @RequestParam @ValidPeriod String endPeriod,
+            @RequestParam(defaultValue = "true") boolean includeReports) {
+        ReportSummary summary = includeReports
+                ? reportService.getReportsByPeriodRange(userId, startPeriod, endPeriod)
+                : reportService.getTotalsByPeriodRange(userId, startPeriod, endPeriod);
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Obtiene el balance acumulado de un usuario hasta un periodo, incluido.
+     *
+     * @param userId Identificador del usuario
+     * @param period Periodo mensual (yyyy-MM)
+     * @return Ingresos, gastos y balance acumulados hasta el periodo
+     */
+    @GetMapping("/{userId}/balance")
+    public ResponseEntity<BalanceResponse> getBalanceAsOf(
+            @PathVariable String userId,
+            @RequestParam @ValidPeriod String period) {
+        return ResponseEntity.ok(reportService.getBalanceAsOf(userId, period));
+    }
+
     /**
      * Recalcula el reporte financiero para un usuario y período específico.
      *
@@ -1,18 +1,30 @@
 package com.microservice.report.controller;
 
+import com.microservice.report.dto.PdfJobResponse;
 import com.microservice.report.exception.ReportNotFoundException;
 import com.microservice.report.model.Report;
 import com.microservice.report.repository.ReportRepository;
 import com.microservice.report.service.PdfGeneratorService;
+import com.microservice.report.service.PdfJobService;
+import com.microservice.report.service.ReportArchiveService;
+import com.microservice.report.service.impl.ReportPdfCache;
 import com.microservice.report.util.PdfFileNameGenerator;
 import com.microservice.report.validation.ValidPeriod;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 /**
  * Controlador REST para la descarga de reportes en formato PDF.
@@ -28,30 +40,176 @@ public class ReportPdfController {
 
     private final ReportRepository reportRepository;
     private final PdfGeneratorService pdfGeneratorService;
+    private final ReportPdfCache reportPdfCache;
+    private final PdfJobService pdfJobService;
+    private final ReportArchiveService reportArchiveService;
+
+    /** Máximo de períodos de un estado de cuenta. */
+    @Value("${app.report.pdf.statement.max-periods:36}")
+    private int statementMaxPeriods = 36;
 
     /**
      * Descarga el reporte financiero de un período como archivo PDF.
      *
-     * @param userId identificador del usuario
-     * @param period período en formato {@code "yyyy-MM"}
-     * @return respuesta HTTP con el archivo PDF como {@code application/pdf}
+     * <p>La respuesta lleva {@code ETag} y {@code Last-Modified} de la versión del reporte.
+     * Si el cliente ya tiene esa versión ({@code If-None-Match} / {@code If-Modified-Since})
+     * se responde {@code 304 Not Modified} sin generar el PDF; si no, se sirve desde
+     * {@link ReportPdfCache} copiándolo en streaming al cuerpo de la respuesta, sin
+     * cargarlo completo en memoria.</p>
+     *
+     * @param userId     identificador del usuario
+     * @param period     período en formato {@code "yyyy-MM"}
+     * @param webRequest petición actual, para evaluar las cabeceras condicionales
+     * @return respuesta HTTP con el archivo PDF como {@code application/pdf},
+     *         o {@code null} si ya se respondió {@code 304}
      * @throws ReportNotFoundException si no existe reporte para el usuario y período
      */
     @GetMapping("/{userId}/pdf")
-    public ResponseEntity<byte[]> downloadPdf(
+    public ResponseEntity<StreamingResponseBody> downloadPdf(
             @PathVariable String userId,
-            @RequestParam @ValidPeriod String period) {
+            @RequestParam @ValidPeriod String period,
+            WebRequest webRequest) {
 
         Report report = reportRepository.findByUserIdAndPeriod(userId, period)
                 .orElseThrow(() -> new ReportNotFoundException(userId, period));
 
-        byte[] pdfBytes = pdfGeneratorService.generatePdf(report);
-        String fileName = PdfFileNameGenerator.generateFileName(period);
+        return pdfResponse(report, webRequest);
+    }
+
+    /**
+     * Encola la generación del PDF de un período y responde de inmediato con
+     * {@code 202 Accepted}; la cabecera {@code Location} apunta al estado del trabajo.
+     *
+     * <p>El renderizado ocurre en el pool de {@link PdfJobService}, no en el hilo de la
+     * petición. Con la cola llena se responde {@code 429} con {@code Retry-After}.</p>
+     *
+     * @param userId identificador del usuario
+     * @param period período en formato {@code "yyyy-MM"}
+     * @return estado inicial del trabajo
+     * @throws ReportNotFoundException si no existe reporte para el usuario y período
+     */
+    @PostMapping("/{userId}/pdf/jobs")
+    public ResponseEntity<PdfJobResponse> submitPdfJob(
+            @PathVariable String userId,
+            @RequestParam @ValidPeriod String period) {
+
+        PdfJobResponse job = pdfJobService.submit(userId, period);
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromPath("/api/v1/reports/{userId}/pdf/jobs/{jobId}")
+                        .buildAndExpand(userId, job.jobId())
+                        .encode()
+                        .toUri())
+                .body(job);
+    }
+
+    /**
+     * Consulta el estado de un trabajo de PDF.
+     *
+     * @throws ReportNotFoundException si el trabajo no existe, caducó o es de otro usuario
+     */
+    @GetMapping("/{userId}/pdf/jobs/{jobId}")
+    public ResponseEntity<PdfJobResponse> getPdfJob(@PathVariable String userId, @PathVariable String jobId) {
+        return ResponseEntity.ok(pdfJobService.getStatus(userId, jobId));
+    }
 
+    /**
+     * Descarga el PDF de un trabajo terminado, con las mismas cabeceras condicionales que
+     * {@link #downloadPdf}. Responde {@code 409} si el trabajo aún no ha terminado.
+     */
+    @GetMapping("/{userId}/pdf/jobs/{jobId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadPdfJob(
+            @PathVariable String userId,
+            @PathVariable String jobId,
+            WebRequest webRequest) {
+
+        return pdfResponse(pdfJobService.getResult(userId, jobId), webRequest);
+    }
+
+    /**
+     * Descarga en un solo PDF el estado de cuenta de un rango de períodos (por ejemplo, un
+     * año completo): tabla con una fila por mes y los totales del rango, seguida del
+     * detalle de cada período.
+     *
+     * <p>Los reportes se leen con una sola consulta y el documento se escribe en streaming
+     * sobre la respuesta; los meses sin reporte no aparecen.</p>
+     *
+     * @param userId      identificador del usuario
+     * @param startPeriod primer período del rango, {@code "yyyy-MM"}
+     * @param endPeriod   último período del rango, incluido, {@code "yyyy-MM"}
+     * @return respuesta HTTP con el archivo PDF como {@code application/pdf}
+     * @throws IllegalArgumentException si el rango está invertido o supera el máximo de períodos
+     * @throws ReportNotFoundException  si el usuario no tiene reportes en el rango
+     */
+    @GetMapping("/{userId}/pdf/statement")
+    public ResponseEntity<StreamingResponseBody> downloadStatementPdf(
+            @PathVariable String userId,
+            @RequestParam @ValidPeriod String startPeriod,
+            @RequestParam @ValidPeriod String endPeriod) {
+
+        long periods = ChronoUnit.MONTHS.between(YearMonth.parse(startPeriod), YearMonth.parse(endPeriod)) + 1;
+        if (periods < 1) {
+            throw new IllegalArgumentException("startPeriod must not be after endPeriod");
+        }
+        if (periods > statementMaxPeriods) {
+            throw new IllegalArgumentException("A statement can cover at most " + statementMaxPeriods + " periods");
+        }
+
+        List<Report> reports = reportRepository.findByUserIdAndPeriodBetweenOrderByPeriodAsc(
+                userId, startPeriod, endPeriod);
+        if (reports.isEmpty()) {
+            throw new ReportNotFoundException(userId, startPeriod + " - " + endPeriod);
+        }
+
+        String fileName = PdfFileNameGenerator.generateStatementFileName(startPeriod, endPeriod);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
                 .contentType(MediaType.APPLICATION_PDF)
-                .contentLength(pdfBytes.length)
-                .body(pdfBytes);
+                .body(outputStream -> pdfGeneratorService.writeStatementPdf(reports, outputStream));
+    }
+
+    /**
+     * Descarga un ZIP con el PDF de cada período del usuario, para exportar el historial
+     * completo.
+     *
+     * <p>El ZIP se genera en streaming sobre la respuesta: los reportes se leen por
+     * páginas y cada PDF se renderiza y comprime al escribirse, de modo que la memoria no
+     * depende del número de períodos.</p>
+     *
+     * @param userId identificador del usuario
+     * @return respuesta HTTP con el archivo como {@code application/zip}
+     * @throws ReportNotFoundException si el usuario no tiene reportes
+     */
+    @GetMapping("/{userId}/pdf/archive")
+    public ResponseEntity<StreamingResponseBody> downloadPdfArchive(@PathVariable String userId) {
+        if (!reportRepository.existsByUserId(userId)) {
+            throw new ReportNotFoundException(String.format("No reports found for user '%s'", userId));
+        }
+
+        String fileName = PdfFileNameGenerator.generateArchiveFileName(userId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(outputStream -> reportArchiveService.writePdfArchive(userId, outputStream));
+    }
+
+    private ResponseEntity<StreamingResponseBody> pdfResponse(Report report, WebRequest webRequest) {
+        String etag = ReportPdfCache.etag(report);
+        long lastModified = report.getUpdatedAt().toInstant().toEpochMilli();
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        ReportPdfCache.CachedPdf pdf = reportPdfCache.get(report, pdfGeneratorService::writePdf);
+        String fileName = PdfFileNameGenerator.generateFileName(report.getPeriod());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.APPLICATION_PDF);
+        if (pdf.size() >= 0) {
+            response.contentLength(pdf.size());
+        }
+        return response.body(pdf::writeTo);
     }
 }
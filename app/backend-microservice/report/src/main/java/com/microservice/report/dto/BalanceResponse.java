@@ -0,0 +1,11 @@
+package com.microservice.report.dto;
+
+import java.math.BigDecimal;
+
+public record BalanceResponse(
+        String userId,
+        String period,
+        BigDecimal totalIncome,
+        BigDecimal totalExpense,
+        BigDecimal balance) {
+}
@@ -0,0 +1,15 @@
+package com.microservice.report.dto;
+
+import com.microservice.report.model.PdfJobStatus;
+
+import java.time.OffsetDateTime;
+
+public record PdfJobResponse(
+        String jobId,
+        String userId,
+        String period,
+        PdfJobStatus status,
+        String message,
+        OffsetDateTime submittedAt,
+        OffsetDateTime completedAt) {
+}
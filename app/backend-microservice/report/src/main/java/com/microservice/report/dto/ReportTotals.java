@@ -0,0 +1,21 @@
+package com.microservice.report.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales agregados de un rango de períodos, calculados en BD con {@code SUM()}.
+ */
+public record ReportTotals(
+        BigDecimal totalIncome,
+        BigDecimal totalExpense) {
+
+    public ReportTotals {
+        // SUM() de un rango vacío devuelve NULL
+        totalIncome = totalIncome == null ? BigDecimal.ZERO : totalIncome;
+        totalExpense = totalExpense == null ? BigDecimal.ZERO : totalExpense;
+    }
+
+    public ReportTotals plus(BigDecimal income, BigDecimal expense) {
+        return new ReportTotals(totalIncome.add(income), totalExpense.add(expense));
+    }
+}
@@ -0,0 +1,13 @@
+package com.microservice.report.exception;
+
+import com.microservice.report.model.PdfJobStatus;
+
+/**
+ * Excepción lanzada al descargar el resultado de un trabajo de PDF que aún no ha terminado.
+ */
+public class PdfJobNotReadyException extends RuntimeException {
+
+    public PdfJobNotReadyException(String jobId, PdfJobStatus status) {
+        super(String.format("PDF job '%s' is not ready yet (status %s)", jobId, status));
+    }
+}
@@ -0,0 +1,21 @@
+package com.microservice.report.exception;
+
+import java.time.Duration;
+
+/**
+ * Excepción lanzada cuando la cola de trabajos de PDF está llena; se responde
+ * {@code 429 Too Many Requests} con {@code Retry-After}.
+ */
+public class PdfJobQueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PdfJobQueueFullException(Duration retryAfter) {
+        super("Too many PDF jobs in progress, please retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,113 @@
+package com.microservice.report.infrastructure;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.service.ReportService;
+import com.microservice.report.util.StripedExecutor;
+import com.rabbitmq.client.Channel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Procesa los mensajes del modo {@code partitioned} de {@link ReportConsumer}.
+ *
+ * <p>Cada mensaje se encola en un {@link StripedExecutor} con el {@code userId} como
+ * clave: los mensajes de un mismo usuario se aplican en el orden de entrega y nunca
+ * en paralelo, mientras que usuarios distintos avanzan en {@code partitions} hilos.
+ * El ACK (manual) se envía desde el hilo de la partición una vez confirmada la
+ * transacción de BD, así que el prefetch del contenedor acota los mensajes en vuelo.</p>
+ *
+ * <p>Los errores se reintentan dentro de la partición, bloqueándola, para no adelantar
+ * mensajes posteriores del mismo usuario. Agotados los intentos, o si el mensaje es
+ * inválido, se rechaza sin reencolar, igual que en los modos {@code single} y
+ * {@code batch}.</p>
+ */
+@Slf4j
+@Component
+public class PartitionedReportProcessor {
+
+    private final ReportService reportService;
+    private final StripedExecutor executor;
+    private final int maxAttempts;
+    private final Duration retryInterval;
+
+    public PartitionedReportProcessor(ReportService reportService,
+                                      @Value("${app.report.consumer.partitions:8}") int partitions,
+                                      @Value("${spring.rabbitmq.listener.simple.retry.max-attempts:3}") int maxAttempts,
+                                      @Value("${spring.rabbitmq.listener.simple.retry.initial-interval:1000ms}") Duration retryInterval) {
+        this.reportService = reportService;
+        this.executor = new StripedExecutor(partitions, "report-partition-");
+        this.maxAttempts = maxAttempts;
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * Encola el mensaje en la partición de su usuario.
+     *
+     * @param transactionMessage mensaje deserializado
+     * @param channel            canal por el que se entregó, usado para el ACK/NACK
+     * @param deliveryTag        etiqueta de entrega del mensaje
+     */
+    public void submit(TransactionMessage transactionMessage, Channel channel, long deliveryTag) {
+        executor.execute(transactionMessage.userId(), () -> process(transactionMessage, channel, deliveryTag));
+    }
+
+    private void process(TransactionMessage transactionMessage, Channel channel, long deliveryTag) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                reportService.updateReport(transactionMessage);
+                acknowledge(channel, deliveryTag, true);
+                return;
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Rejecting invalid transaction ID: {}: {}", transactionMessage.transactionId(), e.getMessage());
+                acknowledge(channel, deliveryTag, false);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Rejecting transaction ID: {} after {} attempts", transactionMessage.transactionId(), attempt, e);
+                    acknowledge(channel, deliveryTag, false);
+                    return;
+                }
+                log.warn("Attempt {} failed for transaction ID: {}, retrying", attempt, transactionMessage.transactionId(), e);
+                if (!sleep(retryInterval.multipliedBy(attempt))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void acknowledge(Channel channel, long deliveryTag, boolean success) {
+        try {
+            if (success) {
+                channel.basicAck(deliveryTag, false);
+            } else {
+                channel.basicNack(deliveryTag, false, false);
+            }
+        } catch (IOException | RuntimeException e) {
+            // El canal se cerró: el broker reentregará el mensaje y el registro de ids procesados lo descartará.
+            log.warn("Could not {} delivery {}: {}", success ? "ack" : "nack", deliveryTag, e.getMessage());
+        }
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (!executor.shutdown(30, TimeUnit.SECONDS)) {
+            log.warn("Report partitions did not drain in time; unacked messages will be redelivered");
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.microservice.report.infrastructure;
 
+import java.time.Duration;
+
+import com.microservice.report.service.ReportService;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -20,6 +27,14 @@ public class RabbitMQConfiguration {
     private String transactionCreatedQueue;
     @Value("${rabbitmq.queues.transaction-updated}")
     private String transactionUpdatedQueue;
+    @Value("${app.report.consumer.batch-size:200}")
+    private int consumerBatchSize;
+    @Value("${app.report.consumer.receive-timeout:250ms}")
+    private Duration consumerReceiveTimeout;
+    @Value("${app.report.consumer.prefetch:250}")
+    private int consumerPrefetch;
+    @Value("${app.report.write-behind.prefetch:5000}")
+    private int writeBehindPrefetch;
 
     @Bean
     public TopicExchange transactionExchange() {
@@ -61,4 +76,72 @@ public class RabbitMQConfiguration {
         rabbitTemplate.setMessageConverter(jsonMessageConverter());
         return rabbitTemplate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Fábrica de contenedores para el modo {@code batch} de {@link ReportConsumer}.
+     *
+     * <p>Hereda la configuración de {@code spring.rabbitmq.listener.simple} (ack, retry,
+     * requeue) y entrega al listener hasta {@code batch-size} mensajes, o los que hayan
+     * llegado cuando la cola permanezca {@code receive-timeout} sin mensajes nuevos.</p>
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(consumerBatchSize);
+        factory.setReceiveTimeout(consumerReceiveTimeout.toMillis());
+        return factory;
+    }
+
+    /**
+     * Fábrica de contenedores para el modo {@code partitioned} de {@link ReportConsumer}.
+     *
+     * <p>Un único consumidor por cola recibe los mensajes en orden y los reparte por
+     * usuario en {@link PartitionedReportProcessor}; el ACK es manual y lo envía la
+     * partición al terminar, de modo que {@code prefetch} limita los mensajes en vuelo.</p>
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory partitionedRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(consumerPrefetch);
+        return factory;
+    }
+
+    /**
+     * Fábrica de contenedores para el modo {@code write-behind} de {@link ReportConsumer}.
+     *
+     * <p>Los mensajes se confirman en bloque tras cada checkpoint de
+     * {@link WriteBehindReportWriter}, así que {@code prefetch} debe cubrir lo que llega
+     * entre dos checkpoints; también acota la memoria de {@code PendingReportDeltas}.</p>
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory writeBehindRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(writeBehindPrefetch);
+        return factory;
+    }
+
+    /**
+     * Recuperador usado al agotar los reintentos: rechaza sin reencolar un mensaje
+     * individual y aplica uno a uno los mensajes de un lote (ver
+     * {@link ReportBatchRecoverer}; el recuperador por defecto de Spring Boot no sabe
+     * tratar lotes).
+     */
+    @Bean
+    public MessageRecoverer rejectAndDontRequeueRecoverer(ReportService reportService) {
+        return new ReportBatchRecoverer(reportService, jsonMessageConverter());
+    }
+}
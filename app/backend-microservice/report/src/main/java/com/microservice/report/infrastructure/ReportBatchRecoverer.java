@@ -0,0 +1,57 @@
+package com.microservice.report.infrastructure;
+
+import java.util.List;
+
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Recuperador usado al agotar los reintentos de un listener.
+ *
+ * <p>Un mensaje individual se rechaza sin reencolar. Un lote del modo {@code batch} no
+ * se descarta entero: basta una fila que la base de datos no acepte para que falle la
+ * transacción del lote, así que sus mensajes se aplican uno a uno con
+ * {@link ReportService#updateReport} y solo se pierden los que fallan por sí solos,
+ * igual que en el modo {@code single}. El lote se confirma después.</p>
+ */
+@Slf4j
+public class ReportBatchRecoverer implements MessageBatchRecoverer {
+
+    private final ReportService reportService;
+    private final MessageConverter messageConverter;
+    private final RejectAndDontRequeueRecoverer singleRecoverer = new RejectAndDontRequeueRecoverer();
+
+    public ReportBatchRecoverer(ReportService reportService, MessageConverter messageConverter) {
+        this.reportService = reportService;
+        this.messageConverter = messageConverter;
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        singleRecoverer.recover(message, cause);
+    }
+
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        log.warn("Batch of {} messages failed after retries; applying them one by one", messages.size(), cause);
+        int rejected = 0;
+        for (Message message : messages) {
+            try {
+                // Como en el listener: el tipo destino manda sobre el __TypeId__ del productor
+                message.getMessageProperties().setInferredArgumentType(TransactionMessage.class);
+                reportService.updateReport((TransactionMessage) messageConverter.fromMessage(message));
+            } catch (RuntimeException e) {
+                rejected++;
+                log.error("Rejecting message {} from failed batch", message.getMessageProperties().getDeliveryTag(), e);
+            }
+        }
+        if (rejected > 0) {
+            log.warn("Rejected {} of {} messages from failed batch", rejected, messages.size());
+        }
+    }
+}
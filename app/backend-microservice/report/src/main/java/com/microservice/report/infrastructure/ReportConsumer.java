@@ -2,9 +2,14 @@ package com.microservice.report.infrastructure;
 
 import com.microservice.report.infrastructure.dto.TransactionMessage;
 import com.microservice.report.service.ReportService;
+import com.rabbitmq.client.Channel;
+import java.util.List;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 /**
@@ -20,8 +25,8 @@ import org.springframework.stereotype.Service;
  * procesamiento:</p>
  * <pre>
  *   TransactionServiceImpl (produce evento)
- *     → TransactionEventListener (intercepta async)
- *       → TransactionMessageProducer (publica a RabbitMQ)
+ *     → TransactionEventListener (escribe en el outbox)
+ *       → TransactionOutboxRelay + TransactionMessageProducer (publica a RabbitMQ)
  *         → <strong>ReportConsumer</strong> (consume de RabbitMQ)
  *           → ReportServiceImpl.updateReport() (agrega datos)
  * </pre>
@@ -37,6 +42,22 @@ import org.springframework.stereotype.Service;
  * {@code "transaction-exchange"}. Los nombres de las colas se inyectan desde
  * {@code application.properties} vía {@code ${rabbitmq.queues.*}}.</p>
  *
+ * <h3>Modos de consumo</h3>
+ * <p>La propiedad {@code app.report.consumer.mode} decide qué listeners arrancan:</p>
+ * <ul>
+ *   <li>{@code single} (por defecto) — {@link #consumeCreated} y {@link #consumeUpdated}
+ *       procesan un mensaje por transacción de BD.</li>
+ *   <li>{@code batch} — {@link #consumeBatch} recibe lotes de ambas colas y los aplica
+ *       vía {@code ReportService.applyTransactions()}, que coalesce los mensajes por
+ *       {@code (userId, period)}. Pensado para picos de importación.</li>
+ *   <li>{@code partitioned} — {@link #consumePartitioned} reparte los mensajes por
+ *       {@code userId} entre varios hilos ({@link PartitionedReportProcessor}): el mismo
+ *       usuario se procesa en orden y sin concurrencia, usuarios distintos en paralelo.</li>
+ *   <li>{@code write-behind} — {@link #consumeWriteBehind} acumula los mensajes en memoria
+ *       y {@link WriteBehindReportWriter} los vuelca a BD en checkpoints periódicos; el
+ *       ACK se envía cuando el checkpoint que cubre el mensaje confirma.</li>
+ * </ul>
+ *
  * <h3>Deuda Técnica Identificada</h3>
  * <ul>
  *   <li><strong>DT-DOC-07:</strong> No hay manejo de errores en los métodos consumidores.
@@ -63,6 +84,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class ReportConsumer {
     private final ReportService reportService;
+    private final PartitionedReportProcessor partitionedReportProcessor;
+    private final WriteBehindReportWriter writeBehindReportWriter;
 
     /**
      * Consume mensajes de la cola de transacciones <strong>creadas</strong>.
@@ -79,7 +102,8 @@ public class ReportConsumer {
      * @param transactionMessage mensaje deserializado con los datos de la transacción
      *                           recién creada en el microservicio de transacciones
      */
-    @RabbitListener(queues = "${rabbitmq.queues.transaction-created}")
+    @RabbitListener(queues = "${rabbitmq.queues.transaction-created}",
+            autoStartup = "#{'${app.report.consumer.mode:single}' == 'single'}")
     public void consumeCreated(TransactionMessage transactionMessage) {
         log.info("Processing Created transaction ID: {}", transactionMessage.transactionId());
         reportService.updateReport(transactionMessage);
@@ -105,11 +129,66 @@ public class ReportConsumer {
      * @param transactionMessage mensaje deserializado con los datos de la transacción
      *                           actualizada en el microservicio de transacciones
      */
-    @RabbitListener(queues = "${rabbitmq.queues.transaction-updated}")
+    @RabbitListener(queues = "${rabbitmq.queues.transaction-updated}",
+            autoStartup = "#{'${app.report.consumer.mode:single}' == 'single'}")
     public void consumeUpdated(TransactionMessage transactionMessage) {
         log.info("Processing Updated transaction ID: {}", transactionMessage.transactionId());
         reportService.updateReport(transactionMessage);
         log.info("Successfully updated transaction ID: {}", transactionMessage.transactionId());
     }
-}
 
+    /**
+     * Consume lotes de ambas colas cuando {@code app.report.consumer.mode=batch}.
+     *
+     * <p>El lote se confirma (ACK) completo tras aplicar la transacción de BD; si ésta
+     * falla, se reintenta el lote entero según {@code spring.rabbitmq.listener.simple.retry}
+     * y después {@link ReportBatchRecoverer} aplica sus mensajes uno a uno, descartando
+     * solo los que fallan.</p>
+     *
+     * @param transactionMessages mensajes deserializados del lote
+     */
+    @RabbitListener(queues = {"${rabbitmq.queues.transaction-created}", "${rabbitmq.queues.transaction-updated}"},
+            containerFactory = "batchRabbitListenerContainerFactory",
+            autoStartup = "#{'${app.report.consumer.mode:single}' == 'batch'}")
+    public void consumeBatch(List<TransactionMessage> transactionMessages) {
+        log.info("Processing batch of {} transactions", transactionMessages.size());
+        reportService.applyTransactions(transactionMessages);
+        log.info("Successfully applied batch of {} transactions", transactionMessages.size());
+    }
+
+    /**
+     * Consume mensajes de ambas colas cuando {@code app.report.consumer.mode=partitioned}.
+     *
+     * <p>Solo encola el mensaje en la partición de su usuario; el ACK manual lo envía
+     * {@link PartitionedReportProcessor} tras aplicarlo.</p>
+     *
+     * @param transactionMessage mensaje deserializado
+     * @param channel            canal de entrega
+     * @param deliveryTag        etiqueta de entrega para el ACK manual
+     */
+    @RabbitListener(queues = {"${rabbitmq.queues.transaction-created}", "${rabbitmq.queues.transaction-updated}"},
+            containerFactory = "partitionedRabbitListenerContainerFactory",
+            autoStartup = "#{'${app.report.consumer.mode:single}' == 'partitioned'}")
+    public void consumePartitioned(TransactionMessage transactionMessage, Channel channel,
+                                   @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        partitionedReportProcessor.submit(transactionMessage, channel, deliveryTag);
+    }
+
+    /**
+     * Consume mensajes de ambas colas cuando {@code app.report.consumer.mode=write-behind}.
+     *
+     * <p>Solo acumula el delta en memoria; el ACK manual lo envía
+     * {@link WriteBehindReportWriter} tras el checkpoint que lo persiste.</p>
+     *
+     * @param transactionMessage mensaje deserializado
+     * @param channel            canal de entrega
+     * @param deliveryTag        etiqueta de entrega para el ACK manual
+     */
+    @RabbitListener(queues = {"${rabbitmq.queues.transaction-created}", "${rabbitmq.queues.transaction-updated}"},
+            containerFactory = "writeBehindRabbitListenerContainerFactory",
+            autoStartup = "#{'${app.report.consumer.mode:single}' == 'write-behind'}")
+    public void consumeWriteBehind(TransactionMessage transactionMessage, Channel channel,
+                                   @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        writeBehindReportWriter.submit(transactionMessage, channel, deliveryTag);
+    }
+}
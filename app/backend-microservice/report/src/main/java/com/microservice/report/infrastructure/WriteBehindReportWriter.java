@@ -0,0 +1,86 @@
+package com.microservice.report.infrastructure;
+
+import java.io.IOException;
+
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.service.ReportService;
+import com.microservice.report.service.impl.PendingReportDeltas;
+import com.microservice.report.service.impl.PendingReportDeltas.Outcome;
+import com.rabbitmq.client.Channel;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumidor del modo {@code write-behind} de {@link ReportConsumer}.
+ *
+ * <p>Cada mensaje se acumula en {@link PendingReportDeltas} sin tocar la base de datos;
+ * el checkpoint periódico ({@code app.report.write-behind.flush-interval-ms}) lo vuelca
+ * con {@code ReportService.applyTransactions} y solo entonces envía el ACK manual.
+ * Si el checkpoint falla, los mensajes vuelven a la cola y el registro de
+ * {@code transactionId} procesados evita sumarlos dos veces. Tras
+ * {@code app.report.write-behind.max-failed-checkpoints} fallos, el lote se aplica con
+ * {@code ReportService.updateReport} mensaje a mensaje y solo se rechaza, sin reencolar,
+ * el que falla, como en los modos {@code single} y {@code partitioned}.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class WriteBehindReportWriter {
+
+    private final ReportService reportService;
+    private final PendingReportDeltas pendingReportDeltas;
+
+    /**
+     * Acepta el mensaje en memoria; el ACK queda pendiente del próximo checkpoint.
+     *
+     * @param transactionMessage mensaje deserializado
+     * @param channel            canal de entrega
+     * @param deliveryTag        etiqueta de entrega para el ACK manual
+     */
+    public void submit(TransactionMessage transactionMessage, Channel channel, long deliveryTag) {
+        try {
+            pendingReportDeltas.add(transactionMessage,
+                    outcome -> acknowledge(channel, deliveryTag, outcome == Outcome.COMMITTED, outcome == Outcome.RETRY));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejecting invalid transaction message: {}", e.getMessage());
+            acknowledge(channel, deliveryTag, false, false);
+        }
+    }
+
+    /**
+     * Vuelca los agregados pendientes. Sin mensajes pendientes no hace nada.
+     */
+    @Scheduled(fixedDelayString = "${app.report.write-behind.flush-interval-ms:300}")
+    public void checkpoint() {
+        try {
+            int flushed = pendingReportDeltas.checkpoint(reportService::applyTransactions,
+                    reportService::updateReport);
+            if (flushed > 0) {
+                log.debug("Checkpointed {} transactions", flushed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Checkpoint failed; pending messages returned to the queue", e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        checkpoint();
+    }
+
+    private void acknowledge(Channel channel, long deliveryTag, boolean success, boolean requeue) {
+        try {
+            if (success) {
+                channel.basicAck(deliveryTag, false);
+            } else {
+                channel.basicNack(deliveryTag, false, requeue);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Canal cerrado: el broker reentregará el mensaje y el registro de ids procesados lo descartará.
+            log.warn("Could not {} delivery {}: {}", success ? "ack" : "nack", deliveryTag, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.microservice.report.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Migración de datos que se ejecuta una sola vez, en una única instancia.
+ *
+ * <p>{@code lockedUntil} es el lease de la instancia que la está ejecutando: otra
+ * instancia solo puede tomarla si ha vencido. {@code completedAt} marca que ya terminó.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "data_migrations")
+public class DataMigration {
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "name", length = 100)
+    private String name;
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+}
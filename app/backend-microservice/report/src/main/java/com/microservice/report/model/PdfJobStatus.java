@@ -0,0 +1,15 @@
+package com.microservice.report.model;
+
+/**
+ * Estados de un trabajo de generación de PDF asíncrono.
+ */
+public enum PdfJobStatus {
+    /** En cola, esperando un hilo de renderizado. */
+    PENDING,
+    /** Renderizándose. */
+    RUNNING,
+    /** PDF listo para descargar. */
+    COMPLETED,
+    /** La generación falló; ver el mensaje del trabajo. */
+    FAILED
+}
@@ -0,0 +1,39 @@
+package com.microservice.report.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "processed_transactions", indexes = {
+        @Index(name = "idx_processed_transactions_period", columnList = "period")
+})
+public class ProcessedTransaction {
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "transaction_id")
+    private Long transactionId;
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+    @Column(name = "processed_at", nullable = false)
+    private OffsetDateTime processedAt;
+}
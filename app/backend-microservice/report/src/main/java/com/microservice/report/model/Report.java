@@ -11,6 +11,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+
+import org.hibernate.annotations.ColumnDefault;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,7 +30,9 @@ import lombok.Setter;
 @Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reports_user_period", columnNames = {"user_id", "period"})
+})
 public class Report {
     @Id
     @EqualsAndHashCode.Include
@@ -47,6 +53,22 @@ public class Report {
     private OffsetDateTime createdAt;
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    /*
+     * Sumas acumuladas del usuario hasta este período incluido. Solo las escriben las
+     * sentencias nativas de ReportRepository (ver ReportCumulativeService); JPA nunca las
+     * inserta ni actualiza, así que un save() concurrente no puede pisarlas.
+     */
+    @ColumnDefault("0")
+    @Column(name = "cumulative_income", nullable = false, precision = 19, scale = 2,
+            insertable = false, updatable = false)
+    private BigDecimal cumulativeIncome;
+    @ColumnDefault("0")
+    @Column(name = "cumulative_expense", nullable = false, precision = 19, scale = 2,
+            insertable = false, updatable = false)
+    private BigDecimal cumulativeExpense;
 
     @PrePersist
     public void prePersist() {
@@ -0,0 +1,56 @@
+package com.microservice.report.model;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Totales de un usuario agregados por trimestre o por año, mantenidos en la misma
+ * transacción que los reportes mensuales ({@code reports}) de los que se derivan.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "report_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_report_rollups_user_bucket", columnNames = {"user_id", "granularity", "bucket"})
+})
+public class ReportRollup {
+    @Id
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 7)
+    private RollupGranularity granularity;
+    @Column(name = "bucket", nullable = false, length = 7)
+    private String bucket;
+    @Column(name = "total_income", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalIncome;
+    @Column(name = "total_expense", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalExpense;
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.microservice.report.model;
+
+import java.time.YearMonth;
+
+/**
+ * Granularidades de {@link ReportRollup} por encima del reporte mensual.
+ */
+public enum RollupGranularity {
+    /** Trimestre natural, bucket {@code "yyyy-Qn"}. */
+    QUARTER,
+    /** Año natural, bucket {@code "yyyy"}. */
+    YEAR;
+
+    public String bucketOf(YearMonth month) {
+        return switch (this) {
+            case QUARTER -> month.getYear() + "-Q" + ((month.getMonthValue() - 1) / 3 + 1);
+            case YEAR -> String.valueOf(month.getYear());
+        };
+    }
+}
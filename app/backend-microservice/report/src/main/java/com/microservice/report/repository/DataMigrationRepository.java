@@ -0,0 +1,42 @@
+package com.microservice.report.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservice.report.model.DataMigration;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+    boolean existsByNameAndCompletedAtIsNotNull(String name);
+
+    @Modifying
+    @Query(value = "insert ignore into data_migrations (name) values (:name)", nativeQuery = true)
+    int insertIgnore(@Param("name") String name);
+
+    /*
+     * Toma el lease si la migración no ha terminado y nadie lo tiene vigente. Devuelve 1
+     * solo en la instancia que lo consigue: la fila queda bloqueada hasta el commit.
+     */
+    @Modifying
+    @Query("""
+            update DataMigration m set m.lockedUntil = :lockedUntil
+            where m.name = :name and m.completedAt is null
+              and (m.lockedUntil is null or m.lockedUntil < :now)""")
+    int tryLock(@Param("name") String name,
+                @Param("now") OffsetDateTime now,
+                @Param("lockedUntil") OffsetDateTime lockedUntil);
+
+    @Modifying
+    @Query("update DataMigration m set m.lockedUntil = :lockedUntil where m.name = :name and m.completedAt is null")
+    int renewLock(@Param("name") String name, @Param("lockedUntil") OffsetDateTime lockedUntil);
+
+    @Modifying
+    @Query("update DataMigration m set m.completedAt = :completedAt, m.lockedUntil = null where m.name = :name")
+    int complete(@Param("name") String name, @Param("completedAt") OffsetDateTime completedAt);
+}
@@ -0,0 +1,34 @@
+package com.microservice.report.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservice.report.model.ProcessedTransaction;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface ProcessedTransactionRepository extends JpaRepository<ProcessedTransaction, Long> {
+    /*
+     * Registra el transactionId como procesado. Devuelve 1 si es la primera vez y 0 si
+     * ya existía; si otra transacción lo insertó sin confirmar todavía, espera a que termine.
+     */
+    @Modifying
+    @Query(value = """
+            insert ignore into processed_transactions (transaction_id, user_id, period, processed_at)
+            values (:transactionId, :userId, :period, :processedAt)""", nativeQuery = true)
+    int insertIgnore(@Param("transactionId") Long transactionId,
+                     @Param("userId") String userId,
+                     @Param("period") String period,
+                     @Param("processedAt") OffsetDateTime processedAt);
+
+    @Modifying
+    @Query("""
+            delete from ProcessedTransaction p
+            where p.period < :period and p.processedAt < :processedBefore""")
+    int deleteByPeriodBefore(@Param("period") String period,
+                             @Param("processedBefore") OffsetDateTime processedBefore);
+}
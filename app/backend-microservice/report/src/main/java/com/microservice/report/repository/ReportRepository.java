@@ -1,23 +1,174 @@
 package com.microservice.report.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.microservice.report.dto.ReportResponse;
+import com.microservice.report.dto.ReportTotals;
 import com.microservice.report.model.Report;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
-public interface ReportRepository extends JpaRepository<Report, Long> {
+public interface ReportRepository extends JpaRepository<Report, Long>, ReportUniqueKeyRepository {
     Optional<Report> findByUserIdAndPeriod(String userId, String period);
 
     Page<Report> findByUserId(String userId, Pageable pageable);
 
+    boolean existsByUserId(String userId);
+
     List<Report> findByUserIdAndPeriodBetweenOrderByPeriodAsc(
             String userId,
             String startPeriod,
             String endPeriod);
+
+    /*
+     * Proyecciones de solo lectura: construyen ReportResponse directamente desde el
+     * resultado SQL, sin cargar entidades en el contexto de persistencia.
+     */
+
+    @Query("""
+            select new com.microservice.report.dto.ReportResponse(
+                r.reportId, r.userId, r.period, r.totalIncome, r.totalExpense, r.balance, r.createdAt, r.updatedAt)
+            from Report r
+            where r.userId = :userId and r.period = :period""")
+    Optional<ReportResponse> findResponseByUserIdAndPeriod(@Param("userId") String userId,
+                                                           @Param("period") String period);
+
+    @Query(value = """
+            select new com.microservice.report.dto.ReportResponse(
+                r.reportId, r.userId, r.period, r.totalIncome, r.totalExpense, r.balance, r.createdAt, r.updatedAt)
+            from Report r
+            where r.userId = :userId""",
+            countQuery = "select count(r) from Report r where r.userId = :userId")
+    Page<ReportResponse> findResponsesByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @Query("""
+            select new com.microservice.report.dto.ReportResponse(
+                r.reportId, r.userId, r.period, r.totalIncome, r.totalExpense, r.balance, r.createdAt, r.updatedAt)
+            from Report r
+            where r.userId = :userId and r.period between :startPeriod and :endPeriod
+            order by r.period asc""")
+    List<ReportResponse> findResponsesByUserIdAndPeriodBetween(@Param("userId") String userId,
+                                                               @Param("startPeriod") String startPeriod,
+                                                               @Param("endPeriod") String endPeriod);
+
+    /*
+     * Totales del rango agregados en BD: una fila de resultado sea cual sea la amplitud del
+     * rango, resuelta sobre el índice de uk_reports_user_period (user_id, period).
+     */
+
+    @Query("""
+            select new com.microservice.report.dto.ReportTotals(sum(r.totalIncome), sum(r.totalExpense))
+            from Report r
+            where r.userId = :userId and r.period between :startPeriod and :endPeriod""")
+    ReportTotals sumTotalsByUserIdAndPeriodBetween(@Param("userId") String userId,
+                                                   @Param("startPeriod") String startPeriod,
+                                                   @Param("endPeriod") String endPeriod);
+
+    /*
+     * Acumulación atómica: inserta el reporte del período o suma los deltas sobre la fila
+     * existente en una sola sentencia, apoyándose en uk_reports_user_period. El balance se
+     * ajusta con el mismo delta para no depender del orden de evaluación de las asignaciones.
+     * También incrementa la versión, de modo que una escritura JPA concurrente sobre la
+     * misma fila (recalculateReport) detecte el conflicto.
+     * Devuelve 1 si insertó y 2 si actualizó (semántica de MySQL).
+     */
+
+    @Modifying
+    @Query(value = """
+            insert into reports (user_id, period, total_income, total_expense, balance, created_at, updated_at, version)
+            values (:userId, :period, :income, :expense, :income - :expense, :now, :now, 0)
+            on duplicate key update
+                total_income = total_income + :income,
+                total_expense = total_expense + :expense,
+                balance = balance + :income - :expense,
+                updated_at = :now,
+                version = version + 1""", nativeQuery = true)
+    int upsertTotals(@Param("userId") String userId,
+                     @Param("period") String period,
+                     @Param("income") BigDecimal income,
+                     @Param("expense") BigDecimal expense,
+                     @Param("now") OffsetDateTime now);
+
+    /*
+     * Sumas acumuladas (prefix sums) por usuario: cumulative_* de un período es la suma de
+     * sus totales y los de todos los períodos anteriores. El total de un rango son dos
+     * lecturas puntuales sobre uk_reports_user_period.
+     */
+
+    @Query("""
+            select new com.microservice.report.dto.ReportTotals(r.cumulativeIncome, r.cumulativeExpense)
+            from Report r
+            where r.userId = :userId and r.period <= :period
+            order by r.period desc
+            limit 1""")
+    Optional<ReportTotals> findCumulativeAsOf(@Param("userId") String userId, @Param("period") String period);
+
+    /*
+     * Bloquea el período anterior para que su acumulado no cambie hasta el commit: una
+     * escritura concurrente en un período anterior tendrá que esperar y desplazará
+     * después también esta fila.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Report> findFirstByUserIdAndPeriodLessThanOrderByPeriodDesc(String userId, String period);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update reports
+            set cumulative_income = :previousIncome + total_income,
+                cumulative_expense = :previousExpense + total_expense
+            where user_id = :userId and period = :period""", nativeQuery = true)
+    int seedCumulative(@Param("userId") String userId,
+                       @Param("period") String period,
+                       @Param("previousIncome") BigDecimal previousIncome,
+                       @Param("previousExpense") BigDecimal previousExpense);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update reports
+            set cumulative_income = cumulative_income + :income,
+                cumulative_expense = cumulative_expense + :expense
+            where user_id = :userId and period > :period""", nativeQuery = true)
+    int shiftCumulativeAfter(@Param("userId") String userId,
+                             @Param("period") String period,
+                             @Param("income") BigDecimal income,
+                             @Param("expense") BigDecimal expense);
+
+    /*
+     * Usuarios con reportes, por orden de userId a partir de {@code after} (paginación por
+     * clave sobre uk_reports_user_period).
+     */
+    @Query("select distinct r.userId from Report r where r.userId > :after order by r.userId")
+    List<String> findUserIdsAfter(@Param("after") String after, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Report> findAllForUpdateByUserIdOrderByPeriodAsc(String userId);
+
+    /*
+     * Usuarios con más de un reporte para el mismo período: solo posibles en una tabla
+     * creada antes de uk_reports_user_period (ver ReportUniqueKeyMigration).
+     */
+    @Query("select distinct r.userId from Report r group by r.userId, r.period having count(r) > 1 order by r.userId")
+    List<String> findUserIdsWithDuplicatePeriods(Limit limit);
+
+    @Modifying
+    @Query(value = """
+            update reports set cumulative_income = :income, cumulative_expense = :expense
+            where report_id = :reportId""", nativeQuery = true)
+    int setCumulative(@Param("reportId") Long reportId,
+                      @Param("income") BigDecimal income,
+                      @Param("expense") BigDecimal expense);
 }
@@ -0,0 +1,85 @@
+package com.microservice.report.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.model.ReportRollup;
+import com.microservice.report.model.RollupGranularity;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ReportRollupRepository extends JpaRepository<ReportRollup, Long> {
+    /*
+     * Suma el delta al bucket (creándolo si no existe) en una sola sentencia, igual que
+     * ReportRepository.upsertTotals. Un delta negativo descuenta un reporte eliminado.
+     */
+    @Modifying
+    @Query(value = """
+            insert into report_rollups (user_id, granularity, bucket, total_income, total_expense, updated_at)
+            values (:userId, :granularity, :bucket, :income, :expense, :now)
+            on duplicate key update
+                total_income = total_income + :income,
+                total_expense = total_expense + :expense,
+                updated_at = :now""", nativeQuery = true)
+    int upsertTotals(@Param("userId") String userId,
+                     @Param("granularity") String granularity,
+                     @Param("bucket") String bucket,
+                     @Param("income") BigDecimal income,
+                     @Param("expense") BigDecimal expense,
+                     @Param("now") OffsetDateTime now);
+
+    @Query("""
+            select new com.microservice.report.dto.ReportTotals(sum(r.totalIncome), sum(r.totalExpense))
+            from ReportRollup r
+            where r.userId = :userId and r.granularity = :granularity and r.bucket in :buckets""")
+    ReportTotals sumTotals(@Param("userId") String userId,
+                           @Param("granularity") RollupGranularity granularity,
+                           @Param("buckets") Collection<String> buckets);
+
+    /*
+     * Reconstrucción completa desde reports (alta de la tabla sobre datos existentes).
+     * Asigna en lugar de sumar, así que es idempotente aunque la ejecuten dos instancias.
+     * resetTotals pone antes a cero los buckets que ya no tienen reportes.
+     */
+    @Modifying
+    @Query("update ReportRollup r set r.totalIncome = 0, r.totalExpense = 0")
+    int resetTotals();
+
+    @Modifying
+    @Query(value = """
+            insert into report_rollups (user_id, granularity, bucket, total_income, total_expense, updated_at)
+            select m.user_id, 'YEAR', m.bucket, sum(m.total_income), sum(m.total_expense), :now
+            from (select user_id, substring(period, 1, 4) as bucket, total_income, total_expense
+                  from reports) m
+            group by m.user_id, m.bucket
+            on duplicate key update
+                total_income = values(total_income),
+                total_expense = values(total_expense),
+                updated_at = values(updated_at)""", nativeQuery = true)
+    int rebuildYears(@Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query(value = """
+            insert into report_rollups (user_id, granularity, bucket, total_income, total_expense, updated_at)
+            select m.user_id, 'QUARTER', m.bucket, sum(m.total_income), sum(m.total_expense), :now
+            from (select user_id, total_income, total_expense,
+                         concat(substring(period, 1, 4), '-Q',
+                                case when substring(period, 6, 2) <= '03' then '1'
+                                     when substring(period, 6, 2) <= '06' then '2'
+                                     when substring(period, 6, 2) <= '09' then '3'
+                                     else '4' end) as bucket
+                  from reports) m
+            group by m.user_id, m.bucket
+            on duplicate key update
+                total_income = values(total_income),
+                total_expense = values(total_expense),
+                updated_at = values(updated_at)""", nativeQuery = true)
+    int rebuildQuarters(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,28 @@
+package com.microservice.report.repository;
+
+/**
+ * Fragmento de repositorio para la clave única {@code uk_reports_user_period}.
+ *
+ * <p>Se expone a través de {@link ReportRepository}. Existe porque el esquema lo crea
+ * {@code ddl-auto: update}, que no añade la restricción a una tabla con filas duplicadas
+ * por {@code (user_id, period)} ni avisa de ello; sin ella, el upsert de totales inserta
+ * filas nuevas en lugar de acumular.</p>
+ */
+public interface ReportUniqueKeyRepository {
+
+    String UNIQUE_KEY_NAME = "uk_reports_user_period";
+
+    /**
+     * Indica si {@code reports} tiene un índice único sobre exactamente
+     * {@code (user_id, period)}, se llame como se llame.
+     */
+    boolean hasUniqueUserPeriodKey();
+
+    /**
+     * Crea {@code uk_reports_user_period}.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException si quedan filas
+     *                                                                 duplicadas
+     */
+    void addUniqueUserPeriodKey();
+}
@@ -0,0 +1,58 @@
+package com.microservice.report.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Implementación JDBC de {@link ReportUniqueKeyRepository}.
+ *
+ * <p>Consulta los índices con {@link DatabaseMetaData#getIndexInfo}, que funciona igual en
+ * MySQL y en H2; el nombre de la tabla se pasa con la capitalización en que la base de
+ * datos guarda los identificadores.</p>
+ */
+class ReportUniqueKeyRepositoryImpl implements ReportUniqueKeyRepository {
+
+    private static final String TABLE = "reports";
+    private static final Set<String> KEY_COLUMNS = Set.of("user_id", "period");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReportUniqueKeyRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean hasUniqueUserPeriodKey() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? TABLE.toUpperCase(Locale.ROOT) : TABLE;
+            Map<String, Set<String>> uniqueIndexes = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    table, true, false)) {
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (column != null && !indexes.getBoolean("NON_UNIQUE")) {
+                        uniqueIndexes.computeIfAbsent(Objects.toString(indexes.getString("INDEX_NAME")),
+                                        name -> new HashSet<>())
+                                .add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return uniqueIndexes.containsValue(KEY_COLUMNS);
+        }));
+    }
+
+    @Override
+    public void addUniqueUserPeriodKey() {
+        jdbcTemplate.execute("alter table reports add constraint " + UNIQUE_KEY_NAME + " unique (user_id, period)");
+    }
+}
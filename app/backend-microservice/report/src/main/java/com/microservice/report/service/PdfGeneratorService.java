@@ -1,7 +1,12 @@
 package com.microservice.report.service;
 
+import com.microservice.report.exception.PdfGenerationException;
 import com.microservice.report.model.Report;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+
 /**
  * Contrato para la generación de reportes financieros en formato PDF.
  *
@@ -15,12 +20,40 @@ import com.microservice.report.model.Report;
  */
 public interface PdfGeneratorService {
 
+    /**
+     * Genera un documento PDF con los datos del reporte financiero y lo escribe en
+     * {@code outputStream}, sin materializarlo completo en memoria. No cierra el stream.
+     *
+     * @param report       entidad {@link Report} con los datos del período a exportar
+     * @param outputStream destino del documento (archivo, respuesta HTTP, entrada de un ZIP...)
+     * @throws PdfGenerationException si ocurre un error durante la generación o la escritura
+     */
+    void writePdf(Report report, OutputStream outputStream);
+
+    /**
+     * Genera un estado de cuenta de varios períodos en un solo PDF: tabla resumen con una
+     * fila por período y los totales del rango, seguida de la página de detalle de cada
+     * período. No cierra el stream.
+     *
+     * @param reports      reportes de un mismo usuario, ordenados por período; no vacío
+     * @param outputStream destino del documento
+     * @throws PdfGenerationException si ocurre un error durante la generación o la escritura
+     */
+    void writeStatementPdf(List<Report> reports, OutputStream outputStream);
+
     /**
      * Genera un documento PDF con los datos del reporte financiero.
      *
+     * <p>Mantiene el documento completo en memoria: para respuestas HTTP usar
+     * {@link #writePdf(Report, OutputStream)}.</p>
+     *
      * @param report entidad {@link Report} con los datos del período a exportar
      * @return arreglo de bytes representando el contenido del archivo PDF
-     * @throws com.microservice.report.exception.PdfGenerationException si ocurre un error durante la generación
+     * @throws PdfGenerationException si ocurre un error durante la generación
      */
-    byte[] generatePdf(Report report);
+    default byte[] generatePdf(Report report) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writePdf(report, outputStream);
+        return outputStream.toByteArray();
+    }
 }
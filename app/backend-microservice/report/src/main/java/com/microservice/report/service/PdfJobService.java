@@ -0,0 +1,31 @@
+package com.microservice.report.service;
+
+import com.microservice.report.dto.PdfJobResponse;
+import com.microservice.report.model.Report;
+
+/**
+ * Generación asíncrona de PDFs: se encola un trabajo, se consulta su estado y, cuando
+ * termina, se descarga el resultado.
+ */
+public interface PdfJobService {
+
+    /**
+     * @throws com.microservice.report.exception.ReportNotFoundException si no existe el reporte
+     * @throws com.microservice.report.exception.PdfJobQueueFullException si la cola está llena
+     */
+    PdfJobResponse submit(String userId, String period);
+
+    /**
+     * @throws com.microservice.report.exception.ReportNotFoundException si el trabajo no existe,
+     *         ya caducó o es de otro usuario
+     */
+    PdfJobResponse getStatus(String userId, String jobId);
+
+    /**
+     * Reporte cuyo PDF quedó generado, para servirlo desde la caché de PDFs.
+     *
+     * @throws com.microservice.report.exception.PdfJobNotReadyException si aún no ha terminado
+     * @throws com.microservice.report.exception.PdfGenerationException si la generación falló
+     */
+    Report getResult(String userId, String jobId);
+}
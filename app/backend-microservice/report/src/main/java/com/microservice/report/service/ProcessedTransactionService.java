@@ -0,0 +1,7 @@
+package com.microservice.report.service;
+
+public interface ProcessedTransactionService {
+    boolean markProcessed(Long transactionId, String userId, String period);
+
+    int pruneExpired();
+}
@@ -0,0 +1,19 @@
+package com.microservice.report.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exportación del historial completo de reportes de un usuario.
+ */
+public interface ReportArchiveService {
+
+    /**
+     * Escribe en {@code outputStream} un ZIP con el PDF de cada período del usuario,
+     * generado y comprimido sobre la marcha. No cierra el stream.
+     *
+     * @return número de PDFs escritos
+     * @throws IOException si falla la escritura en {@code outputStream}
+     */
+    int writePdfArchive(String userId, OutputStream outputStream) throws IOException;
+}
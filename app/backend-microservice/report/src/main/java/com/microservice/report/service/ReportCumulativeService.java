@@ -0,0 +1,17 @@
+package com.microservice.report.service;
+
+import java.math.BigDecimal;
+
+import com.microservice.report.dto.ReportTotals;
+
+public interface ReportCumulativeService {
+    void applyDelta(String userId, String period, BigDecimal income, BigDecimal expense);
+
+    void removeReport(String userId, String period, BigDecimal income, BigDecimal expense);
+
+    ReportTotals totalsAsOf(String userId, String period);
+
+    ReportTotals sumRange(String userId, String startPeriod, String endPeriod);
+
+    int rebuild(String userId);
+}
@@ -0,0 +1,15 @@
+package com.microservice.report.service;
+
+import java.math.BigDecimal;
+
+import com.microservice.report.dto.ReportTotals;
+
+public interface ReportRollupService {
+    boolean isEnabled();
+
+    void applyDelta(String userId, String period, BigDecimal income, BigDecimal expense);
+
+    ReportTotals sumRange(String userId, String startPeriod, String endPeriod);
+
+    int rebuild();
+}
@@ -1,5 +1,6 @@
 package com.microservice.report.service;
 
+import com.microservice.report.dto.BalanceResponse;
 import com.microservice.report.dto.ReportResponse;
 import com.microservice.report.dto.ReportSummary;
 import com.microservice.report.infrastructure.dto.TransactionMessage;
@@ -12,12 +13,18 @@ import org.springframework.data.domain.Pageable;
 public interface ReportService {
     void updateReport(TransactionMessage transactionMessage);
 
+    void applyTransactions(List<TransactionMessage> transactionMessages);
+
     ReportResponse getReport(String userId, String period);
 
     PaginatedResponse<ReportResponse> getReportsByUserId(String userId, Pageable pageable);
 
     ReportSummary getReportsByPeriodRange(String userId, String startPeriod, String endPeriod);
 
+    ReportSummary getTotalsByPeriodRange(String userId, String startPeriod, String endPeriod);
+
+    BalanceResponse getBalanceAsOf(String userId, String period);
+
     void deleteReport(String userId, String period);
 
     void deleteReportById(String userId, Long reportId);
@@ -0,0 +1,100 @@
+package com.microservice.report.service.impl;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.microservice.report.repository.DataMigrationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ejecución de migraciones de datos únicas registradas en {@code data_migrations}.
+ *
+ * <p>Mientras una migración no ha terminado, la ejecuta una única instancia: la que toma
+ * el lease ({@code app.report.migrations.lease}); si esa instancia cae, otra la retoma
+ * cuando el lease vence. Una vez terminada, {@link #isCompleted} se resuelve en memoria
+ * sin volver a consultar la tabla.</p>
+ */
+@Slf4j
+@Component
+public class DataMigrations {
+
+    private final DataMigrationRepository dataMigrationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lease;
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    public DataMigrations(DataMigrationRepository dataMigrationRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.report.migrations.lease:5m}") Duration lease) {
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lease = lease;
+    }
+
+    /**
+     * Indica si la migración terminó, en esta o en otra instancia.
+     */
+    public boolean isCompleted(String name) {
+        if (completed.contains(name)) {
+            return true;
+        }
+        if (dataMigrationRepository.existsByNameAndCompletedAtIsNotNull(name)) {
+            completed.add(name);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ejecuta la migración si no ha terminado y ninguna otra instancia tiene el lease. Un
+     * fallo se registra y deja la migración pendiente para un intento posterior.
+     *
+     * @param migration trabajo idempotente; debe llamar a {@link #renewLease} entre lotes
+     * @return {@code true} si esta llamada la completó
+     */
+    public boolean runOnce(String name, Runnable migration) {
+        if (isCompleted(name)) {
+            return false;
+        }
+        if (!tryLock(name)) {
+            log.info("Migration {} is running on another instance", name);
+            return false;
+        }
+        try {
+            migration.run();
+        } catch (RuntimeException e) {
+            // Sin completar: el lease vence y la retoma el siguiente intento
+            log.error("Migration {} failed; it will be retried", name, e);
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> dataMigrationRepository.complete(name, OffsetDateTime.now()));
+        completed.add(name);
+        return true;
+    }
+
+    /**
+     * Vuelve a dejar la migración pendiente, para datos que dejan de mantenerse y deben
+     * recalcularse si se vuelven a usar.
+     */
+    public void reset(String name) {
+        transactionTemplate.executeWithoutResult(status -> dataMigrationRepository.deleteById(name));
+        completed.remove(name);
+    }
+
+    public void renewLease(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+                dataMigrationRepository.renewLock(name, OffsetDateTime.now().plus(lease)));
+    }
+
+    private boolean tryLock(String name) {
+        transactionTemplate.executeWithoutResult(status -> dataMigrationRepository.insertIgnore(name));
+        OffsetDateTime now = OffsetDateTime.now();
+        Integer locked = transactionTemplate.execute(status -> dataMigrationRepository.tryLock(name, now, now.plus(lease)));
+        return locked != null && locked == 1;
+    }
+}
@@ -5,18 +5,45 @@ import com.microservice.report.model.Report;
 import com.microservice.report.service.PdfGeneratorService;
 import com.microservice.report.template.ReportPdfTemplate;
 
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementación del servicio de generación de PDF para reportes financieros.
  *
  * <p><strong>Responsabilidad única:</strong> Orquestar el ciclo de vida del documento
- * PDF (crear, delegar renderizado al template, serializar y retornar bytes).
+ * PDF (crear, delegar renderizado al template y serializar al stream de salida).
  * La lógica de presentación/layout se encuentra en {@link ReportPdfTemplate}.</p>
  *
+ * <p>El documento usa una caché de streams mixta de PDFBox: hasta
+ * {@code app.report.pdf.max-main-memory} en heap y el resto en archivos temporales,
+ * de modo que la memoria por documento no crece con su tamaño.</p>
+ *
+ * <p>En los estados de cuenta de varios períodos, la página de detalle de cada período
+ * se renderiza en su propio documento sobre un pool acotado
+ * ({@code app.report.pdf.render-threads}) mientras el hilo de la petición dibuja la tabla
+ * resumen; después se importan en orden al documento final. Con el pool lleno, el hilo
+ * que envía renderiza él mismo.</p>
+ *
  * <p><strong>Historia de usuario:</strong> US-021 — Descargar Reporte de un Período como PDF</p>
  * <p><strong>Fase TDD:</strong> 🔵 REFACTOR — SRP aplicado</p>
  *
@@ -26,10 +53,28 @@ import java.io.ByteArrayOutputStream;
 @Service
 public class PdfGeneratorServiceImpl implements PdfGeneratorService {
 
+    private static final DataSize DEFAULT_MAX_MAIN_MEMORY = DataSize.ofMegabytes(1);
+    private static final int DEFAULT_RENDER_THREADS = 4;
+    private static final int RENDER_QUEUE_CAPACITY = 64;
+
     private final ReportPdfTemplate reportTemplate;
+    private final long maxMainMemoryBytes;
+    private final ExecutorService renderPool;
 
     public PdfGeneratorServiceImpl() {
-        this.reportTemplate = new ReportPdfTemplate();
+        this(DEFAULT_MAX_MAIN_MEMORY, DEFAULT_RENDER_THREADS);
+    }
+
+    @Autowired
+    public PdfGeneratorServiceImpl(@Value("${app.report.pdf.max-main-memory:1MB}") DataSize maxMainMemory,
+                                   @Value("${app.report.pdf.render-threads:4}") int renderThreads) {
+        this(new ReportPdfTemplate(), maxMainMemory, renderThreads);
+    }
+
+    PdfGeneratorServiceImpl(ReportPdfTemplate reportTemplate, DataSize maxMainMemory, int renderThreads) {
+        this.reportTemplate = reportTemplate;
+        this.maxMainMemoryBytes = maxMainMemory.toBytes();
+        this.renderPool = newRenderPool(renderThreads);
     }
 
     /**
@@ -37,28 +82,120 @@ public class PdfGeneratorServiceImpl implements PdfGeneratorService {
      *
      * <p>Flujo:</p>
      * <ol>
-     *   <li>Crear un {@link PDDocument} vacío</li>
+     *   <li>Crear un {@link PDDocument} vacío con memoria acotada</li>
      *   <li>Delegar la renderización al {@link ReportPdfTemplate}</li>
-     *   <li>Serializar el documento a {@code byte[]}</li>
+     *   <li>Serializar el documento directamente en {@code outputStream}</li>
      * </ol>
      *
-     * @param report entidad {@link Report} con los datos del período a exportar
-     * @return arreglo de bytes representando el contenido del archivo PDF
+     * @param report       entidad {@link Report} con los datos del período a exportar
+     * @param outputStream destino del documento; no se cierra
      * @throws PdfGenerationException si ocurre un error durante la generación
      */
     @Override
-    public byte[] generatePdf(Report report) {
-        try (PDDocument document = new PDDocument()) {
+    public void writePdf(Report report, OutputStream outputStream) {
+        try (PDDocument document = newDocument()) {
 
             reportTemplate.render(document, report);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            document.save(outputStream);
-            return outputStream.toByteArray();
+            save(document, outputStream);
 
         } catch (Exception e) {
             throw new PdfGenerationException(
                     "No fue posible generar el PDF. Inténtalo de nuevo más tarde.", e);
         }
     }
+
+    /**
+     * Genera el estado de cuenta de varios períodos.
+     *
+     * <p>Las páginas importadas siguen leyendo su contenido del documento en que se
+     * renderizaron, así que esos documentos se cierran después de guardar el final.</p>
+     *
+     * @param reports      reportes de un mismo usuario, ordenados por período; no vacío
+     * @param outputStream destino del documento; no se cierra
+     * @throws PdfGenerationException si ocurre un error durante la generación
+     */
+    @Override
+    public void writeStatementPdf(List<Report> reports, OutputStream outputStream) {
+        if (reports.isEmpty()) {
+            throw new IllegalArgumentException("A statement needs at least one report");
+        }
+        List<Future<PDDocument>> periodPages = new ArrayList<>(reports.size());
+        try (PDDocument document = newDocument()) {
+            for (Report report : reports) {
+                periodPages.add(renderPool.submit(() -> renderAlone(report)));
+            }
+
+            reportTemplate.renderStatementSummary(document, reports);
+            for (Future<PDDocument> periodPage : periodPages) {
+                for (PDPage page : periodPage.get().getPages()) {
+                    document.importPage(page);
+                }
+            }
+            save(document, outputStream);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfGenerationException(
+                    "No fue posible generar el PDF. Inténtalo de nuevo más tarde.", e);
+        } catch (Exception e) {
+            throw new PdfGenerationException(
+                    "No fue posible generar el PDF. Inténtalo de nuevo más tarde.",
+                    e instanceof ExecutionException ? e.getCause() : e);
+        } finally {
+            closeAll(periodPages);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdown();
+    }
+
+    private PDDocument renderAlone(Report report) throws IOException {
+        PDDocument document = newDocument();
+        try {
+            reportTemplate.render(document, report);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    private PDDocument newDocument() {
+        return new PDDocument(MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache);
+    }
+
+    private static void save(PDDocument document, OutputStream outputStream) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(outputStream);
+        document.save(buffered);
+        buffered.flush();
+    }
+
+    // Espera también a los que siguen renderizando para no dejar documentos sin cerrar
+    private static void closeAll(List<Future<PDDocument>> documents) {
+        for (Future<PDDocument> document : documents) {
+            try {
+                document.get().close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | IOException e) {
+                // Ya informado (o irrelevante tras guardar el documento)
+            }
+        }
+    }
+
+    private static ExecutorService newRenderPool(int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(RENDER_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-render-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 }
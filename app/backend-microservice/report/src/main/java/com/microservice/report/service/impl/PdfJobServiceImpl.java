@@ -0,0 +1,203 @@
+package com.microservice.report.service.impl;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.microservice.report.dto.PdfJobResponse;
+import com.microservice.report.exception.PdfGenerationException;
+import com.microservice.report.exception.PdfJobNotReadyException;
+import com.microservice.report.exception.PdfJobQueueFullException;
+import com.microservice.report.exception.ReportNotFoundException;
+import com.microservice.report.model.PdfJobStatus;
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.PdfGeneratorService;
+import com.microservice.report.service.PdfJobService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Trabajos de PDF renderizados fuera de los hilos de Tomcat.
+ *
+ * <p>Los trabajos se ejecutan en un pool acotado ({@code app.report.pdf.jobs.workers})
+ * con una cola también acotada ({@code app.report.pdf.jobs.queue-capacity}). Con la cola
+ * llena, {@link #submit} lanza {@link PdfJobQueueFullException} y el cliente recibe
+ * {@code 429} con {@code Retry-After}, en lugar de ocupar un hilo de petición esperando.</p>
+ *
+ * <p>El PDF resultante se guarda en {@link ReportPdfCache}; el trabajo solo recuerda qué
+ * versión del reporte se generó. Los trabajos terminados caducan tras
+ * {@code app.report.pdf.jobs.retention}; los pendientes o en curso no caducan ni cuentan
+ * para el máximo de trabajos recordados (ya los acota la cola), así que nunca desaparecen
+ * antes de renderizarse.</p>
+ *
+ * <p>Métricas: {@code reports.pdf.jobs.queue} (trabajos en cola),
+ * {@code reports.pdf.jobs.active} (renderizando), {@code reports.pdf.jobs.wait} (tiempo en
+ * cola), {@code reports.pdf.jobs.render} (tiempo de renderizado, por {@code outcome}) y
+ * {@code reports.pdf.jobs.rejected}.</p>
+ */
+@Slf4j
+@Service
+public class PdfJobServiceImpl implements PdfJobService {
+
+    private static final long MAX_TRACKED_JOBS = 10_000;
+    // Un trabajo sin terminar caduca solo al terminar (Caffeine lo trata como "nunca")
+    private static final Duration UNFINISHED = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final ReportRepository reportRepository;
+    private final PdfGeneratorService pdfGeneratorService;
+    private final ReportPdfCache reportPdfCache;
+    private final MeterRegistry meterRegistry;
+    private final Duration retryAfter;
+    private final ThreadPoolExecutor workers;
+    private final Cache<String, PdfJob> jobs;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PdfJobServiceImpl(ReportRepository reportRepository,
+                             PdfGeneratorService pdfGeneratorService,
+                             ReportPdfCache reportPdfCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.report.pdf.jobs.workers:2}") int workers,
+                             @Value("${app.report.pdf.jobs.queue-capacity:100}") int queueCapacity,
+                             @Value("${app.report.pdf.jobs.retention:15m}") Duration retention,
+                             @Value("${app.report.pdf.jobs.retry-after:5s}") Duration retryAfter) {
+        this.reportRepository = reportRepository;
+        this.pdfGeneratorService = pdfGeneratorService;
+        this.reportPdfCache = reportPdfCache;
+        this.meterRegistry = meterRegistry;
+        this.retryAfter = retryAfter;
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "pdf-job-" + sequence.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+                .maximumWeight(MAX_TRACKED_JOBS)
+                .<String, PdfJob>weigher((id, job) -> job.isFinished() ? 1 : 0)
+                .expireAfter(Expiry.writing((String id, PdfJob job) -> job.isFinished() ? retention : UNFINISHED))
+                .build();
+        Gauge.builder("reports.pdf.jobs.queue", this.workers, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("reports.pdf.jobs.active", this.workers, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("reports.pdf.jobs.wait").register(meterRegistry);
+        this.rejected = Counter.builder("reports.pdf.jobs.rejected").register(meterRegistry);
+    }
+
+    @Override
+    public PdfJobResponse submit(String userId, String period) {
+        Report report = reportRepository.findByUserIdAndPeriod(userId, period)
+                .orElseThrow(() -> new ReportNotFoundException(userId, period));
+
+        PdfJob job = new PdfJob(UUID.randomUUID().toString(), report);
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> render(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            rejected.increment();
+            throw new PdfJobQueueFullException(retryAfter);
+        }
+        return job.toResponse();
+    }
+
+    @Override
+    public PdfJobResponse getStatus(String userId, String jobId) {
+        return find(userId, jobId).toResponse();
+    }
+
+    @Override
+    public Report getResult(String userId, String jobId) {
+        PdfJob job = find(userId, jobId);
+        return switch (job.status) {
+            case COMPLETED -> job.report;
+            case FAILED -> throw new PdfGenerationException(job.message);
+            default -> throw new PdfJobNotReadyException(jobId, job.status);
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void render(PdfJob job) {
+        waitTimer.record(Duration.between(job.submittedAt, OffsetDateTime.now()));
+        job.status = PdfJobStatus.RUNNING;
+        long start = System.nanoTime();
+        PdfJobStatus result = PdfJobStatus.COMPLETED;
+        String message = null;
+        try {
+            if (!reportPdfCache.prepare(job.report, pdfGeneratorService::writePdf)) {
+                log.warn("PDF disk cache unavailable; job {} will render on download", job.id);
+            }
+        } catch (RuntimeException e) {
+            log.error("PDF job {} failed for user {} and period {}", job.id, job.report.getUserId(),
+                    job.report.getPeriod(), e);
+            result = PdfJobStatus.FAILED;
+            message = e instanceof PdfGenerationException
+                    ? e.getMessage()
+                    : "No fue posible generar el PDF. Inténtalo de nuevo más tarde.";
+        }
+        Timer.builder("reports.pdf.jobs.render")
+                .tag("outcome", result == PdfJobStatus.COMPLETED ? "success" : "failure")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        job.finish(result, message);
+        // Vuelve a pesar la entrada y empieza la retención desde que termina
+        jobs.put(job.id, job);
+    }
+
+    private PdfJob find(String userId, String jobId) {
+        PdfJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.report.getUserId().equals(userId)) {
+            throw new ReportNotFoundException(
+                    String.format("PDF job '%s' not found for user '%s'", jobId, userId));
+        }
+        return job;
+    }
+
+    private static final class PdfJob {
+        private final String id;
+        private final Report report;
+        private final OffsetDateTime submittedAt = OffsetDateTime.now();
+        private volatile PdfJobStatus status = PdfJobStatus.PENDING;
+        private volatile String message;
+        private volatile OffsetDateTime completedAt;
+
+        private PdfJob(String id, Report report) {
+            this.id = id;
+            this.report = report;
+        }
+
+        private void finish(PdfJobStatus status, String message) {
+            this.message = message;
+            this.completedAt = OffsetDateTime.now();
+            this.status = status;
+        }
+
+        private boolean isFinished() {
+            return status == PdfJobStatus.COMPLETED || status == PdfJobStatus.FAILED;
+        }
+
+        private PdfJobResponse toResponse() {
+            return new PdfJobResponse(id, report.getUserId(), report.getPeriod(), status, message,
+                    submittedAt, completedAt);
+        }
+    }
+}
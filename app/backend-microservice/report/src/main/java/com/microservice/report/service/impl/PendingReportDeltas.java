@@ -0,0 +1,390 @@
+package com.microservice.report.service.impl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.microservice.report.dto.ReportResponse;
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.infrastructure.dto.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Almacén en memoria de las transacciones aceptadas en modo {@code write-behind} que
+ * aún no se han volcado a la base de datos.
+ *
+ * <p>Cada mensaje aceptado suma su delta al agregado pendiente de su
+ * {@code (userId, period)}. Un checkpoint periódico toma todo lo pendiente, lo aplica en
+ * una sola transacción ({@code ReportService.applyTransactions}) y notifica el resultado
+ * a cada mensaje para que el consumidor envíe su ACK, o lo devuelva a la cola si falla.</p>
+ *
+ * <p>Un mensaje válido que la base de datos no acepta (período o importe fuera de rango,
+ * {@code userId} demasiado largo) haría fallar todos los checkpoints en los que entre.
+ * Por eso se cuentan los checkpoints fallidos de cada {@code transactionId}: cuando uno
+ * llega a {@code app.report.write-behind.max-failed-checkpoints}, el lote se aplica
+ * mensaje a mensaje y solo se rechazan, sin reencolar, los que fallan por sí solos.</p>
+ *
+ * <p>Las lecturas de reportes combinan la fila de BD con los deltas pendientes
+ * (read-your-writes). Para no contar dos veces un delta que ya está confirmado en BD, los
+ * deltas del lote en vuelo se retiran justo después del commit que los persiste
+ * ({@link #trackCommit}), y cada commit de un checkpoint avanza una secuencia al empezar y
+ * al terminar. Una lectura solo espera mientras hay un commit en curso, no durante todo el
+ * volcado; si la secuencia cambia mientras consulta la BD, repite la consulta. Así ve cada
+ * delta en memoria o en la base de datos, nunca en ambos.</p>
+ *
+ * <p>El tamaño está acotado por el prefetch del contenedor: nunca hay más mensajes
+ * pendientes que mensajes entregados sin ACK.</p>
+ */
+@Slf4j
+@Component
+public class PendingReportDeltas {
+
+    // Ids con checkpoints fallidos que se recuerdan; si se reentregan a otra instancia nunca se limpian
+    private static final int MAX_TRACKED_FAILURES = 100_000;
+
+    // Mensajes que el checkpoint en curso está aplicando en este hilo
+    private final ThreadLocal<List<TransactionMessage>> applying = new ThreadLocal<>();
+    private final int maxFailedCheckpoints;
+    private final Map<Long, Integer> failedCheckpoints = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+            return size() > MAX_TRACKED_FAILURES;
+        }
+    };
+    private Buffer current = new Buffer();
+    private Buffer flushing;
+    private long commitSequence;
+    private int committing;
+
+    public PendingReportDeltas() {
+        this(3);
+    }
+
+    @Autowired
+    public PendingReportDeltas(@Value("${app.report.write-behind.max-failed-checkpoints:3}") int maxFailedCheckpoints) {
+        this.maxFailedCheckpoints = maxFailedCheckpoints;
+    }
+
+    /**
+     * Acepta un mensaje y suma su delta a los agregados pendientes.
+     *
+     * @param message    mensaje recibido
+     * @param completion recibe el resultado del checkpoint que lo cubre
+     * @throws IllegalArgumentException si el mensaje no trae los campos necesarios
+     */
+    public synchronized void add(TransactionMessage message, Consumer<Outcome> completion) {
+        validate(message);
+        current.completions.computeIfAbsent(message.transactionId(), id -> new ArrayList<>()).add(completion);
+        if (!current.transactionIds.add(message.transactionId())
+                || (flushing != null && flushing.transactionIds.contains(message.transactionId()))) {
+            // Reentrega mientras el original sigue pendiente: se confirma junto con él
+            return;
+        }
+        current.messages.add(message);
+        current.merge(message);
+    }
+
+    /**
+     * Vuelca a la base de datos todo lo aceptado hasta ahora.
+     *
+     * <p>Si el volcado falla, los mensajes vuelven a la cola ({@link Outcome#RETRY}) y la
+     * excepción se propaga, salvo que algún mensaje acumule
+     * {@code max-failed-checkpoints} fallos: entonces el lote se aplica mensaje a mensaje
+     * con {@code single} y cada uno recibe su propio resultado.</p>
+     *
+     * @param flusher aplica los mensajes en una transacción; si lanza, el checkpoint falla
+     * @param single  aplica un único mensaje en su propia transacción
+     * @return número de mensajes volcados
+     */
+    public int checkpoint(Consumer<List<TransactionMessage>> flusher, Consumer<TransactionMessage> single) {
+        Buffer batch;
+        synchronized (this) {
+            if (current.completions.isEmpty()) {
+                return 0;
+            }
+            batch = current;
+            flushing = batch;
+            current = new Buffer();
+        }
+        Map<Long, Outcome> outcomes = new HashMap<>();
+        try {
+            try {
+                apply(batch.messages, () -> flusher.accept(batch.messages));
+            } catch (RuntimeException e) {
+                if (!recordFailure(batch.messages)) {
+                    throw e;
+                }
+                log.warn("Checkpoint of {} transactions failed repeatedly; applying them one by one",
+                        batch.messages.size(), e);
+                for (TransactionMessage message : batch.messages) {
+                    outcomes.put(message.transactionId(), applySingle(single, message));
+                }
+            }
+            clearFailures(batch.messages);
+            // Sin excepción todo queda confirmado; las reentregas sin mensaje propio en el lote se confirman con él
+            batch.completions.keySet().forEach(id -> outcomes.putIfAbsent(id, Outcome.COMMITTED));
+        } finally {
+            synchronized (this) {
+                flushing = null;
+            }
+            batch.completions.forEach((id, completions) -> {
+                Outcome outcome = outcomes.getOrDefault(id, Outcome.RETRY);
+                completions.forEach(completion -> completion.accept(outcome));
+            });
+        }
+        return batch.messages.size();
+    }
+
+    private Outcome applySingle(Consumer<TransactionMessage> single, TransactionMessage message) {
+        try {
+            apply(List.of(message), () -> single.accept(message));
+            return Outcome.COMMITTED;
+        } catch (RuntimeException e) {
+            log.error("Transaction ID: {} cannot be applied on its own; rejecting it", message.transactionId(), e);
+            return Outcome.REJECTED;
+        }
+    }
+
+    private void apply(List<TransactionMessage> messages, Runnable action) {
+        applying.set(messages);
+        try {
+            action.run();
+        } finally {
+            applying.remove();
+        }
+    }
+
+    /**
+     * Asocia la transacción en curso al checkpoint que la ejecuta en este hilo, si lo hay:
+     * su commit retira de los pendientes los deltas de los mensajes que aplica. Fuera de un
+     * checkpoint no hace nada.
+     */
+    public void trackCommit() {
+        List<TransactionMessage> messages = applying.get();
+        if (messages == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                beginCommit();
+                started = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (started) {
+                    endCommit(status == STATUS_COMMITTED ? messages : List.of());
+                }
+            }
+        });
+    }
+
+    private synchronized void beginCommit() {
+        committing++;
+        commitSequence++;
+    }
+
+    private synchronized void endCommit(List<TransactionMessage> committed) {
+        if (flushing != null && !committed.isEmpty()) {
+            committed.forEach(message -> flushing.committedIds.add(message.transactionId()));
+            flushing.recomputeDeltas();
+        }
+        committing--;
+        commitSequence++;
+        notifyAll();
+    }
+
+    /**
+     * Suma un checkpoint fallido a cada mensaje del lote.
+     *
+     * @return {@code true} si alguno llegó al máximo de checkpoints fallidos
+     */
+    private synchronized boolean recordFailure(List<TransactionMessage> messages) {
+        boolean exhausted = false;
+        for (TransactionMessage message : messages) {
+            exhausted |= failedCheckpoints.merge(message.transactionId(), 1, Integer::sum) >= maxFailedCheckpoints;
+        }
+        return exhausted;
+    }
+
+    private synchronized void clearFailures(List<TransactionMessage> messages) {
+        messages.forEach(message -> failedCheckpoints.remove(message.transactionId()));
+    }
+
+    /**
+     * Ejecuta una lectura de BD que después se combinará con los deltas pendientes,
+     * repitiéndola si un checkpoint confirma entre medias.
+     */
+    public <T> T read(Supplier<T> query) {
+        while (true) {
+            long observed = awaitCommits();
+            T result = query.get();
+            synchronized (this) {
+                if (commitSequence == observed) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private synchronized long awaitCommits() {
+        while (committing > 0) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a checkpoint commit", e);
+            }
+        }
+        return commitSequence;
+    }
+
+    /**
+     * Suma al reporte de BD los deltas pendientes de su {@code (userId, period)}.
+     */
+    public ReportResponse overlay(ReportResponse report) {
+        Delta delta = pendingDelta(new Key(report.userId(), report.period()));
+        if (delta == null) {
+            return report;
+        }
+        BigDecimal income = report.totalIncome().add(delta.income());
+        BigDecimal expense = report.totalExpense().add(delta.expense());
+        return new ReportResponse(report.reportId(), report.userId(), report.period(),
+                income, expense, income.subtract(expense), report.createdAt(), report.updatedAt());
+    }
+
+    /**
+     * Reporte construido solo con deltas pendientes, para un período que aún no existe en BD.
+     */
+    public Optional<ReportResponse> pendingOnly(String userId, String period) {
+        Delta delta = pendingDelta(new Key(userId, period));
+        if (delta == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ReportResponse(null, userId, period, delta.income(), delta.expense(),
+                delta.income().subtract(delta.expense()), null, null));
+    }
+
+    /**
+     * Períodos del usuario con deltas pendientes dentro del rango, ambos extremos incluidos.
+     */
+    public synchronized List<String> pendingPeriods(String userId, String startPeriod, String endPeriod) {
+        Set<String> periods = new HashSet<>();
+        for (Buffer buffer : buffers()) {
+            for (Key key : buffer.deltas.keySet()) {
+                if (key.userId().equals(userId)
+                        && key.period().compareTo(startPeriod) >= 0 && key.period().compareTo(endPeriod) <= 0) {
+                    periods.add(key.period());
+                }
+            }
+        }
+        return new ArrayList<>(periods);
+    }
+
+    /**
+     * Suma a los totales de BD del rango los deltas pendientes del usuario en ese rango.
+     */
+    public synchronized ReportTotals overlayTotals(ReportTotals totals, String userId,
+                                                   String startPeriod, String endPeriod) {
+        ReportTotals result = totals;
+        for (Buffer buffer : buffers()) {
+            for (Map.Entry<Key, Delta> entry : buffer.deltas.entrySet()) {
+                Key key = entry.getKey();
+                if (key.userId().equals(userId)
+                        && key.period().compareTo(startPeriod) >= 0 && key.period().compareTo(endPeriod) <= 0) {
+                    result = result.plus(entry.getValue().income(), entry.getValue().expense());
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return current.messages.size() + (flushing == null ? 0 : flushing.messages.size());
+    }
+
+    private synchronized Delta pendingDelta(Key key) {
+        Delta total = null;
+        for (Buffer buffer : buffers()) {
+            Delta delta = buffer.deltas.get(key);
+            if (delta != null) {
+                total = total == null ? delta : total.plus(delta);
+            }
+        }
+        return total;
+    }
+
+    private List<Buffer> buffers() {
+        return flushing == null ? List.of(current) : List.of(current, flushing);
+    }
+
+    private static void validate(TransactionMessage message) {
+        if (message == null || message.transactionId() == null || message.userId() == null
+                || message.userId().isBlank() || message.date() == null || message.type() == null
+                || message.amount() == null) {
+            throw new IllegalArgumentException("Transaction message is missing required fields");
+        }
+    }
+
+    /**
+     * Resultado de un checkpoint para cada entrega cubierta.
+     */
+    public enum Outcome {
+        /** Persistido: se confirma (ACK). */
+        COMMITTED,
+        /** El checkpoint falló: vuelve a la cola para reintentarse. */
+        RETRY,
+        /** Falla por sí solo tras agotar los checkpoints: se rechaza sin reencolar. */
+        REJECTED
+    }
+
+    private record Key(String userId, String period) {
+    }
+
+    private record Delta(BigDecimal income, BigDecimal expense) {
+        Delta plus(Delta other) {
+            return new Delta(income.add(other.income), expense.add(other.expense));
+        }
+    }
+
+    private static final class Buffer {
+        private final List<TransactionMessage> messages = new ArrayList<>();
+        private final Map<Key, Delta> deltas = new HashMap<>();
+        private final Set<Long> transactionIds = new HashSet<>();
+        private final Map<Long, List<Consumer<Outcome>>> completions = new LinkedHashMap<>();
+        private final Set<Long> committedIds = new HashSet<>();
+
+        private void merge(TransactionMessage message) {
+            boolean income = message.type() == TransactionType.INCOME;
+            deltas.merge(new Key(message.userId(), YearMonth.from(message.date()).toString()),
+                    new Delta(income ? message.amount() : BigDecimal.ZERO, income ? BigDecimal.ZERO : message.amount()),
+                    Delta::plus);
+        }
+
+        // Deja en deltas solo los mensajes cuyo commit aún no se ha observado
+        private void recomputeDeltas() {
+            deltas.clear();
+            messages.stream()
+                    .filter(message -> !committedIds.contains(message.transactionId()))
+                    .forEach(this::merge);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.microservice.report.service.impl;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.report.repository.ProcessedTransactionRepository;
+import com.microservice.report.service.ProcessedTransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Registro de {@code transactionId} ya acumulados en los reportes (DT-DOC-02).
+ *
+ * <p>Dos niveles:</p>
+ * <ul>
+ *   <li><strong>Tabla {@code processed_transactions}:</strong> fuente de verdad. El
+ *       {@code INSERT IGNORE} se ejecuta en la misma transacción que el upsert del
+ *       reporte, así que un id queda registrado si y solo si su monto quedó sumado.</li>
+ *   <li><strong>Caché Caffeine acotada:</strong> ids confirmados recientemente. Solo se
+ *       llena tras el commit, por lo que un acierto permite descartar una reentrega sin
+ *       tocar la base de datos; un fallo siempre se resuelve contra la tabla.</li>
+ * </ul>
+ *
+ * <p>La tabla se purga por período: se eliminan los ids de reportes anteriores a la
+ * ventana de retención que además se procesaron antes de esa ventana, de modo que una
+ * transacción con fecha antigua registrada hoy sigue protegida.</p>
+ */
+@Slf4j
+@Service
+public class ProcessedTransactionServiceImpl implements ProcessedTransactionService {
+    private static final DateTimeFormatter PERIOD_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final ProcessedTransactionRepository processedTransactionRepository;
+    private final int retentionMonths;
+    private final Cache<Long, Boolean> recentIds;
+
+    public ProcessedTransactionServiceImpl(ProcessedTransactionRepository processedTransactionRepository,
+                                           @Value("${app.report.dedupe.retention-months:3}") int retentionMonths,
+                                           @Value("${app.report.dedupe.memory-size:100000}") long memorySize) {
+        this.processedTransactionRepository = processedTransactionRepository;
+        this.retentionMonths = retentionMonths;
+        this.recentIds = Caffeine.newBuilder()
+                .maximumSize(memorySize)
+                .build();
+    }
+
+    /**
+     * Marca la transacción como procesada dentro de la transacción de BD en curso.
+     *
+     * @param transactionId id de la transacción de origen
+     * @param userId        usuario del reporte afectado
+     * @param period        período {@code "yyyy-MM"} del reporte afectado
+     * @return {@code true} si es la primera vez que se procesa y debe acumularse;
+     *         {@code false} si es una reentrega
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public boolean markProcessed(Long transactionId, String userId, String period) {
+        if (recentIds.getIfPresent(transactionId) != null) {
+            return false;
+        }
+        boolean firstTime = processedTransactionRepository.insertIgnore(
+                transactionId, userId, period, OffsetDateTime.now()) == 1;
+        rememberAfterCommit(transactionId);
+        return firstTime;
+    }
+
+    /**
+     * Purga los ids de períodos fuera de la ventana de retención.
+     *
+     * @return número de filas eliminadas
+     */
+    @Scheduled(fixedDelayString = "${app.report.dedupe.prune-interval-ms:3600000}")
+    @Transactional
+    @Override
+    public int pruneExpired() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        int deleted = processedTransactionRepository.deleteByPeriodBefore(
+                cutoff.format(PERIOD_FORMATTER), OffsetDateTime.now().minusMonths(retentionMonths));
+        if (deleted > 0) {
+            log.debug("Pruned {} processed transaction ids before period {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    private void rememberAfterCommit(Long transactionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentIds.put(transactionId, Boolean.TRUE);
+            }
+        });
+    }
+}
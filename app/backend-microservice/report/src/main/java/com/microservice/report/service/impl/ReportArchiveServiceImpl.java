@@ -0,0 +1,82 @@
+package com.microservice.report.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.PdfGeneratorService;
+import com.microservice.report.service.ReportArchiveService;
+import com.microservice.report.util.PdfFileNameGenerator;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+/**
+ * ZIP con los PDFs de todos los períodos de un usuario, escrito en streaming.
+ *
+ * <p>Los reportes se leen por páginas de {@code app.report.pdf.archive.page-size} con
+ * {@link ReportRepository#findByUserId}; cada PDF se genera directamente dentro de su
+ * entrada del ZIP, que se comprime mientras se escribe. Entre páginas se vacía el
+ * contexto de persistencia (con open-in-view sigue abierto durante toda la respuesta),
+ * así que en memoria solo hay una página de reportes y un PDF en curso, sea cual sea la
+ * longitud del historial.</p>
+ *
+ * <p>No pasa por la caché de PDFs: una exportación completa la llenaría de períodos que
+ * nadie volverá a pedir.</p>
+ */
+@Slf4j
+@Service
+public class ReportArchiveServiceImpl implements ReportArchiveService {
+
+    private final ReportRepository reportRepository;
+    private final PdfGeneratorService pdfGeneratorService;
+    private final EntityManager entityManager;
+    private final int pageSize;
+
+    public ReportArchiveServiceImpl(ReportRepository reportRepository,
+                                    PdfGeneratorService pdfGeneratorService,
+                                    EntityManager entityManager,
+                                    @Value("${app.report.pdf.archive.page-size:50}") int pageSize) {
+        this.reportRepository = reportRepository;
+        this.pdfGeneratorService = pdfGeneratorService;
+        this.entityManager = entityManager;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public int writePdfArchive(String userId, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        // Los PDF ya van comprimidos por dentro: más nivel apenas reduce y cuesta CPU
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        int written = 0;
+        Pageable pageable = PageRequest.of(0, pageSize, Sort.by("period", "reportId"));
+        Page<Report> page;
+        do {
+            page = reportRepository.findByUserId(userId, pageable);
+            for (Report report : page) {
+                zip.putNextEntry(new ZipEntry(PdfFileNameGenerator.generateFileName(report.getPeriod())));
+                pdfGeneratorService.writePdf(report, zip);
+                zip.closeEntry();
+                written++;
+            }
+            zip.flush();
+            entityManager.clear();
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+
+        zip.finish();
+        zip.flush();
+        log.debug("PDF archive for user {} written with {} reports", userId, written);
+        return written;
+    }
+}
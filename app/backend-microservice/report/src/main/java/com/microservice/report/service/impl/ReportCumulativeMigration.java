@@ -0,0 +1,92 @@
+package com.microservice.report.service.impl;
+
+import java.util.List;
+
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.ReportCumulativeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migración única que calcula las sumas acumuladas de los reportes que existían antes de
+ * las columnas {@code cumulative_*}.
+ *
+ * <p>Se ejecuta con {@link DataMigrations}: una sola instancia, bajo lease. Se intenta al
+ * arrancar y después cada {@code app.report.migrations.retry-interval-ms}, de modo que un
+ * fallo o una instancia caída no la dejan pendiente hasta el siguiente despliegue. Hasta
+ * que termina, {@link ReportCumulativeServiceImpl} calcula los totales con {@code SUM()}
+ * en lugar de leer las columnas de acumulados.</p>
+ *
+ * <p>Recorre los usuarios por orden de {@code userId} en lotes y recalcula cada uno en su
+ * propia transacción ({@link ReportCumulativeService#rebuild}), bloqueando solo las filas
+ * de ese usuario: los consumidores de otras instancias siguen escribiendo entretanto, y
+ * uno que escriba en el usuario en curso espera y desplaza después los acumulados ya
+ * recalculados. Recalcular es idempotente, así que retomar una ejecución a medias es
+ * seguro.</p>
+ */
+@Slf4j
+@Component
+public class ReportCumulativeMigration implements SmartInitializingSingleton {
+
+    static final String NAME = "report-cumulative-totals";
+    private static final int USER_BATCH_SIZE = 500;
+
+    private final DataMigrations dataMigrations;
+    private final ReportRepository reportRepository;
+    private final ReportCumulativeService reportCumulativeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportWriteRetrier writeRetrier;
+
+    public ReportCumulativeMigration(DataMigrations dataMigrations,
+                                     ReportRepository reportRepository,
+                                     ReportCumulativeService reportCumulativeService,
+                                     TransactionTemplate transactionTemplate,
+                                     ReportWriteRetrier writeRetrier) {
+        this.dataMigrations = dataMigrations;
+        this.reportRepository = reportRepository;
+        this.reportCumulativeService = reportCumulativeService;
+        this.transactionTemplate = transactionTemplate;
+        this.writeRetrier = writeRetrier;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        run();
+    }
+
+    /**
+     * Ejecuta la migración si no ha terminado y ninguna otra instancia la tiene.
+     *
+     * @return {@code true} si esta llamada la completó
+     */
+    @Scheduled(initialDelayString = "${app.report.migrations.retry-interval-ms:60000}",
+            fixedDelayString = "${app.report.migrations.retry-interval-ms:60000}")
+    public boolean run() {
+        return dataMigrations.runOnce(NAME, this::migrate);
+    }
+
+    private void migrate() {
+        String after = "";
+        int users = 0;
+        int reports = 0;
+        List<String> batch;
+        do {
+            batch = reportRepository.findUserIdsAfter(after, Limit.of(USER_BATCH_SIZE));
+            for (String userId : batch) {
+                reports += writeRetrier.execute("cumulative-migration",
+                        () -> transactionTemplate.execute(status -> reportCumulativeService.rebuild(userId)));
+            }
+            if (!batch.isEmpty()) {
+                after = batch.getLast();
+                users += batch.size();
+            }
+            dataMigrations.renewLease(NAME);
+        } while (batch.size() == USER_BATCH_SIZE);
+
+        log.info("Migration {} rebuilt cumulative totals of {} reports for {} users", NAME, reports, users);
+    }
+}
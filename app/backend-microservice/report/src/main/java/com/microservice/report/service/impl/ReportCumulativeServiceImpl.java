@@ -0,0 +1,119 @@
+package com.microservice.report.service.impl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.ReportCumulativeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Sumas acumuladas (prefix sums) de ingresos y gastos por usuario, guardadas en las
+ * columnas {@code cumulative_*} de {@code reports}.
+ *
+ * <p>Con ellas, los totales de cualquier rango {@code [start, end]} son
+ * {@code acumulado(end) - acumulado(start - 1)}: dos lecturas puntuales por índice, sea cual
+ * sea la longitud del historial del usuario. El acumulado de un período también es el
+ * balance "a fecha" de ese período.</p>
+ *
+ * <h3>Mantenimiento</h3>
+ * <p>En la misma transacción que el upsert del reporte:</p>
+ * <ol>
+ *   <li>Se bloquea y lee el acumulado del período anterior con datos.</li>
+ *   <li>El acumulado del período escrito se recalcula como ese valor más sus totales
+ *       (vale igual para una fila recién creada que para una existente).</li>
+ *   <li>Los períodos posteriores se desplazan con el delta en un único {@code UPDATE}
+ *       por rango de índice. Lo habitual es escribir en el mes en curso, así que el
+ *       rango suele estar vacío; una transacción con fecha pasada toca como mucho los
+ *       meses con datos que la siguen.</li>
+ * </ol>
+ * <p>Al eliminar un reporte, los períodos posteriores se desplazan con sus totales en
+ * negativo. Los reportes anteriores a las columnas de acumulados los calcula una sola vez
+ * {@link ReportCumulativeMigration}; hasta que termina (en cualquier instancia), las
+ * lecturas suman los totales con {@code SUM()} en lugar de leer unos acumulados que aún
+ * pueden estar a cero.</p>
+ */
+@RequiredArgsConstructor
+@Service
+public class ReportCumulativeServiceImpl implements ReportCumulativeService {
+
+    private static final ReportTotals ZERO = new ReportTotals(BigDecimal.ZERO, BigDecimal.ZERO);
+    private static final String FIRST_PERIOD = "0000-01";
+
+    private final ReportRepository reportRepository;
+    private final DataMigrations dataMigrations;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void applyDelta(String userId, String period, BigDecimal income, BigDecimal expense) {
+        ReportTotals previous = reportRepository.findFirstByUserIdAndPeriodLessThanOrderByPeriodDesc(userId, period)
+                .map(report -> new ReportTotals(report.getCumulativeIncome(), report.getCumulativeExpense()))
+                .orElse(ZERO);
+        reportRepository.seedCumulative(userId, period, previous.totalIncome(), previous.totalExpense());
+        reportRepository.shiftCumulativeAfter(userId, period, income, expense);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void removeReport(String userId, String period, BigDecimal income, BigDecimal expense) {
+        reportRepository.shiftCumulativeAfter(userId, period, income.negate(), expense.negate());
+    }
+
+    /**
+     * Ingresos y gastos acumulados del usuario hasta el período incluido.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ReportTotals totalsAsOf(String userId, String period) {
+        if (!cumulativeReady()) {
+            return reportRepository.sumTotalsByUserIdAndPeriodBetween(userId, FIRST_PERIOD, period);
+        }
+        return reportRepository.findCumulativeAsOf(userId, period).orElse(ZERO);
+    }
+
+    /**
+     * Totales del rango {@code [startPeriod, endPeriod]}. Un rango invertido no contiene
+     * períodos y suma cero, igual que un {@code BETWEEN} vacío.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ReportTotals sumRange(String userId, String startPeriod, String endPeriod) {
+        if (startPeriod.compareTo(endPeriod) > 0) {
+            return ZERO;
+        }
+        if (!cumulativeReady()) {
+            return reportRepository.sumTotalsByUserIdAndPeriodBetween(userId, startPeriod, endPeriod);
+        }
+        ReportTotals end = totalsAsOf(userId, endPeriod);
+        ReportTotals beforeStart = totalsAsOf(userId, YearMonth.parse(startPeriod).minusMonths(1).toString());
+        return end.plus(beforeStart.totalIncome().negate(), beforeStart.totalExpense().negate());
+    }
+
+    /**
+     * Recalcula los acumulados de un usuario recorriendo sus reportes por período. Las
+     * filas quedan bloqueadas hasta el commit, así que una escritura concurrente del mismo
+     * usuario espera y después desplaza los acumulados ya recalculados.
+     *
+     * @return filas actualizadas
+     */
+    @Transactional
+    @Override
+    public int rebuild(String userId) {
+        ReportTotals running = ZERO;
+        int updated = 0;
+        for (Report report : reportRepository.findAllForUpdateByUserIdOrderByPeriodAsc(userId)) {
+            running = running.plus(report.getTotalIncome(), report.getTotalExpense());
+            updated += reportRepository.setCumulative(report.getReportId(), running.totalIncome(), running.totalExpense());
+        }
+        return updated;
+    }
+
+    private boolean cumulativeReady() {
+        return dataMigrations.isCompleted(ReportCumulativeMigration.NAME);
+    }
+}
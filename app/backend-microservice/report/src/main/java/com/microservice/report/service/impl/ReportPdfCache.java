@@ -0,0 +1,344 @@
+package com.microservice.report.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.report.model.Report;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Caché de los PDF generados, direccionada por contenido: la clave es
+ * {@code (reportId, updatedAt)}, así que una escritura sobre el reporte produce una clave
+ * nueva y nunca hay que invalidar nada.
+ *
+ * <p>Dos niveles:</p>
+ * <ul>
+ *   <li><strong>Disco local:</strong> un archivo por reporte en
+ *   {@code app.report.pdf.cache.dir}; al guardar una versión nueva se borran las
+ *   anteriores. El PDF se renderiza en streaming directamente a este archivo y desde él
+ *   se copia a la respuesta, así que nunca está completo en el heap. Sobrevive a
+ *   reinicios. Si el directorio no se puede usar, el PDF se renderiza directamente sobre
+ *   la respuesta, sin caché. Un barrido periódico ({@link #sweep}) borra los archivos más
+ *   antiguos que {@code disk-max-age} (p. ej. de reportes borrados) y, por antigüedad,
+ *   los que excedan {@code disk-max-size}.</li>
+ *   <li><strong>Memoria:</strong> Caffeine acotado por el total de bytes
+ *   ({@code app.report.pdf.cache.memory-max-size}) con los PDFs de hasta
+ *   {@code app.report.pdf.cache.memory-max-entry-size}; de los mayores solo recuerda que
+ *   están en disco. Peticiones simultáneas de la misma clave esperan a un único
+ *   renderizado, que se hace en el hilo de la primera petición y fuera del
+ *   {@code compute} de Caffeine: la caché solo guarda el {@link CompletableFuture}, así
+ *   que un renderizado lento no bloquea a otras claves.</li>
+ * </ul>
+ *
+ * <p>Métricas: las de Caffeine con {@code cache=reports.pdf}.</p>
+ */
+@Slf4j
+@Component
+public class ReportPdfCache {
+
+    // Peso nominal de una entrada que solo apunta al archivo en disco
+    private static final int ON_DISK_WEIGHT = 1024;
+
+    private final AsyncCache<PdfKey, Entry> memory;
+    private final long memoryMaxEntryBytes;
+    private final Path directory;
+    private final long diskMaxBytes;
+    private final Duration diskMaxAge;
+
+    @Autowired
+    public ReportPdfCache(MeterRegistry meterRegistry,
+                          @Value("${app.report.pdf.cache.memory-max-size:32MB}") DataSize memoryMaxSize,
+                          @Value("${app.report.pdf.cache.memory-max-entry-size:256KB}") DataSize memoryMaxEntrySize,
+                          @Value("${app.report.pdf.cache.dir:${java.io.tmpdir}/report-pdf-cache}") Path directory,
+                          @Value("${app.report.pdf.cache.disk-max-size:1GB}") DataSize diskMaxSize,
+                          @Value("${app.report.pdf.cache.disk-max-age:7d}") Duration diskMaxAge) {
+        AsyncCache<PdfKey, Entry> cache = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxSize.toBytes())
+                .<PdfKey, Entry>weigher((key, entry) -> entry instanceof InMemory(byte[] pdf) ? pdf.length : ON_DISK_WEIGHT)
+                .recordStats()
+                .buildAsync();
+        this.memory = CaffeineCacheMetrics.monitor(meterRegistry, cache, "reports.pdf");
+        this.memoryMaxEntryBytes = memoryMaxEntrySize.toBytes();
+        this.directory = directory;
+        this.diskMaxBytes = diskMaxSize.toBytes();
+        this.diskMaxAge = diskMaxAge;
+    }
+
+    ReportPdfCache(MeterRegistry meterRegistry, DataSize memoryMaxSize, DataSize memoryMaxEntrySize, Path directory) {
+        this(meterRegistry, memoryMaxSize, memoryMaxEntrySize, directory, DataSize.ofGigabytes(1), Duration.ofDays(7));
+    }
+
+    /**
+     * Devuelve el PDF de la versión actual del reporte, renderizándolo solo si no está en
+     * ninguno de los dos niveles. Un fallo del renderizado se propaga aquí, antes de
+     * empezar a escribir la respuesta.
+     *
+     * @param report   reporte persistido (con {@code reportId} y {@code updatedAt})
+     * @param renderer escribe el PDF en el stream recibido cuando no está en caché
+     */
+    public CachedPdf get(Report report, BiConsumer<Report, OutputStream> renderer) {
+        PdfKey key = PdfKey.of(report);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Entry entry = getOrLoad(key, report, renderer);
+            if (entry == null) {
+                return new Direct(report, renderer);
+            }
+            if (entry instanceof InMemory inMemory) {
+                return inMemory;
+            }
+            try {
+                // Abierto ya: aunque una versión nueva lo borre, este descriptor sigue siendo legible
+                FileChannel channel = FileChannel.open(((OnDisk) entry).path(), StandardOpenOption.READ);
+                return new OpenFile(channel);
+            } catch (NoSuchFileException e) {
+                memory.synchronous().asMap().remove(key, entry);
+            } catch (IOException e) {
+                log.warn("Could not open cached PDF {}: {}", key.fileName(), e.getMessage());
+                return new Direct(report, renderer);
+            }
+        }
+        return new Direct(report, renderer);
+    }
+
+    /**
+     * Renderiza y guarda el PDF de la versión actual del reporte si aún no está en caché,
+     * sin abrirlo para lectura.
+     *
+     * @return {@code false} si el nivel de disco no está disponible y el PDF tendrá que
+     *         generarse al descargarlo
+     */
+    public boolean prepare(Report report, BiConsumer<Report, OutputStream> renderer) {
+        return getOrLoad(PdfKey.of(report), report, renderer) != null;
+    }
+
+    /**
+     * Borra del nivel de disco los archivos más antiguos que {@code disk-max-age} y, de
+     * los más antiguos a los más recientes, los que excedan {@code disk-max-size}. Un
+     * archivo que se esté sirviendo sigue siendo legible por su descriptor abierto.
+     *
+     * @return número de archivos borrados
+     */
+    @Scheduled(fixedDelayString = "${app.report.pdf.cache.sweep-interval-ms:600000}")
+    public int sweep() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        List<CachedFile> files = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+            for (Path path : paths) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    files.add(new CachedFile(path, attributes.size(), attributes.lastModifiedTime().toInstant()));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list PDF disk cache {}: {}", directory, e.getMessage());
+            return 0;
+        }
+        files.sort(Comparator.comparing(CachedFile::lastModified).reversed());
+
+        Instant cutoff = Instant.now().minus(diskMaxAge);
+        long retainedBytes = 0;
+        int deleted = 0;
+        for (CachedFile file : files) {
+            retainedBytes += file.size();
+            if (file.lastModified().isBefore(cutoff) || retainedBytes > diskMaxBytes) {
+                try {
+                    Files.deleteIfExists(file.path());
+                    deleted++;
+                } catch (IOException e) {
+                    log.warn("Could not delete cached PDF {}: {}", file.path().getFileName(), e.getMessage());
+                }
+                retainedBytes -= file.size();
+            }
+        }
+        if (deleted > 0) {
+            log.info("PDF disk cache sweep deleted {} files, {} bytes retained", deleted, retainedBytes);
+        }
+        return deleted;
+    }
+
+    /**
+     * Devuelve la entrada de la clave o la carga en el hilo actual. Dentro del
+     * {@code compute} de Caffeine solo se registra el futuro; quien lo registra renderiza
+     * después, y las demás peticiones de la misma clave esperan a ese futuro.
+     */
+    private Entry getOrLoad(PdfKey key, Report report, BiConsumer<Report, OutputStream> renderer) {
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        CompletableFuture<Entry> future = memory.get(key, (k, executor) -> loading);
+        if (future == loading) {
+            try {
+                // Un valor null o una excepción retiran la entrada de la caché
+                loading.complete(load(key, report, renderer));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Validador débil para {@code ETag}: identifica la versión del reporte, no los bytes
+     * exactos (el pie del PDF lleva la fecha en que se generó).
+     */
+    public static String etag(Report report) {
+        PdfKey key = PdfKey.of(report);
+        return "W/\"" + key.reportId() + "-" + Long.toHexString(key.updatedAt().getEpochSecond())
+                + "-" + Integer.toHexString(key.updatedAt().getNano()) + "\"";
+    }
+
+    /**
+     * {@code null} si el nivel de disco no está disponible: no se guarda nada.
+     */
+    private Entry load(PdfKey key, Report report, BiConsumer<Report, OutputStream> renderer) {
+        Path target = directory.resolve(key.fileName());
+        try {
+            if (Files.notExists(target)) {
+                renderToDisk(key, report, renderer, target);
+            }
+            long size = Files.size(target);
+            return size <= memoryMaxEntryBytes ? new InMemory(Files.readAllBytes(target)) : new OnDisk(target);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("PDF disk cache unavailable for {}: {}", key.fileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void renderToDisk(PdfKey key, Report report, BiConsumer<Report, OutputStream> renderer,
+                              Path target) throws IOException {
+        Files.createDirectories(directory);
+        // Se escribe aparte y se mueve para que un lector nunca vea un archivo a medias
+        Path temp = Files.createTempFile(directory, key.reportId() + "-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                renderer.accept(report, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        deleteOlderVersions(key, target);
+    }
+
+    private void deleteOlderVersions(PdfKey key, Path current) throws IOException {
+        try (DirectoryStream<Path> versions = Files.newDirectoryStream(directory, key.reportId() + "-*.pdf")) {
+            for (Path version : versions) {
+                if (!version.equals(current)) {
+                    Files.deleteIfExists(version);
+                }
+            }
+        }
+    }
+
+    /**
+     * PDF listo para copiarse a la respuesta.
+     */
+    public interface CachedPdf {
+
+        /**
+         * Tamaño en bytes, o {@code -1} si se genera mientras se escribe.
+         */
+        long size();
+
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    private sealed interface Entry permits InMemory, OnDisk {
+    }
+
+    private record InMemory(byte[] pdf) implements Entry, CachedPdf {
+
+        @Override
+        public long size() {
+            return pdf.length;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(pdf);
+        }
+    }
+
+    private record OnDisk(Path path) implements Entry {
+    }
+
+    private record OpenFile(FileChannel channel) implements CachedPdf {
+
+        @Override
+        public long size() {
+            try {
+                return channel.size();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            try (channel) {
+                Channels.newInputStream(channel).transferTo(outputStream);
+            }
+        }
+    }
+
+    private record Direct(Report report, BiConsumer<Report, OutputStream> renderer) implements CachedPdf {
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) {
+            renderer.accept(report, outputStream);
+        }
+    }
+
+    private record CachedFile(Path path, long size, Instant lastModified) {
+    }
+
+    private record PdfKey(long reportId, Instant updatedAt) {
+
+        static PdfKey of(Report report) {
+            if (report.getReportId() == null || report.getUpdatedAt() == null) {
+                throw new IllegalArgumentException("Only persisted reports can be cached as PDF");
+            }
+            return new PdfKey(report.getReportId(), report.getUpdatedAt().toInstant());
+        }
+
+        String fileName() {
+            return reportId + "-" + updatedAt.getEpochSecond() + "-" + updatedAt.getNano() + ".pdf";
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.microservice.report.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.report.dto.ReportResponse;
+import com.microservice.report.dto.ReportTotals;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caché acotada (Caffeine, tamaño máximo y TTL) de las lecturas de reportes de
+ * {@link ReportServiceImpl}: reporte por período, páginas por usuario, rangos de períodos
+ * y totales de rango.
+ *
+ * <p>Guarda lo leído de BD, sin los deltas pendientes del modo {@code write-behind},
+ * que {@link PendingReportDeltas} sigue sumando en cada lectura.</p>
+ *
+ * <h3>Invalidación</h3>
+ * <p>Cada entrada lleva en su clave una generación: la del {@code (userId, period)} para
+ * el reporte individual y la del usuario para páginas y rangos. Una escritura sobre un
+ * {@code (userId, period)} avanza ambas generaciones <em>tras el commit</em>, de modo que
+ * las entradas anteriores dejan de consultarse (y caducan por TTL o tamaño). Una carga que
+ * leyó la BD antes del commit queda guardada con la generación vieja y nunca se sirve.</p>
+ *
+ * <p>Métricas: {@code cache.gets} (hit/miss), {@code cache.evictions} y {@code cache.size}
+ * con {@code cache=reports.by-period|reports.by-user|reports.by-range|reports.totals-by-range}.</p>
+ */
+@Component
+public class ReportReadCache {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<GenerationKey, AtomicLong> generations;
+    private final Cache<PeriodKey, Optional<ReportResponse>> byPeriod;
+    private final Cache<PageKey, Page<ReportResponse>> byUser;
+    private final Cache<RangeKey, List<ReportResponse>> byRange;
+    private final Cache<RangeKey, ReportTotals> totalsByRange;
+
+    public ReportReadCache(MeterRegistry meterRegistry,
+                           @Value("${app.report.cache.max-size:10000}") long maxSize,
+                           @Value("${app.report.cache.ttl:5m}") Duration ttl) {
+        // Una generación sigue viva mientras pueda quedar alguna entrada que la use
+        this.generations = Caffeine.newBuilder().expireAfterAccess(ttl).build();
+        this.byPeriod = monitored(meterRegistry, "reports.by-period", maxSize, ttl);
+        this.byUser = monitored(meterRegistry, "reports.by-user", maxSize, ttl);
+        this.byRange = monitored(meterRegistry, "reports.by-range", maxSize, ttl);
+        this.totalsByRange = monitored(meterRegistry, "reports.totals-by-range", maxSize, ttl);
+    }
+
+    public Optional<ReportResponse> report(String userId, String period, Supplier<Optional<ReportResponse>> loader) {
+        PeriodKey key = new PeriodKey(userId, period, generation(new GenerationKey(userId, period)));
+        return byPeriod.get(key, k -> loader.get());
+    }
+
+    public Page<ReportResponse> page(String userId, Pageable pageable, Supplier<Page<ReportResponse>> loader) {
+        if (pageable.isUnpaged()) {
+            return loader.get();
+        }
+        PageKey key = new PageKey(userId, pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().toString(), generation(new GenerationKey(userId, null)));
+        return byUser.get(key, k -> loader.get());
+    }
+
+    public List<ReportResponse> range(String userId, String startPeriod, String endPeriod,
+                                      Supplier<List<ReportResponse>> loader) {
+        RangeKey key = new RangeKey(userId, startPeriod, endPeriod, generation(new GenerationKey(userId, null)));
+        return byRange.get(key, k -> List.copyOf(loader.get()));
+    }
+
+    public ReportTotals totals(String userId, String startPeriod, String endPeriod, Supplier<ReportTotals> loader) {
+        RangeKey key = new RangeKey(userId, startPeriod, endPeriod, generation(new GenerationKey(userId, null)));
+        return totalsByRange.get(key, k -> loader.get());
+    }
+
+    /**
+     * Totales acumulados hasta {@code period}; comparte caché con los totales de rango.
+     */
+    public ReportTotals totalsAsOf(String userId, String period, Supplier<ReportTotals> loader) {
+        RangeKey key = new RangeKey(userId, null, period, generation(new GenerationKey(userId, null)));
+        return totalsByRange.get(key, k -> loader.get());
+    }
+
+    /**
+     * Invalida las lecturas que incluyen el reporte {@code (userId, period)}. Dentro de una
+     * transacción se aplica tras el commit; si ésta se revierte no hay nada que invalidar.
+     */
+    public void invalidate(String userId, String period) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance(userId, period);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advance(userId, period);
+            }
+        });
+    }
+
+    private void advance(String userId, String period) {
+        generations.get(new GenerationKey(userId, period), this::newGeneration).set(sequence.incrementAndGet());
+        generations.get(new GenerationKey(userId, null), this::newGeneration).set(sequence.incrementAndGet());
+    }
+
+    private long generation(GenerationKey key) {
+        return generations.get(key, this::newGeneration).get();
+    }
+
+    // Valor nunca usado antes: si una generación caduca, las claves viejas no vuelven a coincidir
+    private AtomicLong newGeneration(GenerationKey key) {
+        return new AtomicLong(sequence.incrementAndGet());
+    }
+
+    private static <K, V> Cache<K, V> monitored(MeterRegistry meterRegistry, String name, long maxSize, Duration ttl) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * {@code period == null} identifica la generación de todas las lecturas del usuario.
+     */
+    private record GenerationKey(String userId, String period) {
+    }
+
+    private record PeriodKey(String userId, String period, long generation) {
+    }
+
+    private record PageKey(String userId, int page, int size, String sort, long generation) {
+    }
+
+    private record RangeKey(String userId, String startPeriod, String endPeriod, long generation) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.service.ReportRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reconstrucción de {@code report_rollups} desde {@code reports} al activar
+ * {@code app.report.summary.strategy=rollup}.
+ *
+ * <p>Durante un despliegue escalonado, las instancias que aún no usan {@code rollup} no
+ * mantienen los rollups. Por eso la reconstrucción no se lanza al arrancar sino pasado
+ * {@code app.report.rollup.backfill-delay-ms}, que debe cubrir la duración del despliegue;
+ * se ejecuta con {@link DataMigrations} en una sola instancia y se reintenta cada
+ * {@code app.report.migrations.retry-interval-ms} si falla. Mientras tanto, los totales se
+ * suman desde {@code reports}.</p>
+ *
+ * <p>Una instancia con otra estrategia deja la migración pendiente al arrancar: los
+ * rollups dejan de mantenerse y, si se vuelve a activar {@code rollup}, se reconstruyen.</p>
+ */
+@Slf4j
+@Component
+public class ReportRollupMigration implements SmartInitializingSingleton {
+
+    static final String NAME = "report-rollups";
+
+    private final DataMigrations dataMigrations;
+    private final ReportRollupService reportRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportWriteRetrier writeRetrier;
+
+    public ReportRollupMigration(DataMigrations dataMigrations,
+                                 ReportRollupService reportRollupService,
+                                 TransactionTemplate transactionTemplate,
+                                 ReportWriteRetrier writeRetrier) {
+        this.dataMigrations = dataMigrations;
+        this.reportRollupService = reportRollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.writeRetrier = writeRetrier;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!reportRollupService.isEnabled()) {
+            dataMigrations.reset(NAME);
+        }
+    }
+
+    /**
+     * Reconstruye los rollups si {@code rollup} está activa y la reconstrucción no ha
+     * terminado en ninguna instancia.
+     *
+     * @return {@code true} si esta llamada la completó
+     */
+    @Scheduled(initialDelayString = "${app.report.rollup.backfill-delay-ms:900000}",
+            fixedDelayString = "${app.report.migrations.retry-interval-ms:60000}")
+    public boolean run() {
+        if (!reportRollupService.isEnabled()) {
+            return false;
+        }
+        return dataMigrations.runOnce(NAME, this::migrate);
+    }
+
+    private void migrate() {
+        int rollups = writeRetrier.execute("rollup-migration",
+                () -> transactionTemplate.execute(status -> reportRollupService.rebuild()));
+        log.info("Migration {} rebuilt {} report rollups", NAME, rollups);
+    }
+}
@@ -0,0 +1,120 @@
+package com.microservice.report.service.impl;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.model.RollupGranularity;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.repository.ReportRollupRepository;
+import com.microservice.report.service.ReportRollupService;
+import com.microservice.report.util.PeriodRangePlanner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rollups trimestrales y anuales ({@code report_rollups}) de los reportes mensuales.
+ *
+ * <p>Son opcionales: solo se mantienen y se leen con
+ * {@code app.report.summary.strategy=rollup}. Con la estrategia por defecto
+ * ({@code prefix-sum}) cada delta se ahorra los dos upserts de rollup.</p>
+ *
+ * <p>Con {@code rollup}, cada delta que se suma a un reporte mensual se suma también a su
+ * trimestre y a su año en la misma transacción, con el mismo upsert atómico; al eliminar
+ * un reporte se descuentan sus totales. {@code recalculateReport} solo recalcula el
+ * balance, que los rollups no almacenan, así que no les afecta.</p>
+ *
+ * <p>Las consultas de totales de un rango pasan por {@link PeriodRangePlanner}, que lee
+ * años y trimestres completos de los rollups y solo los meses sueltos de los extremos de
+ * {@code reports}. Hasta que {@link ReportRollupMigration} reconstruye la tabla, suman
+ * directamente {@code reports}.</p>
+ */
+@Service
+public class ReportRollupServiceImpl implements ReportRollupService {
+
+    static final String STRATEGY = "rollup";
+
+    private final ReportRollupRepository reportRollupRepository;
+    private final ReportRepository reportRepository;
+    private final DataMigrations dataMigrations;
+    private final boolean enabled;
+
+    public ReportRollupServiceImpl(ReportRollupRepository reportRollupRepository,
+                                   ReportRepository reportRepository,
+                                   DataMigrations dataMigrations,
+                                   @Value("${app.report.summary.strategy:prefix-sum}") String summaryStrategy) {
+        this.reportRollupRepository = reportRollupRepository;
+        this.reportRepository = reportRepository;
+        this.dataMigrations = dataMigrations;
+        this.enabled = STRATEGY.equals(summaryStrategy);
+    }
+
+    /**
+     * Indica si esta instancia mantiene los rollups ({@code strategy=rollup}).
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void applyDelta(String userId, String period, BigDecimal income, BigDecimal expense) {
+        if (!enabled) {
+            return;
+        }
+        YearMonth month = YearMonth.parse(period);
+        OffsetDateTime now = OffsetDateTime.now();
+        // Trimestre y después año: el mismo orden en todas las transacciones evita deadlocks
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            reportRollupRepository.upsertTotals(userId, granularity.name(), granularity.bucketOf(month),
+                    income, expense, now);
+        }
+    }
+
+    /**
+     * Totales del rango con el menor número de filas leídas.
+     *
+     * @return suma de los tramos de meses sueltos y de los rollups que cubren el resto
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ReportTotals sumRange(String userId, String startPeriod, String endPeriod) {
+        if (!enabled || !dataMigrations.isCompleted(ReportRollupMigration.NAME)) {
+            return reportRepository.sumTotalsByUserIdAndPeriodBetween(userId, startPeriod, endPeriod);
+        }
+        PeriodRangePlanner.Plan plan = PeriodRangePlanner.plan(startPeriod, endPeriod);
+        ReportTotals totals = new ReportTotals(BigDecimal.ZERO, BigDecimal.ZERO);
+        for (PeriodRangePlanner.MonthSpan span : plan.monthSpans()) {
+            totals = add(totals, reportRepository.sumTotalsByUserIdAndPeriodBetween(
+                    userId, span.startPeriod(), span.endPeriod()));
+        }
+        if (!plan.quarters().isEmpty()) {
+            totals = add(totals, reportRollupRepository.sumTotals(userId, RollupGranularity.QUARTER, plan.quarters()));
+        }
+        if (!plan.years().isEmpty()) {
+            totals = add(totals, reportRollupRepository.sumTotals(userId, RollupGranularity.YEAR, plan.years()));
+        }
+        return totals;
+    }
+
+    /**
+     * Recalcula todos los rollups desde {@code reports}.
+     *
+     * @return filas de rollup insertadas o actualizadas
+     */
+    @Transactional
+    @Override
+    public int rebuild() {
+        OffsetDateTime now = OffsetDateTime.now();
+        reportRollupRepository.resetTotals();
+        return reportRollupRepository.rebuildQuarters(now) + reportRollupRepository.rebuildYears(now);
+    }
+
+    private static ReportTotals add(ReportTotals totals, ReportTotals other) {
+        return totals.plus(other.totalIncome(), other.totalExpense());
+    }
+}
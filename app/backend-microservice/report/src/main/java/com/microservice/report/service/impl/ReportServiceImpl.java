@@ -1,27 +1,40 @@
 package com.microservice.report.service.impl;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
+import com.microservice.report.dto.BalanceResponse;
 import com.microservice.report.dto.PaginatedResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.microservice.report.dto.ReportResponse;
 import com.microservice.report.dto.ReportSummary;
+import com.microservice.report.dto.ReportTotals;
 import com.microservice.report.mapper.ReportMapper;
 import com.microservice.report.exception.ReportNotFoundException;
 import com.microservice.report.infrastructure.dto.TransactionMessage;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.microservice.report.infrastructure.dto.TransactionType;
 import com.microservice.report.model.Report;
 import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.ProcessedTransactionService;
+import com.microservice.report.service.ReportCumulativeService;
+import com.microservice.report.service.ReportRollupService;
 import com.microservice.report.service.ReportService;
 
 /**
@@ -36,8 +49,8 @@ import com.microservice.report.service.ReportService;
  * <p>Esta clase actúa como el <strong>procesador final</strong> de la cadena de eventos:</p>
  * <pre>
  *   TransactionServiceImpl (produce evento)
- *     → TransactionEventListener (intercepta async)
- *       → TransactionMessageProducer (publica a RabbitMQ)
+ *     → TransactionEventListener (escribe en el outbox)
+ *       → TransactionOutboxRelay + TransactionMessageProducer (publica a RabbitMQ)
  *         → ReportConsumer (consume de RabbitMQ)
  *           → <strong>ReportServiceImpl.updateReport()</strong> (agrega datos)
  * </pre>
@@ -48,8 +61,22 @@ import com.microservice.report.service.ReportService;
  *       reporte mensual único por usuario. El período se deriva del campo {@code date}
  *       del mensaje con formato {@code "yyyy-MM"}.</li>
  *   <li><strong>Fórmula de balance:</strong> {@code balance = totalIncome - totalExpense}</li>
- *   <li><strong>Get-or-Create:</strong> Si no existe un reporte para el período, se crea
- *       automáticamente con totales en {@code BigDecimal.ZERO}.</li>
+ *   <li><strong>Lecturas read-your-writes:</strong> En modo {@code write-behind} los
+ *       mensajes aceptados quedan en {@link PendingReportDeltas} hasta el siguiente
+ *       checkpoint; las consultas suman esos deltas pendientes a lo leído de BD.</li>
+ *   <li><strong>Rollups:</strong> Con {@code app.report.summary.strategy=rollup}, cada
+ *       delta se suma también al trimestre y al año del período
+ *       ({@link ReportRollupService}) en la misma transacción; los resúmenes de solo
+ *       totales leen esos rollups en lugar de todos los meses del rango.</li>
+ *   <li><strong>Sumas acumuladas:</strong> Cada reporte guarda también los totales
+ *       acumulados del usuario hasta su período ({@link ReportCumulativeService}), que dan
+ *       el total de un rango o el balance a fecha con dos lecturas puntuales.</li>
+ *   <li><strong>Caché de lecturas:</strong> Las consultas pasan por {@link ReportReadCache};
+ *       toda escritura invalida el {@code (userId, period)} afectado tras el commit.</li>
+ *   <li><strong>Upsert atómico:</strong> Cada transacción se aplica como un delta con
+ *       {@code INSERT ... ON DUPLICATE KEY UPDATE} sobre la restricción única
+ *       {@code uk_reports_user_period}; si no existe reporte para el período, se crea
+ *       con los totales del propio delta.</li>
  * </ul>
  *
  * <h3>Deuda Técnica Identificada</h3>
@@ -58,8 +85,6 @@ import com.microservice.report.service.ReportService;
  *       {@code getReportsByUserId}, {@code getReportsByPeriodRange}) están marcados
  *       con {@code @Transactional} pero deberían usar {@code @Transactional(readOnly = true)}
  *       para optimizar la conexión a BD.</li>
- *   <li><strong>DT-DOC-02:</strong> No hay mecanismo de idempotencia — si un mismo
- *       mensaje se procesa dos veces, los totales se acumulan incorrectamente.</li>
  *   <li><strong>DT-DOC-03:</strong> El contrato {@link ReportService} importa
  *       {@code TransactionMessage} del paquete {@code infrastructure.dto}, acoplando
  *       la interfaz del servicio al DTO de infraestructura en lugar de un Port del dominio.</li>
@@ -69,6 +94,7 @@ import com.microservice.report.service.ReportService;
  * @see ReportService  Contrato (interfaz) que esta clase implementa
  * @see Report         Entidad JPA que almacena los totales agregados
  */
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class ReportServiceImpl implements ReportService {
@@ -76,31 +102,23 @@ public class ReportServiceImpl implements ReportService {
     private static final String PERIOD_FORMAT = "yyyy-MM";
     private static final Pattern PERIOD_PATTERN = Pattern.compile("^\\d{4}-(0[1-9]|1[0-2])$");
     
-    private final ReportRepository reportRepository;
+    private static final String SUMMARY_STRATEGY_ROLLUP = "rollup";
 
-    /**
-     * Busca un reporte existente para el usuario y período derivado del mensaje,
-     * o crea uno nuevo con totales inicializados en cero.
-     *
-     * <p>El período se calcula a partir del campo {@code date} del mensaje
-     * usando el formato {@code "yyyy-MM"} (ejemplo: {@code "2026-02"}).</p>
-     *
-     * <p><strong>Nota:</strong> Si el reporte no existe, se persiste inmediatamente vía
-     * {@code reportRepository.save()} dentro del {@code orElseGet}, lo que ejecuta un
-     * INSERT antes de retornar. Esto asegura que el reporte tenga un ID asignado
-     * para la posterior actualización en {@link #updateReport}.</p>
-     *
-     * @param transactionMessage mensaje de transacción consumido desde RabbitMQ,
-     *                           del cual se extraen {@code userId} y {@code date}
-     * @return la entidad {@link Report} existente o recién creada, nunca {@code null}
-     */
-    private Report getOrCreateReport(TransactionMessage transactionMessage) {
-        validateTransactionMessage(transactionMessage);
-        String userId = transactionMessage.userId();
-        String period = extractPeriodFromDate(transactionMessage.date());
-        return reportRepository.findByUserIdAndPeriod(userId, period)
-                .orElseGet(() -> createNewReport(userId, period));
-    }
+    private static final Comparator<ReportKey> REPORT_KEY_ORDER =
+            Comparator.comparing(ReportKey::userId).thenComparing(ReportKey::period);
+
+    private final ReportRepository reportRepository;
+    private final ProcessedTransactionService processedTransactionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportWriteRetrier writeRetrier;
+    private final PendingReportDeltas pendingReportDeltas;
+    private final ReportReadCache readCache;
+    private final ReportRollupService reportRollupService;
+    private final ReportCumulativeService reportCumulativeService;
+
+    /** {@code prefix-sum} (por defecto) o {@code rollup}: ver {@link #getTotalsByPeriodRange}. */
+    @Value("${app.report.summary.strategy:prefix-sum}")
+    private String summaryStrategy = "prefix-sum";
 
     /**
      * Extrae el período en formato "yyyy-MM" de una fecha.
@@ -112,24 +130,6 @@ public class ReportServiceImpl implements ReportService {
         return date.format(DateTimeFormatter.ofPattern(PERIOD_FORMAT));
     }
 
-    /**
-     * Crea un nuevo reporte inicializado con valores en cero.
-     *
-     * @param userId identificador del usuario
-     * @param period período del reporte
-     * @return reporte persistido con ID generado
-     */
-    private Report createNewReport(String userId, String period) {
-        return reportRepository.save(
-                Report.builder()
-                        .userId(userId)
-                        .period(period)
-                        .totalIncome(BigDecimal.ZERO)
-                        .totalExpense(BigDecimal.ZERO)
-                        .balance(BigDecimal.ZERO)
-                        .build());
-    }
-
     /**
      * Actualiza el reporte financiero mensual acumulando el monto de una transacción.
      *
@@ -139,62 +139,134 @@ public class ReportServiceImpl implements ReportService {
      *
      * <h4>Flujo de ejecución:</h4>
      * <ol>
-     *   <li>Busca o crea el reporte para el usuario y período (vía {@link #getOrCreateReport}).</li>
-     *   <li>Según el {@link TransactionType}:
-     *     <ul>
-     *       <li>{@code INCOME} → Suma el monto a {@code totalIncome}.</li>
-     *       <li>{@code EXPENSE} → Suma el monto a {@code totalExpense}.</li>
-     *     </ul>
-     *   </li>
-     *   <li>Recalcula el balance: {@code balance = totalIncome - totalExpense}.</li>
-     *   <li>Persiste el reporte actualizado.</li>
+     *   <li>Valida el mensaje y deriva el período {@code "yyyy-MM"} de su fecha.</li>
+     *   <li>Descarta el mensaje si su {@code transactionId} ya fue procesado.</li>
+     *   <li>Traduce el {@link TransactionType} a un delta de ingresos o de gastos.</li>
+     *   <li>Aplica el delta con un único upsert atómico (vía {@link #applyDelta}), que
+     *       crea el reporte si no existe y recalcula el balance en la misma sentencia.</li>
      * </ol>
      *
-     * <p><strong>⚠️ Deuda técnica (DT-DOC-02):</strong> Este método no es idempotente.
-     * Si un mensaje se entrega más de una vez (escenario de retry sin DLQ), los totales
-     * se acumularán incorrectamente. Considerar agregar un registro de {@code transactionId}
-     * procesados para lograr idempotencia.</p>
+     * <p>Al no haber lectura previa, varios consumidores concurrentes pueden acumular
+     * sobre el mismo reporte sin perder actualizaciones ni duplicar filas.</p>
+     *
+     * <p>Es idempotente por {@code transactionId}: antes del upsert el id se registra en
+     * {@link ProcessedTransactionService} dentro de la misma transacción, y una
+     * reentrega del mismo mensaje se descarta sin modificar los totales.</p>
+     *
+     * <p>La transacción se abre con {@link TransactionTemplate} dentro de
+     * {@link ReportWriteRetrier}, de modo que un deadlock o lock wait timeout de MySQL se
+     * reintenta desde cero en una transacción nueva.</p>
      *
      * @param transactionMessage mensaje deserializado desde la cola de RabbitMQ
      *                           con los datos de la transacción creada
      */
-    @Transactional
     @Override
     public void updateReport(TransactionMessage transactionMessage) {
-        Report report = getOrCreateReport(transactionMessage);
-        BigDecimal amount = transactionMessage.amount();
-        
-        accumulateTransactionAmount(report, transactionMessage.type(), amount);
-        recalculateBalance(report);
-        
-        reportRepository.save(report);
+        validateTransactionMessage(transactionMessage);
+        String period = extractPeriodFromDate(transactionMessage.date());
+        writeRetrier.execute("update", () -> transactionTemplate.execute(status -> {
+            pendingReportDeltas.trackCommit();
+            if (!processedTransactionService.markProcessed(
+                    transactionMessage.transactionId(), transactionMessage.userId(), period)) {
+                log.info("Skipping already processed transaction ID: {}", transactionMessage.transactionId());
+                return null;
+            }
+            applyDelta(transactionMessage.userId(), period, toDelta(transactionMessage));
+            readCache.invalidate(transactionMessage.userId(), period);
+            return null;
+        }));
     }
 
     /**
-     * Acumula el monto de una transacción en el total correspondiente.
+     * Aplica un lote de transacciones coalesciendo las que afectan al mismo reporte.
+     *
+     * <p>Invocado por {@link ReportConsumer} en modo {@code batch}. Los mensajes se
+     * agrupan por {@code (userId, period)} y se suman en memoria, de modo que cada
+     * reporte afectado recibe un solo upsert, todo dentro de una única transacción de BD.
+     * Los upserts se emiten ordenados por {@code (userId, period)} para que dos lotes
+     * concurrentes bloqueen las filas en el mismo orden.</p>
      *
-     * @param report reporte a actualizar
-     * @param type tipo de transacción (INCOME o EXPENSE)
-     * @param amount monto a acumular
+     * <p>Cada mensaje pasa por {@link ProcessedTransactionService}, así que las
+     * reentregas (incluidas las repetidas dentro del mismo lote) no se suman.
+     * Los mensajes inválidos se descartan con un warning en lugar de abortar el lote:
+     * en modo {@code single} ese mismo mensaje sería rechazado sin reencolar, y no debe
+     * arrastrar consigo al resto de mensajes válidos del lote.</p>
+     *
+     * @param transactionMessages mensajes recibidos en un mismo lote de RabbitMQ
      */
-    private void accumulateTransactionAmount(Report report, TransactionType type, BigDecimal amount) {
-        if (type == TransactionType.INCOME) {
-            report.setTotalIncome(report.getTotalIncome().add(amount));
-        } else if (type == TransactionType.EXPENSE) {
-            report.setTotalExpense(report.getTotalExpense().add(amount));
+    @Override
+    public void applyTransactions(List<TransactionMessage> transactionMessages) {
+        writeRetrier.execute("batch", () -> transactionTemplate.execute(status -> {
+            pendingReportDeltas.trackCommit();
+            coalesceByReport(transactionMessages).entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(REPORT_KEY_ORDER))
+                    .forEach(entry -> {
+                        applyDelta(entry.getKey().userId(), entry.getKey().period(), entry.getValue());
+                        readCache.invalidate(entry.getKey().userId(), entry.getKey().period());
+                    });
+            return null;
+        }));
+    }
+
+    /**
+     * Agrupa los mensajes por reporte destino sumando ingresos y gastos.
+     *
+     * @param transactionMessages mensajes del lote
+     * @return deltas por {@code (userId, period)}
+     */
+    private Map<ReportKey, AccumulatedTotals> coalesceByReport(List<TransactionMessage> transactionMessages) {
+        Map<ReportKey, AccumulatedTotals> deltas = new HashMap<>();
+        for (TransactionMessage message : transactionMessages) {
+            try {
+                validateTransactionMessage(message);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Skipping invalid transaction message in batch: {}", e.getMessage());
+                continue;
+            }
+            ReportKey key = new ReportKey(message.userId(), extractPeriodFromDate(message.date()));
+            if (!processedTransactionService.markProcessed(message.transactionId(), key.userId(), key.period())) {
+                log.info("Skipping already processed transaction ID: {}", message.transactionId());
+                continue;
+            }
+            deltas.merge(key, toDelta(message), (a, b) -> new AccumulatedTotals(
+                    a.totalIncome().add(b.totalIncome()), a.totalExpense().add(b.totalExpense())));
         }
+        return deltas;
     }
 
     /**
-     * Recalcula el balance de un reporte.
-     * 
-     * <p>Fórmula: {@code balance = totalIncome - totalExpense}</p>
+     * Traduce una transacción al delta que aporta a los totales del reporte.
      *
-     * @param report reporte cuyo balance se recalculará
+     * @param transactionMessage mensaje validado
+     * @return delta con el monto en ingresos o en gastos según el tipo
      */
-    private void recalculateBalance(Report report) {
-        BigDecimal balance = calculateBalance(report.getTotalIncome(), report.getTotalExpense());
-        report.setBalance(balance);
+    private AccumulatedTotals toDelta(TransactionMessage transactionMessage) {
+        BigDecimal amount = transactionMessage.amount();
+        return transactionMessage.type() == TransactionType.INCOME
+                ? new AccumulatedTotals(amount, BigDecimal.ZERO)
+                : new AccumulatedTotals(BigDecimal.ZERO, amount);
+    }
+
+    /**
+     * Único punto de escritura de los totales: suma el delta al reporte del período
+     * (creándolo si no existe) con un {@code INSERT ... ON DUPLICATE KEY UPDATE}, y a los
+     * rollups trimestral y anual que lo contienen y a las sumas acumuladas del usuario.
+     *
+     * @param userId identificador del usuario
+     * @param period período del reporte
+     * @param delta  ingresos y gastos a sumar
+     */
+    private void applyDelta(String userId, String period, AccumulatedTotals delta) {
+        reportRepository.upsertTotals(userId, period, delta.totalIncome(), delta.totalExpense(),
+                OffsetDateTime.now());
+        reportRollupService.applyDelta(userId, period, delta.totalIncome(), delta.totalExpense());
+        reportCumulativeService.applyDelta(userId, period, delta.totalIncome(), delta.totalExpense());
+    }
+
+    /**
+     * Clave de agrupación de un reporte mensual.
+     */
+    private record ReportKey(String userId, String period) {
     }
 
     /**
@@ -213,14 +285,22 @@ public class ReportServiceImpl implements ReportService {
      *
      * @param userId identificador del usuario (Firebase UID)
      * @param period período mensual en formato {@code "yyyy-MM"} (ejemplo: {@code "2026-02"})
+     * <p>Incluye los deltas aún no volcados del modo {@code write-behind}; si el período
+     * solo existe en memoria, se devuelve sin {@code reportId} ni marcas de tiempo.</p>
+     *
      * @return respuesta mapeada con los totales del período
      * @throws ReportNotFoundException si no existe un reporte para la combinación usuario/período
      */
     @Transactional(readOnly = true)
     @Override
     public ReportResponse getReport(String userId, String period) {
-        Report report = findReportOrThrow(userId, period);
-        return ReportMapper.toResponse(report);
+        validateUserId(userId);
+        validatePeriod(period);
+        return pendingReportDeltas.read(() -> readCache.report(userId, period,
+                        () -> reportRepository.findResponseByUserIdAndPeriod(userId, period))
+                        .map(pendingReportDeltas::overlay)
+                        .or(() -> pendingReportDeltas.pendingOnly(userId, period)))
+                .orElseThrow(() -> new ReportNotFoundException(userId, period));
     }
 
     /**
@@ -229,6 +309,10 @@ public class ReportServiceImpl implements ReportService {
      * <p>Los reportes se ordenan por defecto de forma descendente por período
      * (configurado en {@code ReportController} vía {@code @PageableDefault}).</p>
      *
+     * <p>Los totales de cada fila incluyen los deltas pendientes del modo
+     * {@code write-behind}. Un período que todavía no tiene fila en BD no se añade a la
+     * página (alteraría la paginación) y aparece tras el siguiente checkpoint.</p>
+     *
      * @param userId   identificador del usuario (Firebase UID)
      * @param pageable parámetros de paginación (page, size, sort)
      * @return respuesta paginada con la lista de reportes del usuario
@@ -236,11 +320,11 @@ public class ReportServiceImpl implements ReportService {
     @Transactional(readOnly = true)
     @Override
     public PaginatedResponse<ReportResponse> getReportsByUserId(String userId, Pageable pageable) {
-        Page<Report> page = reportRepository.findByUserId(userId, pageable);
-        List<ReportResponse> content = page.map(ReportMapper::toResponse).getContent();
+        Page<ReportResponse> page = pendingReportDeltas.read(() -> readCache.page(userId, pageable,
+                () -> reportRepository.findResponsesByUserId(userId, pageable)).map(pendingReportDeltas::overlay));
 
         return new PaginatedResponse<>(
-                content,
+                page.getContent(),
                 page.getNumber(),
                 page.getSize(),
                 page.getTotalElements(),
@@ -258,6 +342,9 @@ public class ReportServiceImpl implements ReportService {
      * {@code endPeriod="2026-06"}, retorna la suma de los 6 meses con el desglose
      * individual de cada mes en la lista {@code reports}.</p>
      *
+     * <p>Incluye los deltas pendientes del modo {@code write-behind}, también los de
+     * períodos que aún no tienen fila en BD.</p>
+     *
      * @param userId      identificador del usuario (Firebase UID)
      * @param startPeriod período inicial del rango en formato {@code "yyyy-MM"}
      * @param endPeriod   período final del rango en formato {@code "yyyy-MM"}
@@ -266,34 +353,120 @@ public class ReportServiceImpl implements ReportService {
     @Transactional(readOnly = true)
     @Override
     public ReportSummary getReportsByPeriodRange(String userId, String startPeriod, String endPeriod) {
-        List<Report> reports = reportRepository.findByUserIdAndPeriodBetweenOrderByPeriodAsc(
-                userId, startPeriod, endPeriod);
-        
+        List<ReportResponse> reports = pendingReportDeltas.read(() -> withPendingDeltas(userId, startPeriod, endPeriod,
+                readCache.range(userId, startPeriod, endPeriod,
+                        () -> reportRepository.findResponsesByUserIdAndPeriodBetween(userId, startPeriod, endPeriod))));
+
         AccumulatedTotals totals = accumulateTotalsFromReports(reports);
 
         return ReportMapper.toSummary(
                 userId,
                 startPeriod,
                 endPeriod,
-                ReportMapper.toResponseList(reports),
+                reports,
                 totals.totalIncome,
                 totals.totalExpense,
                 calculateBalance(totals.totalIncome, totals.totalExpense));
     }
 
+    /**
+     * Genera el resumen de un rango de períodos sin el desglose mensual.
+     *
+     * <p>Los totales se calculan en BD sin materializar los reportes del rango, según
+     * {@code app.report.summary.strategy}:</p>
+     * <ul>
+     *   <li>{@code prefix-sum} — {@link ReportCumulativeService#sumRange}: diferencia de dos
+     *       sumas acumuladas, coste constante sea cual sea el rango.</li>
+     *   <li>{@code rollup} — {@link ReportRollupService#sumRange}: años y trimestres
+     *       completos de los rollups y los meses sueltos de los extremos.</li>
+     * </ul>
+     * <p>La lista {@code reports} del resumen se devuelve vacía.</p>
+     *
+     * @param userId      identificador del usuario (Firebase UID)
+     * @param startPeriod período inicial del rango en formato {@code "yyyy-MM"}
+     * @param endPeriod   período final del rango en formato {@code "yyyy-MM"}
+     * @return resumen con los totales acumulados del rango
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ReportSummary getTotalsByPeriodRange(String userId, String startPeriod, String endPeriod) {
+        ReportTotals totals = pendingReportDeltas.read(() -> pendingReportDeltas.overlayTotals(
+                readCache.totals(userId, startPeriod, endPeriod,
+                        () -> SUMMARY_STRATEGY_ROLLUP.equals(summaryStrategy)
+                                ? reportRollupService.sumRange(userId, startPeriod, endPeriod)
+                                : reportCumulativeService.sumRange(userId, startPeriod, endPeriod)),
+                userId, startPeriod, endPeriod));
+
+        return ReportMapper.toSummary(
+                userId,
+                startPeriod,
+                endPeriod,
+                List.of(),
+                totals.totalIncome(),
+                totals.totalExpense(),
+                calculateBalance(totals.totalIncome(), totals.totalExpense()));
+    }
+
+    /**
+     * Obtiene el balance acumulado de un usuario hasta un período, incluido.
+     *
+     * <p>Es la suma acumulada del último período con datos no posterior a {@code period}
+     * (una lectura puntual), más los deltas pendientes del modo {@code write-behind}.</p>
+     *
+     * @param userId identificador del usuario (Firebase UID)
+     * @param period período mensual en formato {@code "yyyy-MM"}
+     * @return ingresos, gastos y balance acumulados; ceros si el usuario no tiene datos
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public BalanceResponse getBalanceAsOf(String userId, String period) {
+        validateUserId(userId);
+        validatePeriod(period);
+        ReportTotals totals = pendingReportDeltas.read(() -> pendingReportDeltas.overlayTotals(
+                readCache.totalsAsOf(userId, period, () -> reportCumulativeService.totalsAsOf(userId, period)),
+                userId, "0000-01", period));
+        return new BalanceResponse(userId, period, totals.totalIncome(), totals.totalExpense(),
+                calculateBalance(totals.totalIncome(), totals.totalExpense()));
+    }
+
+    /**
+     * Suma los deltas pendientes a los reportes del rango y añade los períodos que solo
+     * existen en memoria, manteniendo el orden por período.
+     *
+     * @param reports reportes leídos de BD, ordenados por período
+     * @return reportes del rango con los deltas pendientes aplicados
+     */
+    private List<ReportResponse> withPendingDeltas(String userId, String startPeriod, String endPeriod,
+                                                   List<ReportResponse> reports) {
+        List<String> pendingPeriods = pendingReportDeltas.pendingPeriods(userId, startPeriod, endPeriod);
+        if (pendingPeriods.isEmpty()) {
+            return reports;
+        }
+        List<ReportResponse> merged = new ArrayList<>(reports.size() + pendingPeriods.size());
+        for (ReportResponse report : reports) {
+            merged.add(pendingReportDeltas.overlay(report));
+            pendingPeriods.remove(report.period());
+        }
+        for (String period : pendingPeriods) {
+            pendingReportDeltas.pendingOnly(userId, period).ifPresent(merged::add);
+        }
+        merged.sort(Comparator.comparing(ReportResponse::period));
+        return merged;
+    }
+
     /**
      * Acumula los totales de ingresos y gastos de una lista de reportes.
      *
      * @param reports lista de reportes a acumular
      * @return totales acumulados
      */
-    private AccumulatedTotals accumulateTotalsFromReports(List<Report> reports) {
+    private AccumulatedTotals accumulateTotalsFromReports(List<ReportResponse> reports) {
         BigDecimal totalIncome = BigDecimal.ZERO;
         BigDecimal totalExpense = BigDecimal.ZERO;
 
-        for (Report report : reports) {
-            totalIncome = totalIncome.add(report.getTotalIncome());
-            totalExpense = totalExpense.add(report.getTotalExpense());
+        for (ReportResponse report : reports) {
+            totalIncome = totalIncome.add(report.totalIncome());
+            totalExpense = totalExpense.add(report.totalExpense());
         }
 
         return new AccumulatedTotals(totalIncome, totalExpense);
@@ -314,7 +487,7 @@ public class ReportServiceImpl implements ReportService {
     @Override
     public void deleteReport(String userId, String period) {
         Report report = findReportOrThrow(userId, period);
-        reportRepository.delete(report);
+        removeReport(report);
     }
 
     /**
@@ -346,7 +519,21 @@ public class ReportServiceImpl implements ReportService {
                     String.format("Report with id %d does not belong to user %s", reportId, userId));
         }
 
+        removeReport(report);
+    }
+
+    /**
+     * Elimina el reporte y descuenta sus totales de los rollups que lo contienen.
+     *
+     * @param report reporte a eliminar
+     */
+    private void removeReport(Report report) {
         reportRepository.delete(report);
+        reportRollupService.applyDelta(report.getUserId(), report.getPeriod(),
+                report.getTotalIncome().negate(), report.getTotalExpense().negate());
+        reportCumulativeService.removeReport(report.getUserId(), report.getPeriod(),
+                report.getTotalIncome(), report.getTotalExpense());
+        readCache.invalidate(report.getUserId(), report.getPeriod());
     }
 
     /**
@@ -358,24 +545,42 @@ public class ReportServiceImpl implements ReportService {
     /**
      * Recalcula el reporte financiero para un usuario y período específico.
      * 
-     * <p>Este método recalcula los totales de ingresos, gastos y balance
-     * para un reporte existente. El recálculo se basa en las transacciones
-     * actuales del período.</p>
+     * <p>Este método recalcula el balance a partir de los totales de ingresos y gastos
+     * de un reporte existente y actualiza su marca {@code updatedAt}.</p>
+     *
+     * <p>La escritura usa bloqueo optimista: si un consumidor modifica el reporte entre
+     * la lectura y el guardado, el conflicto de versión se reintenta con
+     * {@link ReportWriteRetrier} en una transacción nueva, releyendo los totales.</p>
      *
      * @param userId identificador del usuario propietario del reporte
      * @param period período en formato "yyyy-MM" (ejemplo: "2025-11")
      * @return reporte recalculado con totales actualizados
      * @throws ReportNotFoundException si el reporte no existe para el período
      */
-    @Transactional
     @Override
     public ReportResponse recalculateReport(String userId, String period) {
-        Report report = findReportOrThrow(userId, period);
-        
-        // Persistir cambios (en implementación completa, aquí se recalcularían valores reales)
-        Report savedReport = reportRepository.save(report);
+        return writeRetrier.execute("recalculate", () -> transactionTemplate.execute(status -> {
+            Report report = findReportOrThrow(userId, period);
+            recalculateBalance(report);
+            report.setUpdatedAt(OffsetDateTime.now());
+
+            // El UPDATE lleva "where version = ?": si el consumidor sumó un delta entretanto, falla y se reintenta
+            Report savedReport = reportRepository.save(report);
+            readCache.invalidate(userId, period);
 
-        return ReportMapper.toResponse(savedReport);
+            return ReportMapper.toResponse(savedReport);
+        }));
+    }
+
+    /**
+     * Recalcula el balance de un reporte.
+     *
+     * <p>Fórmula: {@code balance = totalIncome - totalExpense}</p>
+     *
+     * @param report reporte cuyo balance se recalculará
+     */
+    private void recalculateBalance(Report report) {
+        report.setBalance(calculateBalance(report.getTotalIncome(), report.getTotalExpense()));
     }
 
     /**
@@ -426,6 +631,7 @@ public class ReportServiceImpl implements ReportService {
      */
     private void validateTransactionMessage(TransactionMessage transactionMessage) {
         Objects.requireNonNull(transactionMessage, "transactionMessage cannot be null");
+        Objects.requireNonNull(transactionMessage.transactionId(), "transactionMessage.transactionId cannot be null");
         validateUserId(transactionMessage.userId());
         Objects.requireNonNull(transactionMessage.date(), "transactionMessage.date cannot be null");
         Objects.requireNonNull(transactionMessage.amount(), "transactionMessage.amount cannot be null");
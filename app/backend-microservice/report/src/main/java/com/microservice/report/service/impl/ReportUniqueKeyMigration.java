@@ -0,0 +1,146 @@
+package com.microservice.report.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.ReportCumulativeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migración única que deja {@code reports} con la clave única
+ * {@code uk_reports_user_period}.
+ *
+ * <p>{@code ddl-auto: update} no puede crear la restricción sobre una tabla que ya tiene
+ * varias filas por {@code (user_id, period)}, y falla sin detener el arranque. Sin la
+ * restricción, el upsert de totales inserta una fila nueva en cada escritura y las
+ * lecturas por período fallan con más de un resultado. Esta migración, ejecutada con
+ * {@link DataMigrations}:</p>
+ * <ol>
+ *   <li>Fusiona, por usuario y en su propia transacción, las filas repetidas de cada
+ *       período en la de menor {@code report_id} (sumando sus totales), borra las demás y
+ *       recalcula los acumulados del usuario.</li>
+ *   <li>Crea la restricción. Si entretanto otra instancia ha insertado nuevos duplicados,
+ *       vuelve a fusionar y lo reintenta.</li>
+ * </ol>
+ * <p>Si la migración consta como completada pero la restricción no existe, el arranque
+ * falla: la instancia acumularía totales en filas duplicadas.</p>
+ */
+@Slf4j
+@Component
+public class ReportUniqueKeyMigration implements SmartInitializingSingleton {
+
+    static final String NAME = "report-unique-user-period";
+    private static final int USER_BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final DataMigrations dataMigrations;
+    private final ReportRepository reportRepository;
+    private final ReportCumulativeService reportCumulativeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportWriteRetrier writeRetrier;
+
+    public ReportUniqueKeyMigration(DataMigrations dataMigrations,
+                                    ReportRepository reportRepository,
+                                    ReportCumulativeService reportCumulativeService,
+                                    TransactionTemplate transactionTemplate,
+                                    ReportWriteRetrier writeRetrier) {
+        this.dataMigrations = dataMigrations;
+        this.reportRepository = reportRepository;
+        this.reportCumulativeService = reportCumulativeService;
+        this.transactionTemplate = transactionTemplate;
+        this.writeRetrier = writeRetrier;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        run();
+        if (dataMigrations.isCompleted(NAME) && !reportRepository.hasUniqueUserPeriodKey()) {
+            throw new IllegalStateException("Table reports is missing unique key "
+                    + ReportRepository.UNIQUE_KEY_NAME + " on (user_id, period)");
+        }
+    }
+
+    /**
+     * Ejecuta la migración si no ha terminado y ninguna otra instancia la tiene.
+     *
+     * @return {@code true} si esta llamada la completó
+     */
+    @Scheduled(initialDelayString = "${app.report.migrations.retry-interval-ms:60000}",
+            fixedDelayString = "${app.report.migrations.retry-interval-ms:60000}")
+    public boolean run() {
+        return dataMigrations.runOnce(NAME, this::migrate);
+    }
+
+    private void migrate() {
+        int merged = 0;
+        for (int attempt = 1; ; attempt++) {
+            merged += mergeDuplicates();
+            if (reportRepository.hasUniqueUserPeriodKey()) {
+                break;
+            }
+            try {
+                reportRepository.addUniqueUserPeriodKey();
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("New duplicate reports appeared while adding {}; merging again",
+                        ReportRepository.UNIQUE_KEY_NAME);
+            }
+        }
+        log.info("Migration {} merged {} duplicate reports", NAME, merged);
+    }
+
+    private int mergeDuplicates() {
+        int merged = 0;
+        List<String> batch;
+        do {
+            batch = reportRepository.findUserIdsWithDuplicatePeriods(Limit.of(USER_BATCH_SIZE));
+            for (String userId : batch) {
+                merged += writeRetrier.execute("unique-key-migration",
+                        () -> transactionTemplate.execute(status -> mergeUser(userId)));
+            }
+            dataMigrations.renewLease(NAME);
+        } while (!batch.isEmpty());
+        return merged;
+    }
+
+    /**
+     * Fusiona los reportes repetidos del usuario y recalcula sus acumulados. Las filas
+     * quedan bloqueadas hasta el commit.
+     *
+     * @return filas eliminadas
+     */
+    private int mergeUser(String userId) {
+        Map<String, Report> kept = new LinkedHashMap<>();
+        List<Report> extras = new ArrayList<>();
+        for (Report report : reportRepository.findAllForUpdateByUserIdOrderByPeriodAsc(userId)) {
+            Report first = kept.putIfAbsent(report.getPeriod(), report);
+            if (first == null) {
+                continue;
+            }
+            Report target = first.getReportId() < report.getReportId() ? first : report;
+            Report extra = target == first ? report : first;
+            target.setTotalIncome(target.getTotalIncome().add(extra.getTotalIncome()));
+            target.setTotalExpense(target.getTotalExpense().add(extra.getTotalExpense()));
+            target.setBalance(target.getTotalIncome().subtract(target.getTotalExpense()));
+            kept.put(target.getPeriod(), target);
+            extras.add(extra);
+        }
+        reportRepository.deleteAll(extras);
+        reportRepository.flush();
+        reportCumulativeService.rebuild(userId);
+        return extras.size();
+    }
+}
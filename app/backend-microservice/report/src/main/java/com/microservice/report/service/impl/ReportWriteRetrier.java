@@ -0,0 +1,90 @@
+package com.microservice.report.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reintenta escrituras de reportes que fallan por concurrencia.
+ *
+ * <p>Se consideran reintentables los conflictos de versión ({@code @Version} de
+ * {@code Report}) y los fallos de bloqueo que devuelve MySQL bajo contención
+ * (deadlock, lock wait timeout). Cada intento debe abrir su propia transacción, por
+ * lo que si ya hay una transacción activa el conflicto se propaga sin reintentar:
+ * la transacción envolvente está marcada para rollback y es quien debe reintentar.</p>
+ *
+ * <p>La espera entre intentos es un backoff exponencial con jitter completo
+ * (aleatorio entre cero y el tope del intento) para que los escritores en conflicto
+ * no vuelvan a chocar en el mismo instante.</p>
+ */
+@Slf4j
+@Component
+public class ReportWriteRetrier {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public ReportWriteRetrier(MeterRegistry meterRegistry,
+                              @Value("${app.report.write-retry.max-attempts:5}") int maxAttempts,
+                              @Value("${app.report.write-retry.initial-backoff:20ms}") Duration initialBackoff,
+                              @Value("${app.report.write-retry.max-backoff:500ms}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Ejecuta la operación, reintentándola ante conflictos de concurrencia.
+     *
+     * @param operation nombre de la operación, usado como etiqueta de las métricas
+     * @param action    unidad de trabajo que abre y confirma su propia transacción
+     * @return el resultado de {@code action}
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                counter("report.write.conflicts", operation).increment();
+                if (attempt >= maxAttempts || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    counter("report.write.failures", operation).increment();
+                    throw e;
+                }
+                counter("report.write.retries", operation).increment();
+                log.debug("Write conflict on {} (attempt {}/{}): {}", operation, attempt, maxAttempts, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long capMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        if (capMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(capMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off a report write", e);
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
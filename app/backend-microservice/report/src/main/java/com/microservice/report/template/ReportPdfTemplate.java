@@ -14,6 +14,7 @@ import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -27,6 +28,9 @@ import java.util.Locale;
  * (creación, serialización, cierre). Eso lo maneja
  * {@code PdfGeneratorServiceImpl}.</p>
  *
+ * <p>No guarda estado por documento: una misma instancia puede renderizar en varios
+ * documentos a la vez desde hilos distintos.</p>
+ *
  * <p><strong>Historia de usuario:</strong> US-021</p>
  * <p><strong>Fase TDD:</strong> 🔵 REFACTOR — Separación de responsabilidades</p>
  */
@@ -38,6 +42,12 @@ public class ReportPdfTemplate {
     private static final float LINE_END_X = 550f;
     private static final float BALANCE_LINE_END_X = 350f;
     private static final float VALUE_OFFSET_X = 180f;
+    private static final float PAGE_BOTTOM_Y = 50f;
+
+    // ─── Tabla del estado de cuenta: columnas ───
+    private static final float COLUMN_INCOME_X = 170f;
+    private static final float COLUMN_EXPENSE_X = 300f;
+    private static final float COLUMN_BALANCE_X = 430f;
 
     // ─── Espaciado vertical ───
     private static final float TITLE_SPACING = 35f;
@@ -96,6 +106,62 @@ public class ReportPdfTemplate {
         }
     }
 
+    /**
+     * Renderiza el resumen de un estado de cuenta de varios períodos: una fila por período
+     * con ingresos, gastos y balance, y al final los totales del rango. Si las filas no
+     * caben en una página, la tabla continúa en páginas nuevas repitiendo la cabecera.
+     *
+     * <p>Las páginas de detalle de cada período se renderizan aparte con
+     * {@link #render(PDDocument, Report)}.</p>
+     *
+     * @param document documento PDF ya creado al que se agregarán las páginas
+     * @param reports  reportes de un mismo usuario, ordenados por período; no vacío
+     * @throws IOException si ocurre un error al escribir contenido en las páginas
+     */
+    public void renderStatementSummary(PDDocument document, List<Report> reports) throws IOException {
+        Report first = reports.getFirst();
+        PDPageContentStream content = addPage(document);
+        try {
+            float y = CONTENT_START_Y;
+
+            writeText(content, titleFont, FONT_SIZE_TITLE, PAGE_MARGIN, y, "Estado de Cuenta");
+            y -= TITLE_SPACING;
+            writeText(content, titleFont, FONT_SIZE_SUBTITLE, PAGE_MARGIN, y,
+                    "Períodos: " + first.getPeriod() + " a " + reports.getLast().getPeriod());
+            y -= SUBTITLE_SPACING;
+            writeText(content, bodyFont, FONT_SIZE_DETAIL, PAGE_MARGIN, y, "Usuario: " + first.getUserId());
+            y -= SECTION_SPACING;
+
+            y = renderTableHeader(content, y);
+            BigDecimal totalIncome = BigDecimal.ZERO;
+            BigDecimal totalExpense = BigDecimal.ZERO;
+            for (Report report : reports) {
+                if (y - ROW_SPACING < PAGE_BOTTOM_Y) {
+                    content.close();
+                    content = addPage(document);
+                    y = renderTableHeader(content, CONTENT_START_Y);
+                }
+                y = renderTableRow(content, bodyFont, y, report.getPeriod(),
+                        report.getTotalIncome(), report.getTotalExpense(), report.getBalance());
+                totalIncome = totalIncome.add(report.getTotalIncome());
+                totalExpense = totalExpense.add(report.getTotalExpense());
+            }
+
+            // Separador, fila de totales y pie deben quedar juntos
+            if (y - SUBTITLE_SPACING - ROW_SPACING - SECTION_SPACING < PAGE_BOTTOM_Y) {
+                content.close();
+                content = addPage(document);
+                y = CONTENT_START_Y;
+            }
+            y = renderSeparator(content, y + 3 * SEPARATOR_GAP, LINE_END_X, 0.5f) + SEPARATOR_GAP;
+            y = renderTableRow(content, titleFont, y, "Total", totalIncome, totalExpense,
+                    totalIncome.subtract(totalExpense));
+            renderFooter(content, y - SECTION_SPACING);
+        } finally {
+            content.close();
+        }
+    }
+
     // ─── Secciones de renderizado ────────────────────────────────────────────
 
     private float renderHeader(PDPageContentStream content, Report report, float y) throws IOException {
@@ -129,8 +195,31 @@ public class ReportPdfTemplate {
                 "Documento generado el: " + timestamp);
     }
 
+    private float renderTableHeader(PDPageContentStream content, float y) throws IOException {
+        writeText(content, titleFont, FONT_SIZE_DETAIL, PAGE_MARGIN, y, "Período");
+        writeText(content, titleFont, FONT_SIZE_DETAIL, COLUMN_INCOME_X, y, "Ingresos");
+        writeText(content, titleFont, FONT_SIZE_DETAIL, COLUMN_EXPENSE_X, y, "Gastos");
+        writeText(content, titleFont, FONT_SIZE_DETAIL, COLUMN_BALANCE_X, y, "Balance");
+        return renderSeparator(content, y - SEPARATOR_GAP, LINE_END_X, 1f) + SEPARATOR_GAP;
+    }
+
+    private float renderTableRow(PDPageContentStream content, PDType1Font font, float y, String label,
+                                 BigDecimal income, BigDecimal expense, BigDecimal balance) throws IOException {
+        writeText(content, font, FONT_SIZE_DETAIL, PAGE_MARGIN, y, label);
+        writeText(content, font, FONT_SIZE_DETAIL, COLUMN_INCOME_X, y, formatCurrency(income));
+        writeText(content, font, FONT_SIZE_DETAIL, COLUMN_EXPENSE_X, y, formatCurrency(expense));
+        writeText(content, font, FONT_SIZE_DETAIL, COLUMN_BALANCE_X, y, formatCurrency(balance));
+        return y - ROW_SPACING;
+    }
+
     // ─── Helpers de bajo nivel ───────────────────────────────────────────────
 
+    private static PDPageContentStream addPage(PDDocument document) throws IOException {
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+        return new PDPageContentStream(document, page);
+    }
+
     private float renderCurrencyRow(PDPageContentStream content, float y,
                                      String label, BigDecimal amount) throws IOException {
         writeText(content, titleFont, FONT_SIZE_BODY, PAGE_MARGIN, y, label);
@@ -24,4 +24,25 @@ public class PdfFileNameGenerator {
     public static String generateFileName(String period) {
         return "reporte-" + period + ".pdf";
     }
+
+    /**
+     * Genera el nombre de archivo PDF para un estado de cuenta de varios períodos.
+     *
+     * @param startPeriod primer período en formato {@code "yyyy-MM"}
+     * @param endPeriod   último período en formato {@code "yyyy-MM"}
+     * @return nombre del archivo con formato {@code "estado-de-cuenta-yyyy-MM-a-yyyy-MM.pdf"}
+     */
+    public static String generateStatementFileName(String startPeriod, String endPeriod) {
+        return "estado-de-cuenta-" + startPeriod + "-a-" + endPeriod + ".pdf";
+    }
+
+    /**
+     * Genera el nombre del ZIP con todos los reportes PDF de un usuario.
+     *
+     * @param userId identificador del usuario
+     * @return nombre del archivo con formato {@code "reportes-<userId>.zip"}
+     */
+    public static String generateArchiveFileName(String userId) {
+        return "reportes-" + userId.replaceAll("[^A-Za-z0-9._-]", "_") + ".zip";
+    }
 }
@@ -0,0 +1,62 @@
+package com.microservice.report.util;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.microservice.report.model.RollupGranularity;
+
+/**
+ * Cubre un rango de períodos mensuales con el menor número de filas: años completos,
+ * después trimestres completos y, en los extremos, meses sueltos.
+ *
+ * <p>Un rango de diez años alineado se resuelve con 10 rollups anuales en lugar de
+ * 120 reportes; uno desalineado añade como mucho 6 trimestres y 2 tramos de meses.</p>
+ */
+public class PeriodRangePlanner {
+
+    private PeriodRangePlanner() {
+        // Private constructor to hide the implicit public one
+    }
+
+    /**
+     * @param startPeriod período inicial {@code "yyyy-MM"}, incluido
+     * @param endPeriod   período final {@code "yyyy-MM"}, incluido
+     * @return plan de lectura; vacío si {@code startPeriod > endPeriod}
+     */
+    public static Plan plan(String startPeriod, String endPeriod) {
+        YearMonth end = YearMonth.parse(endPeriod);
+        List<MonthSpan> monthSpans = new ArrayList<>();
+        List<String> quarters = new ArrayList<>();
+        List<String> years = new ArrayList<>();
+
+        YearMonth cursor = YearMonth.parse(startPeriod);
+        while (!cursor.isAfter(end)) {
+            if (cursor.getMonthValue() == 1 && !cursor.plusMonths(11).isAfter(end)) {
+                years.add(RollupGranularity.YEAR.bucketOf(cursor));
+                cursor = cursor.plusMonths(12);
+            } else if ((cursor.getMonthValue() - 1) % 3 == 0 && !cursor.plusMonths(2).isAfter(end)) {
+                quarters.add(RollupGranularity.QUARTER.bucketOf(cursor));
+                cursor = cursor.plusMonths(3);
+            } else {
+                MonthSpan last = monthSpans.isEmpty() ? null : monthSpans.get(monthSpans.size() - 1);
+                if (last != null && YearMonth.parse(last.endPeriod()).plusMonths(1).equals(cursor)) {
+                    monthSpans.set(monthSpans.size() - 1, new MonthSpan(last.startPeriod(), cursor.toString()));
+                } else {
+                    monthSpans.add(new MonthSpan(cursor.toString(), cursor.toString()));
+                }
+                cursor = cursor.plusMonths(1);
+            }
+        }
+        return new Plan(monthSpans, quarters, years);
+    }
+
+    /**
+     * Tramos de meses contiguos y buckets de rollup que, juntos, cubren el rango sin solaparse.
+     */
+    public record Plan(List<MonthSpan> monthSpans, List<String> quarters, List<String> years) {
+    }
+
+    public record MonthSpan(String startPeriod, String endPeriod) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.microservice.report.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecutor particionado por clave: las tareas con la misma clave se ejecutan en el
+ * mismo hilo, en orden de envío y nunca en paralelo; claves distintas se reparten
+ * entre {@code stripes} hilos y avanzan en paralelo.
+ *
+ * <p>Las colas de cada partición no tienen límite: quien envía debe acotar el trabajo
+ * pendiente (en el consumidor de reportes lo acota el prefetch de RabbitMQ). Los hilos
+ * se crean al recibir la primera tarea de su partición.</p>
+ */
+public class StripedExecutor {
+
+    private final List<ExecutorService> stripes;
+
+    public StripedExecutor(int stripes, String threadNamePrefix) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        this.stripes = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            String threadName = threadNamePrefix + i;
+            this.stripes.add(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, threadName)));
+        }
+    }
+
+    /**
+     * Encola la tarea en la partición asociada a la clave.
+     *
+     * @param key  clave de ordenación (por ejemplo, el {@code userId}); {@code null} va a la partición 0
+     * @param task tarea a ejecutar
+     */
+    public void execute(Object key, Runnable task) {
+        stripes.get(Math.floorMod(Objects.hashCode(key), stripes.size())).execute(task);
+    }
+
+    public int stripeCount() {
+        return stripes.size();
+    }
+
+    /**
+     * Deja de aceptar tareas y espera a que las particiones vacíen su cola.
+     *
+     * @param timeout espera máxima total
+     * @param unit    unidad de {@code timeout}
+     * @return {@code true} si todas las particiones terminaron a tiempo
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        stripes.forEach(ExecutorService::shutdown);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService stripe : stripes) {
+            if (!stripe.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
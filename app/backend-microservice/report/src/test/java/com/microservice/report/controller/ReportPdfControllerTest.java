@@ -1,10 +1,16 @@
 package com.microservice.report.controller;
 
+import com.microservice.report.dto.PdfJobResponse;
 import com.microservice.report.exception.PdfGenerationException;
+import com.microservice.report.exception.PdfJobNotReadyException;
 import com.microservice.report.exception.ReportNotFoundException;
+import com.microservice.report.model.PdfJobStatus;
 import com.microservice.report.model.Report;
 import com.microservice.report.repository.ReportRepository;
 import com.microservice.report.service.PdfGeneratorService;
+import com.microservice.report.service.PdfJobService;
+import com.microservice.report.service.ReportArchiveService;
+import com.microservice.report.service.impl.ReportPdfCache;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,9 +19,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -48,6 +67,18 @@ class ReportPdfControllerTest {
     @Mock
     private PdfGeneratorService pdfGeneratorService;
 
+    @Mock
+    private ReportPdfCache reportPdfCache;
+
+    @Mock
+    private PdfJobService pdfJobService;
+
+    @Mock
+    private ReportArchiveService reportArchiveService;
+
+    @InjectMocks
+    private ReportPdfController controller;
+
     // ⚠️ El controlador de PDF no existe todavía.
     // Estos tests validan la lógica que el controlador deberá orquestar.
 
@@ -181,6 +212,230 @@ class ReportPdfControllerTest {
         }
     }
 
+    // =========================================================================
+    // Descarga condicional: ETag / Last-Modified → 304
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Descarga condicional con ETag y Last-Modified")
+    class DescargaCondicional {
+
+        private final Report report = Report.builder()
+                .reportId(1L)
+                .userId("user-001")
+                .period("2025-10")
+                .totalIncome(new BigDecimal("5000.00"))
+                .totalExpense(new BigDecimal("2000.00"))
+                .balance(new BigDecimal("3000.00"))
+                .updatedAt(OffsetDateTime.parse("2025-10-31T18:00:00Z"))
+                .build();
+
+        @Test
+        @DisplayName("downloadPdf — copia en streaming el PDF de la caché con ETag y Last-Modified")
+        @SuppressWarnings("unchecked")
+        void downloadPdf_sinCabecerasCondicionales_sirveDesdeCache() throws Exception {
+            when(reportRepository.findByUserIdAndPeriod("user-001", "2025-10")).thenReturn(Optional.of(report));
+            when(reportPdfCache.get(eq(report), any(BiConsumer.class))).thenReturn(cachedPdf("%PDF-"));
+            ServletWebRequest webRequest = webRequest(new MockHttpServletRequest("GET", "/api/v1/reports/user-001/pdf"));
+
+            ResponseEntity<StreamingResponseBody> response = controller.downloadPdf("user-001", "2025-10", webRequest);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(5, response.getHeaders().getContentLength());
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            response.getBody().writeTo(body);
+            assertEquals("%PDF-", body.toString());
+            assertEquals(ReportPdfCache.etag(report), response.getHeaders().getETag());
+            assertEquals(report.getUpdatedAt().toInstant().toEpochMilli(), response.getHeaders().getLastModified());
+        }
+
+        @Test
+        @DisplayName("downloadPdf — con If-None-Match de la versión actual responde 304 sin generar el PDF")
+        void downloadPdf_conEtagVigente_respondeNotModified() {
+            when(reportRepository.findByUserIdAndPeriod("user-001", "2025-10")).thenReturn(Optional.of(report));
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/reports/user-001/pdf");
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ReportPdfCache.etag(report));
+            ServletWebRequest webRequest = webRequest(request);
+
+            ResponseEntity<StreamingResponseBody> response = controller.downloadPdf("user-001", "2025-10", webRequest);
+
+            assertNull(response, "La respuesta 304 ya quedó escrita por checkNotModified");
+            assertEquals(304, ((MockHttpServletResponse) webRequest.getResponse()).getStatus());
+            verifyNoInteractions(reportPdfCache, pdfGeneratorService);
+        }
+
+        @Test
+        @DisplayName("downloadPdf — un ETag de una versión anterior vuelve a servir el PDF")
+        @SuppressWarnings("unchecked")
+        void downloadPdf_conEtagObsoleto_sirveElPdf() {
+            when(reportRepository.findByUserIdAndPeriod("user-001", "2025-10")).thenReturn(Optional.of(report));
+            when(reportPdfCache.get(eq(report), any(BiConsumer.class))).thenReturn(cachedPdf("%PDF-"));
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/reports/user-001/pdf");
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"1-0-0\"");
+
+            ResponseEntity<StreamingResponseBody> response = controller.downloadPdf("user-001", "2025-10", webRequest(request));
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+
+        private ServletWebRequest webRequest(MockHttpServletRequest request) {
+            return new ServletWebRequest(request, new MockHttpServletResponse());
+        }
+
+        private ReportPdfCache.CachedPdf cachedPdf(String content) {
+            return new ReportPdfCache.CachedPdf() {
+                @Override
+                public long size() {
+                    return content.length();
+                }
+
+                @Override
+                public void writeTo(OutputStream outputStream) throws IOException {
+                    outputStream.write(content.getBytes());
+                }
+            };
+        }
+    }
+
+    // =========================================================================
+    // Estado de cuenta de varios períodos
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Estado de cuenta de varios períodos")
+    class EstadoDeCuenta {
+
+        @Test
+        @DisplayName("downloadStatementPdf — lee el rango con una sola consulta y lo escribe en streaming")
+        void downloadStatementPdf_conReportes_escribeEstadoDeCuenta() throws Exception {
+            List<Report> reports = List.of(
+                    Report.builder().reportId(1L).userId("user-001").period("2025-01").build(),
+                    Report.builder().reportId(2L).userId("user-001").period("2025-02").build());
+            when(reportRepository.findByUserIdAndPeriodBetweenOrderByPeriodAsc("user-001", "2025-01", "2025-12"))
+                    .thenReturn(reports);
+
+            ResponseEntity<StreamingResponseBody> response =
+                    controller.downloadStatementPdf("user-001", "2025-01", "2025-12");
+            response.getBody().writeTo(new ByteArrayOutputStream());
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)
+                    .contains("estado-de-cuenta-2025-01-a-2025-12.pdf"));
+            verify(pdfGeneratorService).writeStatementPdf(eq(reports), any());
+            verify(reportRepository, never()).findByUserIdAndPeriod(any(), any());
+        }
+
+        @Test
+        @DisplayName("downloadStatementPdf — sin reportes en el rango lanza ReportNotFoundException")
+        void downloadStatementPdf_sinReportes_lanzaReportNotFoundException() {
+            when(reportRepository.findByUserIdAndPeriodBetweenOrderByPeriodAsc("user-001", "2025-01", "2025-12"))
+                    .thenReturn(List.of());
+
+            assertThrows(ReportNotFoundException.class,
+                    () -> controller.downloadStatementPdf("user-001", "2025-01", "2025-12"));
+            verifyNoInteractions(pdfGeneratorService);
+        }
+
+        @Test
+        @DisplayName("downloadStatementPdf — rechaza rangos invertidos o mayores que el máximo")
+        void downloadStatementPdf_rangoInvalido_lanzaIllegalArgumentException() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> controller.downloadStatementPdf("user-001", "2025-12", "2025-01"));
+            assertThrows(IllegalArgumentException.class,
+                    () -> controller.downloadStatementPdf("user-001", "2020-01", "2025-12"));
+            verifyNoInteractions(reportRepository, pdfGeneratorService);
+        }
+    }
+
+    // =========================================================================
+    // Trabajos de PDF asíncronos
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Trabajos de PDF asíncronos")
+    class TrabajosAsincronos {
+
+        @Test
+        @DisplayName("submitPdfJob — responde 202 con Location al estado del trabajo")
+        void submitPdfJob_respondeAcceptedConLocation() {
+            PdfJobResponse job = new PdfJobResponse("job-1", "user-001", "2025-10", PdfJobStatus.PENDING,
+                    null, OffsetDateTime.now(), null);
+            when(pdfJobService.submit("user-001", "2025-10")).thenReturn(job);
+
+            ResponseEntity<PdfJobResponse> response = controller.submitPdfJob("user-001", "2025-10");
+
+            assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+            assertEquals("/api/v1/reports/user-001/pdf/jobs/job-1", response.getHeaders().getLocation().toString());
+            assertSame(job, response.getBody());
+            verifyNoInteractions(pdfGeneratorService, reportPdfCache);
+        }
+
+        @Test
+        @DisplayName("downloadPdfJob — sirve desde la caché el PDF de la versión que generó el trabajo")
+        @SuppressWarnings("unchecked")
+        void downloadPdfJob_trabajoTerminado_sirveDesdeCache() {
+            Report report = Report.builder().reportId(1L).userId("user-001").period("2025-10")
+                    .updatedAt(OffsetDateTime.parse("2025-10-31T18:00:00Z")).build();
+            when(pdfJobService.getResult("user-001", "job-1")).thenReturn(report);
+            when(reportPdfCache.get(eq(report), any(BiConsumer.class))).thenReturn(mock(ReportPdfCache.CachedPdf.class));
+            ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+
+            ResponseEntity<StreamingResponseBody> response = controller.downloadPdfJob("user-001", "job-1", webRequest);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(ReportPdfCache.etag(report), response.getHeaders().getETag());
+            assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("reporte-2025-10.pdf"));
+            verify(reportRepository, never()).findByUserIdAndPeriod(any(), any());
+        }
+
+        @Test
+        @DisplayName("downloadPdfJob — un trabajo sin terminar propaga PdfJobNotReadyException")
+        void downloadPdfJob_trabajoPendiente_lanzaPdfJobNotReadyException() {
+            when(pdfJobService.getResult("user-001", "job-1"))
+                    .thenThrow(new PdfJobNotReadyException("job-1", PdfJobStatus.RUNNING));
+            ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+
+            assertThrows(PdfJobNotReadyException.class,
+                    () -> controller.downloadPdfJob("user-001", "job-1", webRequest));
+            verifyNoInteractions(reportPdfCache);
+        }
+    }
+
+    // =========================================================================
+    // Exportación completa en ZIP
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Exportación de todos los PDFs en ZIP")
+    class ArchivoZip {
+
+        @Test
+        @DisplayName("downloadPdfArchive — responde application/zip y genera el archivo al escribir la respuesta")
+        void downloadPdfArchive_conReportes_escribeZip() throws Exception {
+            when(reportRepository.existsByUserId("user-001")).thenReturn(true);
+
+            ResponseEntity<StreamingResponseBody> response = controller.downloadPdfArchive("user-001");
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("application/zip", response.getHeaders().getContentType().toString());
+            assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("reportes-user-001.zip"));
+            verifyNoInteractions(reportArchiveService);
+
+            OutputStream outputStream = new ByteArrayOutputStream();
+            response.getBody().writeTo(outputStream);
+            verify(reportArchiveService).writePdfArchive("user-001", outputStream);
+        }
+
+        @Test
+        @DisplayName("downloadPdfArchive — un usuario sin reportes lanza ReportNotFoundException")
+        void downloadPdfArchive_sinReportes_lanzaReportNotFoundException() {
+            when(reportRepository.existsByUserId("user-001")).thenReturn(false);
+
+            assertThrows(ReportNotFoundException.class, () -> controller.downloadPdfArchive("user-001"));
+            verifyNoInteractions(reportArchiveService);
+        }
+    }
+
     // =========================================================================
     // Escenario E5: Usuario no autenticado → Acceso denegado
     // =========================================================================
@@ -0,0 +1,148 @@
+package com.microservice.report.infrastructure;
+
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.infrastructure.dto.TransactionType;
+import com.microservice.report.service.ReportService;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class PartitionedReportProcessorTest {
+
+    private static final int USERS = 40;
+
+    @Test
+    @DisplayName("submit — los mensajes de un usuario se aplican en orden y nunca en paralelo, y todos reciben ACK")
+    void submit_ordenPorUsuarioSinConcurrencia() throws Exception {
+        OrderChecker checker = new OrderChecker(Duration.ZERO);
+        Channel channel = mock(Channel.class);
+        PartitionedReportProcessor processor = new PartitionedReportProcessor(reportService(checker), 8, 3, Duration.ZERO);
+
+        List<TransactionMessage> messages = workload(8_000);
+        for (int i = 0; i < messages.size(); i++) {
+            processor.submit(messages.get(i), channel, i + 1);
+        }
+        processor.shutdown();
+
+        assertEquals(0, checker.violations.get(), "Mensajes del mismo usuario fuera de orden o en paralelo");
+        assertEquals(messages.size(), checker.applied.get());
+        verify(channel, times(messages.size())).basicAck(anyLong(), eq(false));
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("submit — reintenta en la partición y rechaza sin reencolar al agotar los intentos")
+    void submit_rechazaTrasAgotarReintentos() throws Exception {
+        ReportService reportService = mock(ReportService.class);
+        doThrow(new QueryTimeoutException("lock wait timeout")).when(reportService).updateReport(any());
+        Channel channel = mock(Channel.class);
+        PartitionedReportProcessor processor = new PartitionedReportProcessor(reportService, 2, 3, Duration.ZERO);
+
+        processor.submit(message(1L, "user-1"), channel, 7L);
+        processor.shutdown();
+
+        verify(reportService, times(3)).updateReport(any());
+        verify(channel).basicNack(7L, false, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("submit — el throughput escala con el número de particiones manteniendo el orden")
+    void submit_escalaConParticiones() throws Exception {
+        List<TransactionMessage> messages = workload(2_000);
+        double baseline = 0;
+        double best = 0;
+        for (int partitions : new int[]{1, 2, 4, 8}) {
+            // ~0.5 ms por mensaje simula el round trip del upsert contra MySQL
+            OrderChecker checker = new OrderChecker(Duration.ofNanos(500_000));
+            PartitionedReportProcessor processor =
+                    new PartitionedReportProcessor(reportService(checker), partitions, 3, Duration.ZERO);
+            Channel channel = mock(Channel.class, withSettings().stubOnly());
+
+            long start = System.nanoTime();
+            for (int i = 0; i < messages.size(); i++) {
+                processor.submit(messages.get(i), channel, i + 1);
+            }
+            processor.shutdown();
+            double rate = messages.size() / ((System.nanoTime() - start) / 1_000_000_000.0);
+            log.info("partitions={} messages={} msg/s={}", partitions, messages.size(), Math.round(rate));
+
+            assertEquals(0, checker.violations.get());
+            if (partitions == 1) {
+                baseline = rate;
+            }
+            best = Math.max(best, rate);
+        }
+        assertTrue(best > baseline * 3, "8 particiones deberían procesar bastante más rápido que 1");
+    }
+
+    private static ReportService reportService(OrderChecker checker) {
+        ReportService reportService = mock(ReportService.class, withSettings().stubOnly());
+        doAnswer(invocation -> {
+            checker.apply(invocation.getArgument(0));
+            return null;
+        }).when(reportService).updateReport(any());
+        return reportService;
+    }
+
+    private static List<TransactionMessage> workload(int size) {
+        List<TransactionMessage> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            messages.add(message((long) i, "user-" + (i % USERS)));
+        }
+        return messages;
+    }
+
+    private static TransactionMessage message(Long id, String userId) {
+        return new TransactionMessage(id, userId, TransactionType.INCOME, BigDecimal.TEN,
+                LocalDate.of(2026, 1, 1), "General", null);
+    }
+
+    /**
+     * Verifica que, por usuario, los transactionId llegan crecientes y sin solaparse.
+     */
+    private static final class OrderChecker {
+        private final Duration latency;
+        private final Map<String, Long> lastIdByUser = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> inFlightByUser = new ConcurrentHashMap<>();
+        private final AtomicInteger violations = new AtomicInteger();
+        private final AtomicInteger applied = new AtomicInteger();
+
+        private OrderChecker(Duration latency) {
+            this.latency = latency;
+        }
+
+        private void apply(TransactionMessage message) {
+            AtomicInteger inFlight = inFlightByUser.computeIfAbsent(message.userId(), k -> new AtomicInteger());
+            if (inFlight.incrementAndGet() != 1) {
+                violations.incrementAndGet();
+            }
+            Long previous = lastIdByUser.put(message.userId(), message.transactionId());
+            if (previous != null && previous >= message.transactionId()) {
+                violations.incrementAndGet();
+            }
+            if (!latency.isZero()) {
+                LockSupport.parkNanos(latency.toNanos());
+            }
+            applied.incrementAndGet();
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.microservice.report.infrastructure;
+
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.infrastructure.dto.TransactionType;
+import com.microservice.report.service.ReportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ReportBatchRecovererTest {
+
+    private final JacksonJsonMessageConverter converter = new JacksonJsonMessageConverter();
+    private final ReportService reportService = mock(ReportService.class);
+    private final ReportBatchRecoverer recoverer = new ReportBatchRecoverer(reportService, converter);
+
+    @Test
+    @DisplayName("recover — un lote fallido se aplica mensaje a mensaje y solo se descarta el que falla")
+    void recover_loteFallidoSeAplicaUnoAUno() {
+        doThrow(new DataIntegrityViolationException("Data too long for column 'period'"))
+                .when(reportService).updateReport(argThat(message -> message.transactionId() == 2L));
+
+        assertDoesNotThrow(() -> recoverer.recover(List.of(amqp(1L), amqp(2L), amqp(3L)),
+                new DataIntegrityViolationException("batch failed")));
+
+        verify(reportService, times(3)).updateReport(any());
+        verify(reportService).updateReport(argThat(message -> message.transactionId() == 1L
+                && message.userId().equals("user-001") && message.type() == TransactionType.INCOME));
+        verify(reportService).updateReport(argThat(message -> message.transactionId() == 3L));
+        verify(reportService, never()).applyTransactions(any());
+    }
+
+    private Message amqp(long transactionId) {
+        Message message = converter.toMessage(new TransactionMessage(transactionId, "user-001", TransactionType.INCOME,
+                new BigDecimal("10.00"), LocalDate.of(2026, 1, 3), "General", null), new MessageProperties());
+        // El productor envía su propia clase en __TypeId__, que no existe en este servicio
+        message.getMessageProperties().setHeader("__TypeId__",
+                "com.microservice.transaction.infrastructure.dto.TransactionMessage");
+        return message;
+    }
+}
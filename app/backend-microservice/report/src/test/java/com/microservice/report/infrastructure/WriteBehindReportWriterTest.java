@@ -0,0 +1,266 @@
+package com.microservice.report.infrastructure;
+
+import com.microservice.report.dto.ReportResponse;
+import com.microservice.report.dto.ReportSummary;
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.infrastructure.dto.TransactionType;
+import com.microservice.report.repository.DataMigrationRepository;
+import com.microservice.report.repository.ProcessedTransactionRepository;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.repository.ReportRollupRepository;
+import com.microservice.report.service.ReportService;
+import com.microservice.report.service.impl.DataMigrations;
+import com.microservice.report.service.impl.PendingReportDeltas;
+import com.microservice.report.service.impl.ReportCumulativeServiceImpl;
+import com.microservice.report.service.impl.ProcessedTransactionServiceImpl;
+import com.microservice.report.service.impl.ReportReadCache;
+import com.microservice.report.service.impl.ReportRollupServiceImpl;
+import com.microservice.report.service.impl.ReportServiceImpl;
+import com.microservice.report.service.impl.ReportWriteRetrier;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests del modo {@code write-behind}: deltas en memoria, checkpoint a H2 en modo MySQL y
+ * ACK manual tras el checkpoint.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindReportWriterTest {
+
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private ProcessedTransactionRepository processedTransactionRepository;
+    @Autowired
+    private ReportRollupRepository reportRollupRepository;
+    @Autowired
+    private DataMigrationRepository dataMigrationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PendingReportDeltas pendingReportDeltas;
+    private ReportServiceImpl reportService;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        reportRepository.deleteAllInBatch();
+        processedTransactionRepository.deleteAllInBatch();
+        reportRollupRepository.deleteAllInBatch();
+        pendingReportDeltas = new PendingReportDeltas();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        DataMigrations dataMigrations = new DataMigrations(dataMigrationRepository, transactionTemplate, Duration.ofMinutes(5));
+        reportService = new ReportServiceImpl(reportRepository,
+                new ProcessedTransactionServiceImpl(processedTransactionRepository, 3, 10_000),
+                transactionTemplate,
+                new ReportWriteRetrier(new SimpleMeterRegistry(), 3, Duration.ZERO, Duration.ZERO),
+                pendingReportDeltas,
+                new ReportReadCache(new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(5)),
+                new ReportRollupServiceImpl(reportRollupRepository, reportRepository, dataMigrations, "prefix-sum"),
+                new ReportCumulativeServiceImpl(reportRepository, dataMigrations));
+        channel = mock(Channel.class);
+    }
+
+    @Test
+    @DisplayName("submit — las lecturas ven los deltas antes del checkpoint y el ACK llega solo tras persistirlos")
+    void submit_readYourWritesYAckTrasCheckpoint() throws Exception {
+        WriteBehindReportWriter writer = new WriteBehindReportWriter(reportService, pendingReportDeltas);
+
+        writer.submit(message(1L, "user-001", TransactionType.INCOME, "100.00", LocalDate.of(2026, 1, 3)), channel, 1L);
+        writer.submit(message(2L, "user-001", TransactionType.EXPENSE, "30.00", LocalDate.of(2026, 1, 9)), channel, 2L);
+        writer.submit(message(3L, "user-001", TransactionType.INCOME, "5.00", LocalDate.of(2026, 2, 1)), channel, 3L);
+
+        assertEquals(0, reportRepository.count());
+        verifyNoInteractions(channel);
+        assertTotals(reportService.getReport("user-001", "2026-01"), "100.00", "30.00", "70.00");
+        assertTotals(reportService.getReportsByPeriodRange("user-001", "2026-01", "2026-12"), "105.00", "30.00", "75.00");
+        assertTotals(reportService.getTotalsByPeriodRange("user-001", "2026-01", "2026-01"), "100.00", "30.00", "70.00");
+
+        writer.checkpoint();
+
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+        verify(channel).basicAck(3L, false);
+        assertEquals(0, pendingReportDeltas.size());
+        assertEquals(2, reportRepository.count());
+        ReportResponse january = reportService.getReport("user-001", "2026-01");
+        assertNotNull(january.reportId());
+        assertTotals(january, "100.00", "30.00", "70.00");
+        ReportSummary summary = reportService.getReportsByPeriodRange("user-001", "2026-01", "2026-12");
+        assertEquals(List.of("2026-01", "2026-02"), summary.reports().stream().map(ReportResponse::period).toList());
+        assertTotals(summary, "105.00", "30.00", "75.00");
+    }
+
+    @Test
+    @DisplayName("checkpoint — si falla, los mensajes vuelven a la cola y desaparecen de las lecturas")
+    void checkpoint_fallidoDevuelveMensajesALaCola() throws Exception {
+        ReportService failing = mock(ReportService.class);
+        doThrow(new QueryTimeoutException("lock wait timeout")).when(failing).applyTransactions(any());
+        WriteBehindReportWriter writer = new WriteBehindReportWriter(failing, pendingReportDeltas);
+        TransactionMessage message = message(1L, "user-001", TransactionType.INCOME, "10.00", LocalDate.of(2026, 1, 3));
+
+        writer.submit(message, channel, 1L);
+        writer.submit(message, channel, 2L);
+        writer.submit(message(null, "user-001", TransactionType.INCOME, "10.00", LocalDate.of(2026, 1, 3)), channel, 3L);
+        verify(channel).basicNack(3L, false, false);
+
+        writer.checkpoint();
+
+        verify(channel).basicNack(1L, false, true);
+        verify(channel).basicNack(2L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        assertEquals(0, pendingReportDeltas.size());
+        assertTrue(pendingReportDeltas.pendingOnly("user-001", "2026-01").isEmpty());
+    }
+
+    @Test
+    @DisplayName("checkpoint — un mensaje que la BD no acepta se rechaza solo tras agotar los checkpoints y el resto se persiste")
+    void checkpoint_mensajeVenenosoSeAislaTrasAgotarCheckpoints() throws Exception {
+        WriteBehindReportWriter writer = new WriteBehindReportWriter(reportService, pendingReportDeltas);
+        // Período "10000-01": pasa la validación pero no cabe en la columna (length = 7)
+        TransactionMessage poison = message(1L, "user-001", TransactionType.INCOME, "10.00", LocalDate.of(10_000, 1, 3));
+        TransactionMessage valid = message(2L, "user-001", TransactionType.INCOME, "25.00", LocalDate.of(2026, 1, 3));
+
+        for (long delivery = 1; delivery <= 3; delivery++) {
+            // El broker reentrega ambos mensajes tras cada NACK con reencolado
+            writer.submit(poison, channel, delivery * 10 + 1);
+            writer.submit(valid, channel, delivery * 10 + 2);
+            writer.checkpoint();
+        }
+
+        verify(channel).basicNack(11L, false, true);
+        verify(channel).basicNack(12L, false, true);
+        verify(channel).basicNack(21L, false, true);
+        verify(channel).basicNack(22L, false, true);
+        verify(channel).basicNack(31L, false, false);
+        verify(channel).basicAck(32L, false);
+        verify(channel, never()).basicNack(eq(32L), anyBoolean(), anyBoolean());
+        assertEquals(0, pendingReportDeltas.size());
+        assertTotals(reportService.getReport("user-001", "2026-01"), "25.00", "0.00", "25.00");
+    }
+
+    @Test
+    @DisplayName("checkpoint — una lectura concurrente nunca cuenta un delta dos veces (memoria y BD)")
+    void checkpoint_lecturasConcurrentesSinDobleConteo() throws Exception {
+        WriteBehindReportWriter writer = new WriteBehindReportWriter(reportService, pendingReportDeltas);
+        Channel stubChannel = mock(Channel.class, withSettings().stubOnly());
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        long expectedCents = 0;
+        try {
+            Future<Integer> anomalies = reader.submit(() -> {
+                int count = 0;
+                BigDecimal last = BigDecimal.ZERO;
+                while (!done.get()) {
+                    BigDecimal income = reportService
+                            .getReportsByPeriodRange("user-001", "2026-01", "2026-01").totalIncome();
+                    // Los ingresos solo crecen: un valor mayor que el real o un retroceso delatan doble conteo
+                    if (income.compareTo(last) < 0) {
+                        count++;
+                    }
+                    last = income;
+                }
+                return count;
+            });
+            for (long id = 1; id <= 300; id++) {
+                writer.submit(message(id, "user-001", TransactionType.INCOME, "1.00", LocalDate.of(2026, 1, 3)),
+                        stubChannel, id);
+                expectedCents += 100;
+                if (id % 20 == 0) {
+                    writer.checkpoint();
+                }
+            }
+            writer.checkpoint();
+            done.set(true);
+            assertEquals(0, anomalies.get());
+        } finally {
+            reader.shutdownNow();
+        }
+        assertTotals(reportService.getReport("user-001", "2026-01"),
+                BigDecimal.valueOf(expectedCents, 2).toPlainString(), "0.00", BigDecimal.valueOf(expectedCents, 2).toPlainString());
+    }
+
+    @Test
+    @DisplayName("checkpoint — las lecturas no esperan al volcado en curso y ven el delta una sola vez")
+    void checkpoint_lecturasNoEsperanAlVolcado() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pendingReportDeltas.add(message(1L, "user-001", TransactionType.INCOME, "10.00", LocalDate.of(2026, 1, 3)),
+                outcome -> { });
+        ExecutorService checkpointer = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> checkpoint = checkpointer.submit(() -> pendingReportDeltas.checkpoint(messages -> {
+                flushing.countDown();
+                awaitUninterruptibly(release);
+                reportService.applyTransactions(messages);
+            }, reportService::updateReport));
+            assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> assertTotals(
+                    reportService.getTotalsByPeriodRange("user-001", "2026-01", "2026-12"), "10.00", "0.00", "10.00"));
+
+            release.countDown();
+            assertEquals(1, checkpoint.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            checkpointer.shutdownNow();
+        }
+        assertTotals(reportService.getTotalsByPeriodRange("user-001", "2026-01", "2026-12"), "10.00", "0.00", "10.00");
+        assertTotals(reportService.getReport("user-001", "2026-01"), "10.00", "0.00", "10.00");
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertTotals(ReportResponse report, String income, String expense, String balance) {
+        assertEquals(0, new BigDecimal(income).compareTo(report.totalIncome()), "totalIncome");
+        assertEquals(0, new BigDecimal(expense).compareTo(report.totalExpense()), "totalExpense");
+        assertEquals(0, new BigDecimal(balance).compareTo(report.balance()), "balance");
+    }
+
+    private static void assertTotals(ReportSummary summary, String income, String expense, String balance) {
+        assertEquals(0, new BigDecimal(income).compareTo(summary.totalIncome()), "totalIncome");
+        assertEquals(0, new BigDecimal(expense).compareTo(summary.totalExpense()), "totalExpense");
+        assertEquals(0, new BigDecimal(balance).compareTo(summary.balance()), "balance");
+    }
+
+    private static TransactionMessage message(Long id, String userId, TransactionType type, String amount, LocalDate date) {
+        return new TransactionMessage(id, userId, type, new BigDecimal(amount), date, "General", null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.microservice.report.repository;
+
+import com.microservice.report.dto.ReportResponse;
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.model.Report;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ReportRepositoryTest {
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        reportRepository.save(report("user-001", "2026-01", "1000.00", "400.00"));
+        reportRepository.save(report("user-001", "2026-02", "1200.00", "1500.00"));
+        reportRepository.save(report("user-001", "2026-03", "900.00", "100.00"));
+        reportRepository.save(report("user-002", "2026-02", "50.00", "10.00"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findResponseByUserIdAndPeriod — proyecta el reporte sin cargar la entidad")
+    void findResponseByUserIdAndPeriod_devuelveProyeccionSinEntidadGestionada() {
+        ReportResponse response = reportRepository.findResponseByUserIdAndPeriod("user-001", "2026-02")
+                .orElseThrow();
+
+        assertEquals(new BigDecimal("-300.00"), response.balance());
+        assertNotNull(response.updatedAt());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+                "La proyección no debe cargar entidades Report en el contexto de persistencia");
+    }
+
+    @Test
+    @DisplayName("findResponsesByUserId — pagina y ordena la proyección por período")
+    void findResponsesByUserId_paginaYOrdena() {
+        Page<ReportResponse> page = reportRepository.findResponsesByUserId("user-001",
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "period")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("2026-03", "2026-02"), page.getContent().stream().map(ReportResponse::period).toList());
+    }
+
+    @Test
+    @DisplayName("findResponsesByUserIdAndPeriodBetween — filtra el rango en orden ascendente")
+    void findResponsesByUserIdAndPeriodBetween_filtraRango() {
+        List<ReportResponse> reports = reportRepository.findResponsesByUserIdAndPeriodBetween(
+                "user-001", "2026-02", "2026-03");
+
+        assertEquals(List.of("2026-02", "2026-03"), reports.stream().map(ReportResponse::period).toList());
+    }
+
+    @Test
+    @DisplayName("sumTotalsByUserIdAndPeriodBetween — agrega el rango en BD y devuelve cero si está vacío")
+    void sumTotalsByUserIdAndPeriodBetween_agregaEnBd() {
+        ReportTotals totals = reportRepository.sumTotalsByUserIdAndPeriodBetween("user-001", "2026-01", "2026-02");
+        ReportTotals empty = reportRepository.sumTotalsByUserIdAndPeriodBetween("user-001", "2030-01", "2030-12");
+
+        assertEquals(0, new BigDecimal("2200.00").compareTo(totals.totalIncome()));
+        assertEquals(0, new BigDecimal("1900.00").compareTo(totals.totalExpense()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(empty.totalIncome()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(empty.totalExpense()));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private Report report(String userId, String period, String income, String expense) {
+        BigDecimal totalIncome = new BigDecimal(income);
+        BigDecimal totalExpense = new BigDecimal(expense);
+        return Report.builder()
+                .userId(userId)
+                .period(period)
+                .totalIncome(totalIncome)
+                .totalExpense(totalExpense)
+                .balance(totalIncome.subtract(totalExpense))
+                .build();
+    }
+}
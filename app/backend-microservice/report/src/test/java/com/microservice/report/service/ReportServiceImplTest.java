@@ -3,6 +3,7 @@ package com.microservice.report.service;
 import com.microservice.report.exception.ReportNotFoundException;
 import com.microservice.report.model.Report;
 import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.impl.ReportReadCache;
 import com.microservice.report.service.impl.ReportServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -26,6 +28,15 @@ class ReportServiceImplTest {
     @Mock
     private ReportRepository reportRepository;
 
+    @Mock
+    private ReportReadCache readCache;
+
+    @Mock
+    private ReportRollupService reportRollupService;
+
+    @Mock
+    private ReportCumulativeService reportCumulativeService;
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
@@ -41,6 +52,8 @@ class ReportServiceImplTest {
         mockReport.setReportId(1L);
         mockReport.setUserId(userId);
         mockReport.setPeriod(period);
+        mockReport.setTotalIncome(new BigDecimal("100.00"));
+        mockReport.setTotalExpense(new BigDecimal("40.00"));
     }
 
     @Test
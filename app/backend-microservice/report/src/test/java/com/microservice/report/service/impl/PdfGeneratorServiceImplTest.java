@@ -0,0 +1,280 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.model.Report;
+import com.microservice.report.template.ReportPdfTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class PdfGeneratorServiceImplTest {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final int PAGES = 40;
+
+    @Test
+    @DisplayName("writePdf — el heap retenido durante la generación no crece con el tamaño del documento")
+    void writePdf_heapPlanoAlCrecerElDocumento() {
+        Measurement small = measure(600);
+        Measurement large = measure(4_800);
+        log.info("small: {} bytes, peak heap +{} bytes; large: {} bytes, peak heap +{} bytes",
+                small.documentBytes(), small.peakHeapBytes(), large.documentBytes(), large.peakHeapBytes());
+
+        long documentGrowth = large.documentBytes() - small.documentBytes();
+        assertTrue(documentGrowth > 5_000_000, "El documento grande debe pesar varios MB");
+        assertTrue(large.peakHeapBytes() - small.peakHeapBytes() < documentGrowth / 4,
+                "El heap retenido no debe crecer con el documento");
+    }
+
+    @Test
+    @DisplayName("writeStatementPdf — tabla resumen con totales del rango y una página de detalle por período, en orden")
+    void writeStatementPdf_resumenYDetalleEnOrden() throws IOException {
+        PdfGeneratorServiceImpl service = new PdfGeneratorServiceImpl(new ReportPdfTemplate(),
+                DataSize.ofMegabytes(1), 4);
+
+        try (PDDocument pdf = Loader.loadPDF(statement(service, months(2025, 12)))) {
+            assertEquals(1 + 12, pdf.getNumberOfPages());
+            String summary = text(pdf, 1, 1);
+            assertTrue(summary.contains("Estado de Cuenta"));
+            assertTrue(summary.contains("2025-01 a 2025-12"));
+            assertTrue(summary.contains("Total $12,000.00 $3,000.00 $9,000.00"), summary);
+            for (int month = 1; month <= 12; month++) {
+                assertTrue(text(pdf, 1 + month, 1 + month).contains("Período: " + YearMonth.of(2025, month)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("writeStatementPdf — si las filas no caben, la tabla continúa en otra página antes de los detalles")
+    void writeStatementPdf_tablaMultipagina() throws IOException {
+        PdfGeneratorServiceImpl service = new PdfGeneratorServiceImpl(new ReportPdfTemplate(),
+                DataSize.ofMegabytes(1), 4);
+        List<Report> reports = months(2023, 36);
+
+        try (PDDocument pdf = Loader.loadPDF(statement(service, reports))) {
+            int summaryPages = pdf.getNumberOfPages() - reports.size();
+            assertEquals(2, summaryPages);
+            String continuation = text(pdf, 2, 2);
+            assertTrue(continuation.contains("Período Ingresos Gastos Balance"), "Cabecera repetida");
+            assertTrue(continuation.contains("2025-12"));
+            assertTrue(continuation.contains("Total $36,000.00"));
+            assertTrue(text(pdf, 3, 3).contains("Período: 2023-01"));
+        }
+    }
+
+    @Test
+    @DisplayName("writeStatementPdf — los detalles de los períodos se renderizan en paralelo")
+    void writeStatementPdf_detallesEnParalelo() {
+        ConcurrentTemplate template = new ConcurrentTemplate(4);
+        PdfGeneratorServiceImpl service = new PdfGeneratorServiceImpl(template, DataSize.ofMegabytes(1), 4);
+
+        statement(service, months(2025, 12));
+
+        log.info("12-period statement rendered with up to {} periods at once", template.maxConcurrent.get());
+        assertTrue(template.allStartedTogether, "Los 4 hilos deben renderizar a la vez");
+        assertEquals(4, template.maxConcurrent.get(), "Nunca más renderizados simultáneos que hilos");
+    }
+
+    private static byte[] statement(PdfGeneratorServiceImpl service, List<Report> reports) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        service.writeStatementPdf(reports, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static List<Report> months(int year, int count) {
+        List<Report> reports = new ArrayList<>(count);
+        YearMonth period = YearMonth.of(year, 1);
+        for (int i = 0; i < count; i++, period = period.plusMonths(1)) {
+            reports.add(Report.builder().reportId((long) i + 1).userId("user-001").period(period.toString())
+                    .totalIncome(new BigDecimal("1000.00")).totalExpense(new BigDecimal("250.00"))
+                    .balance(new BigDecimal("750.00")).build());
+        }
+        return reports;
+    }
+
+    private static String text(PDDocument pdf, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(pdf).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Genera un documento de {@value #PAGES} páginas con {@code linesPerPage} líneas cada una
+     * y muestrea el heap retenido (tras GC) al terminar de renderizar y cada 512 KB escritos.
+     *
+     * <p>El número de páginas es fijo porque PDFBox mantiene en memoria el árbol de páginas
+     * (unos KB por página, sin su contenido); lo que debe quedar fuera del heap es el
+     * contenido, que es lo que hace crecer el documento.</p>
+     */
+    private static Measurement measure(int linesPerPage) {
+        HeapSampler sampler = new HeapSampler();
+        PdfGeneratorServiceImpl service = new PdfGeneratorServiceImpl(new PagedTemplate(linesPerPage, sampler),
+                DataSize.ofMegabytes(1), 1);
+        CountingSink sink = new CountingSink(sampler);
+
+        sampler.start();
+        service.writePdf(Report.builder().reportId(1L).userId("user-001").period("2026-01")
+                .totalIncome(BigDecimal.TEN).totalExpense(BigDecimal.ONE).balance(BigDecimal.valueOf(9))
+                .build(), sink);
+        sampler.sample();
+
+        return new Measurement(sink.written, sampler.peak - sampler.baseline);
+    }
+
+    private record Measurement(long documentBytes, long peakHeapBytes) {
+    }
+
+    private static final class HeapSampler {
+        private long baseline;
+        private long peak;
+
+        void start() {
+            baseline = usedAfterGc();
+            peak = baseline;
+        }
+
+        void sample() {
+            peak = Math.max(peak, usedAfterGc());
+        }
+
+        private static long usedAfterGc() {
+            System.gc();
+            return MEMORY.getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    /**
+     * Descarta lo escrito, como un socket, y muestrea el heap mientras PDFBox serializa.
+     */
+    private static final class CountingSink extends OutputStream {
+        private static final long SAMPLE_EVERY = 512 * 1024;
+
+        private final HeapSampler sampler;
+        private long written;
+        private long nextSample = SAMPLE_EVERY;
+
+        CountingSink(HeapSampler sampler) {
+            this.sampler = sampler;
+        }
+
+        @Override
+        public void write(int b) {
+            advance(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            advance(len);
+        }
+
+        private void advance(int len) {
+            written += len;
+            if (written >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                sampler.sample();
+            }
+        }
+    }
+
+    /**
+     * Plantilla de prueba: {@value #PAGES} páginas de cifras poco comprimibles.
+     */
+    private static final class PagedTemplate extends ReportPdfTemplate {
+        private static final int DIGITS_PER_LINE = 100;
+
+        private final int linesPerPage;
+        private final HeapSampler sampler;
+        private final PDType1Font font = new PDType1Font(Standard14Fonts.FontName.COURIER);
+
+        PagedTemplate(int linesPerPage, HeapSampler sampler) {
+            this.linesPerPage = linesPerPage;
+            this.sampler = sampler;
+        }
+
+        @Override
+        public void render(PDDocument document, Report report) throws IOException {
+            Random random = new Random(linesPerPage);
+            StringBuilder line = new StringBuilder(DIGITS_PER_LINE);
+            for (int p = 0; p < PAGES; p++) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 1f);
+                    content.newLineAtOffset(20f, 780f);
+                    for (int l = 0; l < linesPerPage; l++) {
+                        line.setLength(0);
+                        for (int d = 0; d < DIGITS_PER_LINE; d++) {
+                            line.append((char) ('0' + random.nextInt(10)));
+                        }
+                        content.showText(line.toString());
+                        content.newLineAtOffset(0f, -1.2f);
+                    }
+                    content.endText();
+                }
+            }
+            sampler.sample();
+        }
+    }
+
+    /**
+     * Plantilla de prueba que cuenta los detalles renderizados a la vez. Los primeros
+     * {@code parallelism} esperan a estar todos en curso antes de seguir, así que solo
+     * terminan sin agotar la espera si el servicio los lanza en paralelo.
+     */
+    private static final class ConcurrentTemplate extends ReportPdfTemplate {
+        private final CountDownLatch started;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private volatile boolean allStartedTogether = true;
+
+        ConcurrentTemplate(int parallelism) {
+            this.started = new CountDownLatch(parallelism);
+        }
+
+        @Override
+        public void render(PDDocument document, Report report) throws IOException {
+            maxConcurrent.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                if (started.getCount() > 0) {
+                    started.countDown();
+                    if (!started.await(10, TimeUnit.SECONDS)) {
+                        allStartedTogether = false;
+                    }
+                }
+                super.render(document, report);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.dto.PdfJobResponse;
+import com.microservice.report.exception.PdfGenerationException;
+import com.microservice.report.exception.PdfJobNotReadyException;
+import com.microservice.report.exception.PdfJobQueueFullException;
+import com.microservice.report.exception.ReportNotFoundException;
+import com.microservice.report.model.PdfJobStatus;
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.PdfGeneratorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PdfJobServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReportRepository reportRepository = mock(ReportRepository.class);
+    private final PdfGeneratorService pdfGeneratorService = mock(PdfGeneratorService.class);
+    private PdfJobServiceImpl service;
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("submit — renderiza en el pool, deja el PDF en caché y registra el tiempo de renderizado")
+    void submit_completaYMideElRenderizado() throws Exception {
+        service = newService(2, 10);
+        Report report = report("2026-01");
+        when(reportRepository.findByUserIdAndPeriod("user-001", "2026-01")).thenReturn(Optional.of(report));
+
+        PdfJobResponse submitted = service.submit("user-001", "2026-01");
+        PdfJobResponse finished = awaitFinished("user-001", submitted.jobId());
+
+        assertEquals(PdfJobStatus.PENDING, submitted.status());
+        assertEquals(PdfJobStatus.COMPLETED, finished.status());
+        assertNotNull(finished.completedAt());
+        assertSame(report, service.getResult("user-001", submitted.jobId()));
+        verify(pdfGeneratorService).writePdf(eq(report), any());
+        assertEquals(1, meterRegistry.get("reports.pdf.jobs.render").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("reports.pdf.jobs.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("submit — con los hilos ocupados y la cola llena rechaza con PdfJobQueueFullException")
+    void submit_colaLlenaRechaza() throws Exception {
+        service = newService(1, 1);
+        when(reportRepository.findByUserIdAndPeriod(eq("user-001"), anyString()))
+                .thenAnswer(invocation -> Optional.of(report(invocation.getArgument(1))));
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            rendering.countDown();
+            release.await();
+            return null;
+        }).when(pdfGeneratorService).writePdf(any(), any());
+
+        PdfJobResponse running = service.submit("user-001", "2026-01");
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        service.submit("user-001", "2026-02");
+
+        PdfJobQueueFullException rejected = assertThrows(PdfJobQueueFullException.class,
+                () -> service.submit("user-001", "2026-03"));
+        assertEquals(Duration.ofSeconds(5), rejected.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("reports.pdf.jobs.queue").gauge().value());
+        assertEquals(1.0, meterRegistry.get("reports.pdf.jobs.active").gauge().value());
+        assertEquals(1.0, meterRegistry.get("reports.pdf.jobs.rejected").counter().count());
+        assertThrows(PdfJobNotReadyException.class, () -> service.getResult("user-001", running.jobId()));
+
+        release.countDown();
+        assertEquals(PdfJobStatus.COMPLETED, awaitFinished("user-001", running.jobId()).status());
+    }
+
+    @Test
+    @DisplayName("getStatus — un trabajo en cola no caduca aunque supere la retención de los terminados")
+    void getStatus_trabajoEnColaNoCaduca() throws Exception {
+        service = newService(1, 10, Duration.ofMillis(1));
+        when(reportRepository.findByUserIdAndPeriod(eq("user-001"), anyString()))
+                .thenAnswer(invocation -> Optional.of(report(invocation.getArgument(1))));
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            rendering.countDown();
+            release.await();
+            return null;
+        }).when(pdfGeneratorService).writePdf(any(), any());
+
+        PdfJobResponse running = service.submit("user-001", "2026-01");
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        PdfJobResponse queued = service.submit("user-001", "2026-02");
+        Thread.sleep(50);
+
+        try {
+            assertEquals(PdfJobStatus.RUNNING, service.getStatus("user-001", running.jobId()).status());
+            assertEquals(PdfJobStatus.PENDING, service.getStatus("user-001", queued.jobId()).status());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("getStatus — un trabajo de otro usuario o inexistente responde como no encontrado")
+    void getStatus_trabajoAjenoNoSeExpone() throws Exception {
+        service = newService(1, 10);
+        when(reportRepository.findByUserIdAndPeriod("user-001", "2026-01")).thenReturn(Optional.of(report("2026-01")));
+        PdfJobResponse job = service.submit("user-001", "2026-01");
+        awaitFinished("user-001", job.jobId());
+
+        assertThrows(ReportNotFoundException.class, () -> service.getStatus("user-002", job.jobId()));
+        assertThrows(ReportNotFoundException.class, () -> service.getResult("user-002", job.jobId()));
+        assertThrows(ReportNotFoundException.class, () -> service.getStatus("user-001", "missing"));
+    }
+
+    @Test
+    @DisplayName("getResult — si la generación falla, el trabajo queda FAILED y la descarga lanza PdfGenerationException")
+    void getResult_trabajoFallido() throws Exception {
+        service = newService(1, 10);
+        when(reportRepository.findByUserIdAndPeriod("user-001", "2026-01")).thenReturn(Optional.of(report("2026-01")));
+        doThrow(new PdfGenerationException("No fue posible generar el PDF. Inténtalo de nuevo más tarde."))
+                .when(pdfGeneratorService).writePdf(any(), any());
+
+        PdfJobResponse job = service.submit("user-001", "2026-01");
+        PdfJobResponse finished = awaitFinished("user-001", job.jobId());
+
+        assertEquals(PdfJobStatus.FAILED, finished.status());
+        assertTrue(finished.message().contains("No fue posible generar el PDF"));
+        assertThrows(PdfGenerationException.class, () -> service.getResult("user-001", job.jobId()));
+        assertEquals(1, meterRegistry.get("reports.pdf.jobs.render").tag("outcome", "failure").timer().count());
+    }
+
+    private PdfJobServiceImpl newService(int workers, int queueCapacity) {
+        return newService(workers, queueCapacity, Duration.ofMinutes(15));
+    }
+
+    private PdfJobServiceImpl newService(int workers, int queueCapacity, Duration retention) {
+        ReportPdfCache cache = new ReportPdfCache(meterRegistry, DataSize.ofMegabytes(1), DataSize.ofKilobytes(256),
+                directory);
+        return new PdfJobServiceImpl(reportRepository, pdfGeneratorService, cache, meterRegistry,
+                workers, queueCapacity, retention, Duration.ofSeconds(5));
+    }
+
+    private PdfJobResponse awaitFinished(String userId, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            PdfJobResponse job = service.getStatus(userId, jobId);
+            if (job.status() == PdfJobStatus.COMPLETED || job.status() == PdfJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("PDF job did not finish in time");
+        return null;
+    }
+
+    private static Report report(String period) {
+        return Report.builder()
+                .reportId((long) period.hashCode() & 0xffff)
+                .userId("user-001")
+                .period(period)
+                .totalIncome(BigDecimal.TEN)
+                .totalExpense(BigDecimal.ONE)
+                .balance(BigDecimal.valueOf(9))
+                .updatedAt(OffsetDateTime.parse("2026-01-31T10:15:30Z"))
+                .build();
+    }
+}
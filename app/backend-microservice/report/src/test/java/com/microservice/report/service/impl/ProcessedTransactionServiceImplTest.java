@@ -0,0 +1,94 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.model.ProcessedTransaction;
+import com.microservice.report.repository.ProcessedTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProcessedTransactionServiceImplTest {
+    @Autowired
+    private ProcessedTransactionRepository processedTransactionRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProcessedTransactionServiceImpl processedTransactionService;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        processedTransactionRepository.deleteAllInBatch();
+        processedTransactionService = new ProcessedTransactionServiceImpl(processedTransactionRepository, 3, 1_000);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("markProcessed — tras el commit, la reentrega se resuelve en memoria sin consultar la tabla")
+    void markProcessed_reentregaResueltaEnMemoria() {
+        assertTrue(mark(7L));
+
+        // Si la caché no respondiera, el INSERT IGNORE volvería a devolver 1 tras vaciar la tabla
+        processedTransactionRepository.deleteAllInBatch();
+
+        assertFalse(mark(7L));
+        assertEquals(0, processedTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("markProcessed — sin caché (otra instancia), la tabla detecta la reentrega")
+    void markProcessed_reentregaDetectadaPorLaTabla() {
+        assertTrue(mark(8L));
+
+        ProcessedTransactionServiceImpl otherInstance =
+                new ProcessedTransactionServiceImpl(processedTransactionRepository, 3, 1_000);
+        Boolean firstTime = transactionTemplate.execute(status -> otherInstance.markProcessed(8L, "user-001", "2026-01"));
+
+        assertEquals(Boolean.FALSE, firstTime);
+    }
+
+    @Test
+    @DisplayName("pruneExpired — elimina solo ids de períodos antiguos procesados fuera de la ventana")
+    void pruneExpired_eliminaPorPeriodo() {
+        YearMonth now = YearMonth.now();
+        OffsetDateTime longAgo = OffsetDateTime.now().minusYears(1);
+        save(1L, now.minusMonths(12), longAgo);
+        save(2L, now.minusMonths(1), longAgo);
+        save(3L, now.minusMonths(12), OffsetDateTime.now());
+
+        int deleted = transactionTemplate.execute(status -> processedTransactionService.pruneExpired());
+
+        assertEquals(1, deleted);
+        assertFalse(processedTransactionRepository.existsById(1L));
+        assertTrue(processedTransactionRepository.existsById(2L));
+        assertTrue(processedTransactionRepository.existsById(3L), "Una transacción antigua registrada hoy sigue protegida");
+    }
+
+    private boolean mark(Long transactionId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> processedTransactionService.markProcessed(transactionId, "user-001", "2026-01")));
+    }
+
+    private void save(Long transactionId, YearMonth period, OffsetDateTime processedAt) {
+        processedTransactionRepository.save(ProcessedTransaction.builder()
+                .transactionId(transactionId)
+                .userId("user-001")
+                .period(period.toString())
+                .processedAt(processedAt)
+                .build());
+    }
+}
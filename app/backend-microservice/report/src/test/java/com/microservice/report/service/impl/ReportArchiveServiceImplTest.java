@@ -0,0 +1,126 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.PdfGeneratorService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReportArchiveServiceImplTest {
+
+    private static final List<String> PERIODS = List.of("2025-01", "2025-02", "2025-03", "2025-04", "2025-05");
+
+    private final ReportRepository reportRepository = mock(ReportRepository.class);
+    private final PdfGeneratorService pdfGeneratorService = mock(PdfGeneratorService.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ReportArchiveServiceImpl service =
+            new ReportArchiveServiceImpl(reportRepository, pdfGeneratorService, entityManager, 2);
+
+    @Test
+    @DisplayName("writePdfArchive — un PDF por período, en orden, leyendo los reportes por páginas")
+    void writePdfArchive_unaEntradaPorPeriodo() throws IOException {
+        stubPages();
+        doAnswer(invocation -> write(invocation.getArgument(1),
+                "%PDF-" + ((Report) invocation.getArgument(0)).getPeriod()))
+                .when(pdfGeneratorService).writePdf(any(), any());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        int written = service.writePdfArchive("user-001", outputStream);
+
+        assertEquals(5, written);
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                names.add(entry.getName());
+                String period = entry.getName().substring("reporte-".length(), "reporte-".length() + 7);
+                assertEquals("%PDF-" + period, new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(PERIODS.stream().map(period -> "reporte-" + period + ".pdf").toList(), names);
+        verify(reportRepository, times(3)).findByUserId(eq("user-001"), any());
+    }
+
+    @Test
+    @DisplayName("writePdfArchive — escribe cada página antes de pedir la siguiente y vacía el contexto de persistencia")
+    void writePdfArchive_streamingPorPaginas() throws IOException {
+        stubPages();
+        CountingSink sink = new CountingSink();
+        List<Long> writtenBeforeQuery = new ArrayList<>();
+        when(reportRepository.findByUserId(eq("user-001"), any())).thenAnswer(invocation -> {
+            writtenBeforeQuery.add(sink.written);
+            return page(invocation.getArgument(1));
+        });
+        doAnswer(invocation -> write(invocation.getArgument(1), "%PDF-".repeat(1_000)))
+                .when(pdfGeneratorService).writePdf(any(), any());
+
+        service.writePdfArchive("user-001", sink);
+
+        assertEquals(0L, writtenBeforeQuery.get(0));
+        assertTrue(writtenBeforeQuery.get(1) > 0, "La primera página ya está en la respuesta");
+        assertTrue(writtenBeforeQuery.get(2) > writtenBeforeQuery.get(1));
+        InOrder inOrder = inOrder(reportRepository, entityManager);
+        for (int i = 0; i < 3; i++) {
+            inOrder.verify(reportRepository).findByUserId(eq("user-001"), any());
+            inOrder.verify(entityManager).clear();
+        }
+    }
+
+    private void stubPages() {
+        when(reportRepository.findByUserId(eq("user-001"), any()))
+                .thenAnswer(invocation -> page(invocation.getArgument(1)));
+    }
+
+    private static Page<Report> page(Pageable pageable) {
+        int from = (int) pageable.getOffset();
+        List<Report> content = PERIODS.subList(from, Math.min(from + pageable.getPageSize(), PERIODS.size()))
+                .stream()
+                .map(period -> Report.builder().reportId((long) period.hashCode()).userId("user-001")
+                        .period(period).build())
+                .toList();
+        return new PageImpl<>(content, pageable, PERIODS.size());
+    }
+
+    private static Object write(OutputStream outputStream, String content) {
+        try {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private static final class CountingSink extends OutputStream {
+        private long written;
+
+        @Override
+        public void write(int b) {
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.model.DataMigration;
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.DataMigrationRepository;
+import com.microservice.report.repository.ReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la migración única de sumas acumuladas contra H2 en modo MySQL.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportCumulativeMigrationTest {
+
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private DataMigrationRepository dataMigrationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private DataMigrations dataMigrations;
+    private ReportCumulativeServiceImpl cumulative;
+
+    @BeforeEach
+    void setUp() {
+        reportRepository.deleteAllInBatch();
+        dataMigrationRepository.deleteAllInBatch();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        dataMigrations = new DataMigrations(dataMigrationRepository, transactionTemplate, Duration.ofMinutes(5));
+        cumulative = new ReportCumulativeServiceImpl(reportRepository, dataMigrations);
+        // Reportes anteriores a las columnas de acumulados: cumulative_* = 0
+        legacyReport("user-001", "2026-01", "100.00", "40.00");
+        legacyReport("user-001", "2026-02", "50.00", "10.00");
+        legacyReport("user-002", "2026-01", "7.00", "0.00");
+    }
+
+    @Test
+    @DisplayName("run — calcula los acumulados por usuario una sola vez y queda registrada como completada")
+    void run_unaSolaVez() {
+        assertTrue(migration().run());
+
+        assertCumulative("user-001", "2026-02", "150.00", "50.00");
+        assertCumulative("user-002", "2026-01", "7.00", "0.00");
+        assertTrue(dataMigrationRepository.existsByNameAndCompletedAtIsNotNull(ReportCumulativeMigration.NAME));
+
+        legacyReport("user-003", "2026-01", "9.00", "0.00");
+        assertFalse(migration().run(), "Completada: los siguientes arranques no recorren reports");
+        assertCumulative("user-003", "2026-01", "0.00", "0.00");
+    }
+
+    @Test
+    @DisplayName("run — no se ejecuta mientras otra instancia tiene el lease, y la retoma cuando vence")
+    void run_respetaElLeaseDeOtraInstancia() {
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(ReportCumulativeMigration.NAME).lockedUntil(OffsetDateTime.now().plusHours(1)).build());
+
+        assertFalse(migration().run());
+        assertCumulative("user-001", "2026-02", "0.00", "0.00");
+
+        DataMigration expired = dataMigrationRepository.findById(ReportCumulativeMigration.NAME).orElseThrow();
+        expired.setLockedUntil(OffsetDateTime.now().minusMinutes(1));
+        dataMigrationRepository.save(expired);
+
+        assertTrue(migration().run());
+        assertCumulative("user-001", "2026-02", "150.00", "50.00");
+    }
+
+    @Test
+    @DisplayName("totalsAsOf/sumRange — hasta que la migración termina suman los totales en lugar de leer acumulados a cero")
+    void lecturas_antesDeCompletar_sumanTotales() {
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(ReportCumulativeMigration.NAME).lockedUntil(OffsetDateTime.now().plusHours(1)).build());
+        assertFalse(migration().run());
+
+        assertTotals(cumulative.totalsAsOf("user-001", "2026-02"), "150.00", "50.00");
+        assertTotals(cumulative.sumRange("user-001", "2026-02", "2026-12"), "50.00", "10.00");
+        assertCumulative("user-001", "2026-02", "0.00", "0.00");
+
+        DataMigration expired = dataMigrationRepository.findById(ReportCumulativeMigration.NAME).orElseThrow();
+        expired.setLockedUntil(OffsetDateTime.now().minusMinutes(1));
+        dataMigrationRepository.save(expired);
+        assertTrue(migration().run());
+
+        // Completada: el flag queda en memoria y las lecturas pasan a los acumulados
+        dataMigrationRepository.deleteAllInBatch();
+        assertTrue(dataMigrations.isCompleted(ReportCumulativeMigration.NAME));
+        assertTotals(cumulative.sumRange("user-001", "2026-02", "2026-12"), "50.00", "10.00");
+        assertTotals(cumulative.totalsAsOf("user-002", "2026-01"), "7.00", "0.00");
+    }
+
+    @Test
+    @DisplayName("sumRange — un rango invertido suma cero en lugar de totales negativos")
+    void sumRange_rangoInvertido_sumaCero() {
+        assertTrue(migration().run());
+
+        assertTotals(cumulative.sumRange("user-001", "2026-02", "2026-01"), "0.00", "0.00");
+        assertTotals(cumulative.sumRange("user-001", "2026-12", "2026-01"), "0.00", "0.00");
+    }
+
+    private ReportCumulativeMigration migration() {
+        return new ReportCumulativeMigration(dataMigrations, reportRepository, cumulative, transactionTemplate,
+                new ReportWriteRetrier(new SimpleMeterRegistry(), 3, Duration.ZERO, Duration.ZERO));
+    }
+
+    private void legacyReport(String userId, String period, String income, String expense) {
+        reportRepository.save(Report.builder().userId(userId).period(period)
+                .totalIncome(new BigDecimal(income)).totalExpense(new BigDecimal(expense))
+                .balance(new BigDecimal(income).subtract(new BigDecimal(expense))).build());
+    }
+
+    private void assertCumulative(String userId, String period, String income, String expense) {
+        Report report = reportRepository.findByUserIdAndPeriod(userId, period).orElseThrow();
+        assertEquals(0, new BigDecimal(income).compareTo(report.getCumulativeIncome()), "cumulativeIncome");
+        assertEquals(0, new BigDecimal(expense).compareTo(report.getCumulativeExpense()), "cumulativeExpense");
+    }
+
+    private void assertTotals(ReportTotals totals, String income, String expense) {
+        assertEquals(0, new BigDecimal(income).compareTo(totals.totalIncome()), "totalIncome");
+        assertEquals(0, new BigDecimal(expense).compareTo(totals.totalExpense()), "totalExpense");
+    }
+}
@@ -0,0 +1,217 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.model.Report;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportPdfCacheTest {
+
+    private static final OffsetDateTime UPDATED_AT = OffsetDateTime.parse("2026-01-31T10:15:30.123456Z");
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    @DisplayName("get — la misma versión del reporte se renderiza una sola vez")
+    void get_mismaVersionSeRenderizaUnaVez() {
+        ReportPdfCache cache = newCache();
+
+        byte[] first = bytes(cache.get(report(1L, UPDATED_AT), this::render));
+        byte[] second = bytes(cache.get(report(1L, UPDATED_AT), this::render));
+
+        assertEquals(1, renders.get());
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("get — tras reiniciar (memoria vacía) se sirve desde el nivel de disco")
+    void get_nivelDeDiscoSobreviveAlReinicio() {
+        byte[] rendered = bytes(newCache().get(report(1L, UPDATED_AT), this::render));
+
+        byte[] restored = bytes(newCache().get(report(1L, UPDATED_AT), this::render));
+
+        assertEquals(1, renders.get());
+        assertArrayEquals(rendered, restored);
+    }
+
+    @Test
+    @DisplayName("get — una versión nueva del reporte se renderiza y reemplaza en disco a la anterior")
+    void get_versionNuevaReemplazaALaAnterior() throws IOException {
+        ReportPdfCache cache = newCache();
+        cache.get(report(1L, UPDATED_AT), this::render);
+        cache.get(report(2L, UPDATED_AT), this::render);
+
+        byte[] updated = bytes(cache.get(report(1L, UPDATED_AT.plusSeconds(60)), this::render));
+
+        assertEquals(3, renders.get());
+        assertEquals("pdf-3", new String(updated, StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).sorted().toList();
+            assertEquals(2, names.size(), "Un archivo por reporte: " + names);
+            assertTrue(names.stream().anyMatch(name -> name.startsWith("2-")));
+        }
+    }
+
+    @Test
+    @DisplayName("get — un PDF mayor que el máximo por entrada se copia desde disco aunque lo reemplace una versión nueva")
+    void get_pdfGrandeSeSirveDesdeDisco() {
+        ReportPdfCache cache = new ReportPdfCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1),
+                DataSize.ofBytes(2), directory);
+        ReportPdfCache.CachedPdf old = cache.get(report(1L, UPDATED_AT), this::render);
+        assertEquals(5, old.size(), "Tamaño conocido para Content-Length");
+
+        cache.get(report(1L, UPDATED_AT.plusSeconds(60)), this::render);
+
+        assertEquals("pdf-1", new String(bytes(old), StandardCharsets.UTF_8));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("get — sin directorio utilizable renderiza directamente sobre la respuesta")
+    void get_sinDiscoRenderizaDirecto() throws IOException {
+        Path notADirectory = Files.writeString(directory.resolve("occupied"), "x");
+        ReportPdfCache cache = new ReportPdfCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(256), notADirectory.resolve("pdf"));
+
+        ReportPdfCache.CachedPdf pdf = cache.get(report(1L, UPDATED_AT), this::render);
+
+        assertEquals(-1, pdf.size());
+        assertEquals(0, renders.get(), "Se genera al escribir la respuesta");
+        assertEquals("pdf-1", new String(bytes(pdf), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("get — un renderizado lento no bloquea otras claves y las peticiones de su clave esperan a uno solo")
+    void get_renderizadoLentoNoBloqueaOtrasClaves() throws Exception {
+        ReportPdfCache cache = newCache();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BiConsumer<Report, OutputStream> slow = (report, outputStream) -> {
+            rendering.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            render(report, outputStream);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<byte[]> first = executor.submit(() -> bytes(cache.get(report(1L, UPDATED_AT), slow)));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            Future<byte[]> second = executor.submit(() -> bytes(cache.get(report(1L, UPDATED_AT), slow)));
+
+            byte[] other = executor.submit(() -> bytes(cache.get(report(2L, UPDATED_AT), this::render)))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("pdf-1", new String(other, StandardCharsets.UTF_8));
+            assertFalse(second.isDone(), "Espera al renderizado en curso de su clave");
+
+            release.countDown();
+            assertArrayEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(2, renders.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("sweep — borra los archivos caducados y, de los más antiguos, los que exceden el tamaño máximo")
+    void sweep_borraCaducadosYExcesoDeTamano() throws IOException {
+        ReportPdfCache cache = new ReportPdfCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(256), directory, DataSize.ofBytes(25), Duration.ofDays(7));
+        Instant now = Instant.now();
+        Path expired = cachedFile("1-1-0.pdf", 5, now.minus(Duration.ofDays(8)));
+        Path oldest = cachedFile("2-1-0.pdf", 10, now.minus(Duration.ofDays(3)));
+        Path older = cachedFile("3-1-0.pdf", 10, now.minus(Duration.ofDays(2)));
+        Path newest = cachedFile("4-1-0.pdf", 10, now.minus(Duration.ofDays(1)));
+
+        assertEquals(2, cache.sweep());
+
+        assertFalse(Files.exists(expired), "Más antiguo que disk-max-age");
+        assertFalse(Files.exists(oldest), "El más antiguo de los que exceden disk-max-size");
+        assertTrue(Files.exists(older));
+        assertTrue(Files.exists(newest));
+    }
+
+    @Test
+    @DisplayName("etag — cambia con updatedAt y es un validador débil")
+    void etag_cambiaConLaVersion() {
+        String etag = ReportPdfCache.etag(report(1L, UPDATED_AT));
+
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(etag, ReportPdfCache.etag(report(1L, UPDATED_AT)));
+        assertNotEquals(etag, ReportPdfCache.etag(report(1L, UPDATED_AT.plusNanos(1_000))));
+        assertNotEquals(etag, ReportPdfCache.etag(report(2L, UPDATED_AT)));
+    }
+
+    private Path cachedFile(String name, int size, Instant lastModified) throws IOException {
+        Path path = Files.write(directory.resolve(name), new byte[size]);
+        Files.setLastModifiedTime(path, FileTime.from(lastModified));
+        return path;
+    }
+
+    private ReportPdfCache newCache() {
+        return new ReportPdfCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1), DataSize.ofKilobytes(256),
+                directory);
+    }
+
+    private void render(Report report, OutputStream outputStream) {
+        try {
+            outputStream.write(("pdf-" + renders.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] bytes(ReportPdfCache.CachedPdf pdf) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            pdf.writeTo(outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Report report(Long reportId, OffsetDateTime updatedAt) {
+        return Report.builder()
+                .reportId(reportId)
+                .userId("user-001")
+                .period("2026-01")
+                .totalIncome(BigDecimal.TEN)
+                .totalExpense(BigDecimal.ONE)
+                .balance(BigDecimal.valueOf(9))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.dto.ReportResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportReadCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReportReadCache cache = new ReportReadCache(meterRegistry, 1_000, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("report — la segunda lectura es un acierto y se publica en las métricas de Micrometer")
+    void report_aciertoYMetricas() {
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "reports.by-period").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "reports.by-period").tag("result", "miss")
+                .functionCounter().count());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", "reports.by-period").functionCounter());
+    }
+
+    @Test
+    @DisplayName("invalidate — solo invalida el período escrito, y las páginas y rangos de ese usuario")
+    void invalidate_precisoPorUsuarioYPeriodo() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+        cache.report("user-001", "2026-02", () -> load("2026-02"));
+        cache.report("user-002", "2026-01", () -> load("2026-01"));
+        cache.page("user-001", pageable, this::loadPage);
+        cache.range("user-001", "2026-01", "2026-12", this::loadRange);
+        cache.range("user-002", "2026-01", "2026-12", this::loadRange);
+        loads.set(0);
+
+        cache.invalidate("user-001", "2026-01");
+
+        cache.report("user-001", "2026-02", () -> load("2026-02"));
+        cache.report("user-002", "2026-01", () -> load("2026-01"));
+        cache.range("user-002", "2026-01", "2026-12", this::loadRange);
+        assertEquals(0, loads.get(), "Lecturas no afectadas por la escritura");
+
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+        cache.page("user-001", pageable, this::loadPage);
+        cache.range("user-001", "2026-01", "2026-12", this::loadRange);
+        assertEquals(3, loads.get(), "Lecturas afectadas por la escritura");
+    }
+
+    @Test
+    @DisplayName("invalidate — dentro de una transacción se aplica tras el commit y no tras un rollback")
+    void invalidate_trasElCommit() {
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("user-001", "2026-01");
+            cache.report("user-001", "2026-01", () -> load("2026-01"));
+            assertEquals(1, loads.get(), "Antes del commit se sigue sirviendo la versión confirmada");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("invalidate — una carga que leyó la BD antes de la invalidación no se vuelve a servir")
+    void invalidate_cargaConcurrenteNoQuedaVigente() {
+        cache.report("user-001", "2026-01", () -> {
+            // Una escritura confirma mientras esta lectura ya tiene el valor viejo
+            cache.invalidate("user-001", "2026-01");
+            return load("2026-01");
+        });
+
+        cache.report("user-001", "2026-01", () -> load("2026-01"));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<ReportResponse> load(String period) {
+        loads.incrementAndGet();
+        return Optional.of(new ReportResponse(1L, "user-001", period, BigDecimal.TEN, BigDecimal.ONE,
+                BigDecimal.valueOf(9), null, null));
+    }
+
+    private Page<ReportResponse> loadPage() {
+        return new PageImpl<>(List.of(load("2026-01").orElseThrow()));
+    }
+
+    private List<ReportResponse> loadRange() {
+        return List.of(load("2026-01").orElseThrow());
+    }
+}
@@ -0,0 +1,118 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.model.DataMigration;
+import com.microservice.report.model.Report;
+import com.microservice.report.model.ReportRollup;
+import com.microservice.report.model.RollupGranularity;
+import com.microservice.report.repository.DataMigrationRepository;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.repository.ReportRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la activación opcional de rollups y de su reconstrucción, contra H2 en modo MySQL.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportRollupMigrationTest {
+
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private ReportRollupRepository reportRollupRepository;
+    @Autowired
+    private DataMigrationRepository dataMigrationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private DataMigrations dataMigrations;
+
+    @BeforeEach
+    void setUp() {
+        reportRepository.deleteAllInBatch();
+        reportRollupRepository.deleteAllInBatch();
+        dataMigrationRepository.deleteAllInBatch();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        dataMigrations = new DataMigrations(dataMigrationRepository, transactionTemplate, Duration.ofMinutes(5));
+        for (int month = 1; month <= 12; month++) {
+            report("user-001", "2024-%02d".formatted(month), "10.00", "1.00");
+        }
+    }
+
+    @Test
+    @DisplayName("prefix-sum — no mantiene rollups y deja pendiente la reconstrucción para una futura activación")
+    void prefixSum_noMantieneRollups() {
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(ReportRollupMigration.NAME).completedAt(OffsetDateTime.now()).build());
+        ReportRollupServiceImpl service = service("prefix-sum");
+
+        transactionTemplate.executeWithoutResult(status ->
+                service.applyDelta("user-001", "2024-03", new BigDecimal("5.00"), BigDecimal.ZERO));
+        migration(service).afterSingletonsInstantiated();
+
+        assertEquals(0, reportRollupRepository.count());
+        assertFalse(dataMigrationRepository.existsById(ReportRollupMigration.NAME));
+        assertFalse(migration(service).run());
+    }
+
+    @Test
+    @DisplayName("rollup — suma desde reports hasta la reconstrucción, que corrige rollups desfasados")
+    void rollup_reconstruyeYDespuesLeeRollups() {
+        // Rollups de un despliegue anterior: desfasados y con un año que ya no tiene reportes
+        rollup(RollupGranularity.YEAR, "2024", "50.00");
+        rollup(RollupGranularity.YEAR, "2023", "999.00");
+        ReportRollupServiceImpl service = service(ReportRollupServiceImpl.STRATEGY);
+
+        assertTotals(service.sumRange("user-001", "2023-01", "2024-12"), "120.00", "12.00");
+
+        assertTrue(migration(service).run());
+
+        assertTotals(service.sumRange("user-001", "2023-01", "2024-12"), "120.00", "12.00");
+        assertTotals(service.sumRange("user-001", "2024-04", "2024-06"), "30.00", "3.00");
+        assertFalse(migration(service).run(), "Completada: no vuelve a recorrer reports");
+    }
+
+    private ReportRollupServiceImpl service(String strategy) {
+        return new ReportRollupServiceImpl(reportRollupRepository, reportRepository, dataMigrations, strategy);
+    }
+
+    private ReportRollupMigration migration(ReportRollupServiceImpl service) {
+        return new ReportRollupMigration(dataMigrations, service, transactionTemplate,
+                new ReportWriteRetrier(new SimpleMeterRegistry(), 3, Duration.ZERO, Duration.ZERO));
+    }
+
+    private void report(String userId, String period, String income, String expense) {
+        reportRepository.save(Report.builder().userId(userId).period(period)
+                .totalIncome(new BigDecimal(income)).totalExpense(new BigDecimal(expense))
+                .balance(new BigDecimal(income).subtract(new BigDecimal(expense))).build());
+    }
+
+    private void rollup(RollupGranularity granularity, String bucket, String income) {
+        reportRollupRepository.save(ReportRollup.builder().userId("user-001").granularity(granularity).bucket(bucket)
+                .totalIncome(new BigDecimal(income)).totalExpense(BigDecimal.ZERO).updatedAt(OffsetDateTime.now()).build());
+    }
+
+    private static void assertTotals(ReportTotals totals, String income, String expense) {
+        assertEquals(0, new BigDecimal(income).compareTo(totals.totalIncome()), "totalIncome");
+        assertEquals(0, new BigDecimal(expense).compareTo(totals.totalExpense()), "totalExpense");
+    }
+}
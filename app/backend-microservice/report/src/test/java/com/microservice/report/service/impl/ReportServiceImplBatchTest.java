@@ -0,0 +1,475 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.dto.BalanceResponse;
+import com.microservice.report.dto.ReportResponse;
+import com.microservice.report.dto.ReportSummary;
+import com.microservice.report.dto.ReportTotals;
+import com.microservice.report.exception.ReportNotFoundException;
+import com.microservice.report.infrastructure.dto.TransactionMessage;
+import com.microservice.report.infrastructure.dto.TransactionType;
+import com.microservice.report.model.DataMigration;
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.DataMigrationRepository;
+import com.microservice.report.repository.ProcessedTransactionRepository;
+import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.repository.ReportRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests de la escritura de totales ({@link ReportServiceImpl#updateReport} y el modo batch
+ * {@link ReportServiceImpl#applyTransactions}) contra H2 en modo MySQL.
+ *
+ * <p>Cada invocación se ejecuta en su propia transacción (como lo haría el listener),
+ * por eso la clase desactiva la transacción envolvente de {@code @DataJpaTest}.</p>
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportServiceImplBatchTest {
+
+    private static final String[] USERS = {"user-001", "user-002", "user-003", "user-004", "user-005"};
+    private static final LocalDate[] DATES = {
+            LocalDate.of(2026, 1, 10), LocalDate.of(2026, 2, 10), LocalDate.of(2026, 3, 10)};
+
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private ProcessedTransactionRepository processedTransactionRepository;
+    @Autowired
+    private ReportRollupRepository reportRollupRepository;
+    @Autowired
+    private DataMigrationRepository dataMigrationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReportServiceImpl reportService;
+    private TransactionTemplate transactionTemplate;
+    private DataMigrations dataMigrations;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        reset();
+    }
+
+    private void reset() {
+        reportRepository.deleteAllInBatch();
+        processedTransactionRepository.deleteAllInBatch();
+        reportRollupRepository.deleteAllInBatch();
+        dataMigrationRepository.deleteAllInBatch();
+        // Instalación nueva: no hay reportes anteriores a las columnas de acumulados
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(ReportCumulativeMigration.NAME).completedAt(OffsetDateTime.now()).build());
+        dataMigrations = new DataMigrations(dataMigrationRepository, transactionTemplate, Duration.ofMinutes(5));
+        reportService = newReportService(reportRepository);
+    }
+
+    private ReportServiceImpl newReportService(ReportRepository repository) {
+        return new ReportServiceImpl(repository,
+                new ProcessedTransactionServiceImpl(processedTransactionRepository, 3, 10_000),
+                transactionTemplate,
+                new ReportWriteRetrier(meterRegistry, 5, Duration.ofMillis(5), Duration.ofMillis(50)),
+                new PendingReportDeltas(),
+                new ReportReadCache(meterRegistry, 1_000, Duration.ofMinutes(5)),
+                newReportRollupService(repository),
+                new ReportCumulativeServiceImpl(repository, dataMigrations));
+    }
+
+    private ReportRollupServiceImpl newReportRollupService(ReportRepository repository) {
+        return new ReportRollupServiceImpl(reportRollupRepository, repository, dataMigrations,
+                ReportRollupServiceImpl.STRATEGY);
+    }
+
+    @Test
+    @DisplayName("applyTransactions — coalesce por (userId, period) y crea reportes inexistentes con los totales del lote")
+    void applyTransactions_coalescePorUsuarioYPeriodo() {
+        reportRepository.save(Report.builder()
+                .userId("user-001").period("2026-01")
+                .totalIncome(new BigDecimal("100.00")).totalExpense(BigDecimal.ZERO).balance(new BigDecimal("100.00"))
+                .build());
+
+        List<TransactionMessage> batch = List.of(
+                message(1L, "user-001", TransactionType.INCOME, "50.00", LocalDate.of(2026, 1, 3)),
+                message(2L, "user-001", TransactionType.EXPENSE, "30.00", LocalDate.of(2026, 1, 20)),
+                message(3L, "user-002", TransactionType.EXPENSE, "10.00", LocalDate.of(2026, 1, 5)),
+                message(4L, "user-001", TransactionType.INCOME, "25.00", LocalDate.of(2026, 2, 1)),
+                message(5L, "user-001", TransactionType.EXPENSE, "5.00", LocalDate.of(2026, 1, 31)));
+
+        reportService.applyTransactions(batch);
+
+        Map<String, Report> reports = reportsByKey();
+        assertEquals(3, reports.size());
+        assertReport(reports.get("user-001|2026-01"), "150.00", "35.00", "115.00");
+        assertReport(reports.get("user-002|2026-01"), "0.00", "10.00", "-10.00");
+        assertReport(reports.get("user-001|2026-02"), "25.00", "0.00", "25.00");
+    }
+
+    @Test
+    @DisplayName("applyTransactions — descarta mensajes inválidos sin perder el resto del lote")
+    void applyTransactions_descartaMensajesInvalidos() {
+        List<TransactionMessage> batch = new ArrayList<>();
+        batch.add(message(1L, "user-001", TransactionType.INCOME, "40.00", LocalDate.of(2026, 1, 3)));
+        batch.add(message(2L, " ", TransactionType.INCOME, "99.00", LocalDate.of(2026, 1, 3)));
+        batch.add(message(3L, "user-001", null, "99.00", LocalDate.of(2026, 1, 3)));
+        batch.add(message(4L, "user-001", TransactionType.EXPENSE, "15.00", LocalDate.of(2026, 1, 4)));
+
+        reportService.applyTransactions(batch);
+
+        assertReport(reportsByKey().get("user-001|2026-01"), "40.00", "15.00", "25.00");
+    }
+
+    @Test
+    @DisplayName("updateReport — una reentrega del mismo transactionId no vuelve a sumar")
+    void updateReport_reentregaNoDuplicaTotales() {
+        TransactionMessage message = message(42L, "user-001", TransactionType.INCOME, "80.00", LocalDate.of(2026, 1, 3));
+
+        for (int delivery = 0; delivery < 3; delivery++) {
+            reportService.updateReport(message);
+        }
+
+        assertReport(reportsByKey().get("user-001|2026-01"), "80.00", "0.00", "80.00");
+        assertEquals(1, processedTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("updateReport — si la transacción de BD se revierte, el id no queda registrado y el reintento suma")
+    void updateReport_rollbackNoRegistraElId() {
+        TransactionMessage message = message(43L, "user-001", TransactionType.EXPENSE, "20.00", LocalDate.of(2026, 1, 3));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reportService.updateReport(message);
+            status.setRollbackOnly();
+        });
+        reportService.updateReport(message);
+
+        assertReport(reportsByKey().get("user-001|2026-01"), "0.00", "20.00", "-20.00");
+    }
+
+    @Test
+    @DisplayName("getReport — sirve desde caché y refleja cada escritura confirmada")
+    void getReport_cacheInvalidadaTrasEscritura() {
+        reportService.updateReport(message(1L, "user-001", TransactionType.INCOME, "10.00", LocalDate.of(2026, 1, 3)));
+        ReportResponse first = reportService.getReport("user-001", "2026-01");
+        assertSame(first, reportService.getReport("user-001", "2026-01"));
+        assertEquals(0, new BigDecimal("10.00").compareTo(
+                reportService.getReportsByPeriodRange("user-001", "2026-01", "2026-03").totalIncome()));
+
+        reportService.applyTransactions(List.of(
+                message(2L, "user-001", TransactionType.INCOME, "5.00", LocalDate.of(2026, 1, 4))));
+        assertEquals(0, new BigDecimal("15.00").compareTo(reportService.getReport("user-001", "2026-01").totalIncome()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(
+                reportService.getReportsByPeriodRange("user-001", "2026-01", "2026-03").totalIncome()));
+
+        transactionTemplate.executeWithoutResult(status -> reportService.deleteReport("user-001", "2026-01"));
+        assertThrows(ReportNotFoundException.class, () -> reportService.getReport("user-001", "2026-01"));
+    }
+
+    @Test
+    @DisplayName("getTotalsByPeriodRange — el SUM() en BD coincide con el resumen con desglose, sin la lista")
+    void getTotalsByPeriodRange_coincideConResumenCompleto() {
+        List<TransactionMessage> batch = new ArrayList<>();
+        long id = 1;
+        for (LocalDate date = LocalDate.of(2016, 1, 15); date.getYear() < 2026; date = date.plusMonths(1)) {
+            batch.add(message(id++, "user-001", TransactionType.INCOME, "100.10", date));
+            batch.add(message(id++, "user-001", TransactionType.EXPENSE, "40.05", date));
+        }
+        batch.add(message(id, "user-002", TransactionType.INCOME, "999.00", LocalDate.of(2020, 1, 1)));
+        reportService.applyTransactions(batch);
+
+        ReportSummary full = reportService.getReportsByPeriodRange("user-001", "2016-01", "2025-12");
+        ReportSummary totals = reportService.getTotalsByPeriodRange("user-001", "2016-01", "2025-12");
+
+        assertEquals(120, full.reports().size());
+        assertTrue(totals.reports().isEmpty());
+        assertEquals(0, full.totalIncome().compareTo(totals.totalIncome()));
+        assertEquals(0, full.totalExpense().compareTo(totals.totalExpense()));
+        assertEquals(0, new BigDecimal("7206.00").compareTo(totals.balance()));
+    }
+
+    @Test
+    @DisplayName("rollups — se mantienen con escrituras y borrados, coinciden con los meses y con una reconstrucción")
+    void rollups_consistentesConReportesMensuales() {
+        List<TransactionMessage> batch = new ArrayList<>();
+        long id = 1;
+        for (LocalDate date = LocalDate.of(2018, 3, 7); date.isBefore(LocalDate.of(2026, 5, 1)); date = date.plusDays(23)) {
+            batch.add(message(id++, "user-001", id % 3 == 0 ? TransactionType.EXPENSE : TransactionType.INCOME,
+                    String.valueOf(id % 97 + 0.25), date));
+        }
+        reportService.applyTransactions(batch.subList(0, batch.size() / 2));
+        for (TransactionMessage message : batch.subList(batch.size() / 2, batch.size())) {
+            reportService.updateReport(message);
+        }
+        // Sin proxy de Spring: la transacción de @Transactional la abre el test
+        Long reportId = reportRepository.findByUserIdAndPeriod("user-001", "2019-12").orElseThrow().getReportId();
+        transactionTemplate.executeWithoutResult(status -> {
+            reportService.deleteReport("user-001", "2021-06");
+            reportService.deleteReportById("user-001", reportId);
+        });
+
+        String[][] ranges = {{"2018-01", "2026-12"}, {"2018-04", "2025-08"}, {"2019-11", "2021-07"}, {"2021-06", "2021-06"}};
+        for (String[] range : ranges) {
+            ReportSummary expected = reportService.getReportsByPeriodRange("user-001", range[0], range[1]);
+            ReportSummary actual = reportService.getTotalsByPeriodRange("user-001", range[0], range[1]);
+            assertEquals(0, expected.totalIncome().compareTo(actual.totalIncome()), range[0] + ".." + range[1]);
+            assertEquals(0, expected.totalExpense().compareTo(actual.totalExpense()), range[0] + ".." + range[1]);
+        }
+
+        Map<String, BigDecimal> maintained = rollupIncomeByBucket();
+        reportRollupRepository.deleteAllInBatch();
+        transactionTemplate.execute(status -> newReportRollupService(reportRepository).rebuild());
+        Map<String, BigDecimal> rebuilt = rollupIncomeByBucket();
+        assertEquals(rebuilt.keySet(), maintained.keySet());
+        rebuilt.forEach((bucket, income) -> assertEquals(0, income.compareTo(maintained.get(bucket)), bucket));
+    }
+
+    @Test
+    @DisplayName("sumas acumuladas — transacciones con fecha pasada y borrados mantienen rangos y balance a fecha")
+    void sumasAcumuladas_consistentesConEscriturasRetroactivas() {
+        long id = 1;
+        // Primero el presente y después meses pasados, en orden inverso: cada escritura desplaza las posteriores
+        for (LocalDate date = LocalDate.of(2026, 4, 20); date.isAfter(LocalDate.of(2019, 1, 1)); date = date.minusDays(41)) {
+            reportService.updateReport(message(id++, "user-001", TransactionType.INCOME, "10.50", date));
+            reportService.updateReport(message(id++, "user-001", TransactionType.EXPENSE, String.valueOf(id % 13 + 1), date));
+        }
+        reportService.updateReport(message(id++, "user-002", TransactionType.INCOME, "500.00", LocalDate.of(2020, 6, 1)));
+        reportService.applyTransactions(List.of(
+                message(id++, "user-001", TransactionType.INCOME, "7.00", LocalDate.of(2019, 2, 1)),
+                message(id, "user-001", TransactionType.EXPENSE, "3.00", LocalDate.of(2023, 8, 1))));
+        transactionTemplate.executeWithoutResult(status -> reportService.deleteReport("user-001",
+                reportRepository.findResponsesByUserIdAndPeriodBetween("user-001", "2022-01", "2022-12").get(0).period()));
+
+        ReportCumulativeServiceImpl cumulative = new ReportCumulativeServiceImpl(reportRepository, dataMigrations);
+        String[][] ranges = {{"2019-01", "2026-12"}, {"2019-03", "2024-02"}, {"2022-01", "2022-12"}, {"2030-01", "2030-12"}};
+        for (String[] range : ranges) {
+            ReportSummary expected = reportService.getReportsByPeriodRange("user-001", range[0], range[1]);
+            ReportTotals actual = cumulative.sumRange("user-001", range[0], range[1]);
+            assertEquals(0, expected.totalIncome().compareTo(actual.totalIncome()), range[0] + ".." + range[1]);
+            assertEquals(0, expected.totalExpense().compareTo(actual.totalExpense()), range[0] + ".." + range[1]);
+        }
+        ReportSummary history = reportService.getReportsByPeriodRange("user-001", "0000-01", "2024-05");
+        BalanceResponse balance = reportService.getBalanceAsOf("user-001", "2024-05");
+        assertEquals(0, history.balance().compareTo(balance.balance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(reportService.getBalanceAsOf("user-001", "2018-12").balance()));
+
+        Map<String, BigDecimal> maintained = cumulativeIncomeByKey();
+        transactionTemplate.execute(status -> cumulative.rebuild("user-001") + cumulative.rebuild("user-002"));
+        assertEquals(maintained, cumulativeIncomeByKey());
+    }
+
+    @Test
+    @DisplayName("applyTransactions — ignora ids repetidos en el lote y los ya procesados en lotes previos")
+    void applyTransactions_ignoraDuplicados() {
+        TransactionMessage first = message(1L, "user-001", TransactionType.INCOME, "10.00", LocalDate.of(2026, 1, 3));
+        TransactionMessage second = message(2L, "user-001", TransactionType.INCOME, "5.00", LocalDate.of(2026, 1, 4));
+
+        reportService.applyTransactions(List.of(first, first));
+        reportService.applyTransactions(List.of(first, second));
+
+        assertReport(reportsByKey().get("user-001|2026-01"), "15.00", "0.00", "15.00");
+    }
+
+    @Test
+    @DisplayName("updateReport — consumidores concurrentes no pierden actualizaciones ni duplican el reporte")
+    void updateReport_concurrenteSinActualizacionesPerdidas() throws Exception {
+        int threads = 8;
+        int perThread = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    TransactionMessage message = message((long) offset + i, "user-001",
+                            i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE, "1.50",
+                            LocalDate.of(2026, 4, 1));
+                    reportService.updateReport(message);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Map<String, Report> reports = reportsByKey();
+        assertEquals(1, reports.size());
+        assertReport(reports.get("user-001|2026-04"), "600.00", "600.00", "0.00");
+    }
+
+    @Test
+    @DisplayName("recalculateReport — un upsert concurrente entre lectura y guardado provoca conflicto de versión y reintento")
+    void recalculateReport_reintentaTrasConflictoDeVersion() {
+        reportService.updateReport(message(1L, "user-001", TransactionType.INCOME, "100.00", LocalDate.of(2026, 6, 1)));
+
+        // Tras la primera lectura del recálculo, otro escritor suma un gasto y sube la versión
+        ReportRepository racingRepository = mock(ReportRepository.class, delegatesTo(reportRepository));
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Object report = reportRepository.findByUserIdAndPeriod("user-001", "2026-06");
+            if (raced.compareAndSet(false, true)) {
+                TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+                concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                concurrent.executeWithoutResult(status -> reportRepository.upsertTotals(
+                        "user-001", "2026-06", BigDecimal.ZERO, new BigDecimal("40.00"), OffsetDateTime.now()));
+            }
+            return report;
+        }).when(racingRepository).findByUserIdAndPeriod("user-001", "2026-06");
+
+        ReportResponse response = newReportService(racingRepository).recalculateReport("user-001", "2026-06");
+
+        assertEquals(0, new BigDecimal("60.00").compareTo(response.balance()), "El recálculo usa los totales releídos");
+        assertReport(reportsByKey().get("user-001|2026-06"), "100.00", "40.00", "60.00");
+        assertEquals(1.0, meterRegistry.counter("report.write.conflicts", "operation", "recalculate").count());
+        assertEquals(1.0, meterRegistry.counter("report.write.retries", "operation", "recalculate").count());
+    }
+
+    @Test
+    @DisplayName("reports — la restricción única impide dos filas para el mismo (userId, period)")
+    void reports_restriccionUnicaPorUsuarioYPeriodo() {
+        reportRepository.save(emptyReport("user-001", "2026-05"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reportRepository.save(emptyReport("user-001", "2026-05")));
+    }
+
+    @Test
+    @DisplayName("applyTransactions — cualquier tamaño de lote deja los mismos totales que updateReport")
+    void applyTransactions_mismosTotalesQueUpdateReport() {
+        compareWithSingle(workload(300), new int[]{1, 7, 50, 1000});
+    }
+
+    /**
+     * Benchmark de rendimiento; excluido por defecto, se ejecuta con {@code mvn test -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("applyTransactions — mensajes/segundo según tamaño de lote, con los mismos totales que updateReport")
+    void applyTransactions_throughputSegunTamanoDeLote() {
+        compareWithSingle(workload(6_000), new int[]{1, 10, 50, 200, 1000});
+    }
+
+    /**
+     * Aplica los mensajes uno a uno y luego en lotes de cada tamaño, comprobando que los
+     * reportes resultantes coinciden y registrando los mensajes por segundo de cada modo.
+     */
+    private void compareWithSingle(List<TransactionMessage> messages, int[] batchSizes) {
+        long start = System.nanoTime();
+        for (TransactionMessage message : messages) {
+            reportService.updateReport(message);
+        }
+        double singleRate = messagesPerSecond(messages.size(), System.nanoTime() - start);
+        Map<String, Report> expected = reportsByKey();
+        log.info("mode=single messages={} msg/s={}", messages.size(), Math.round(singleRate));
+
+        for (int batchSize : batchSizes) {
+            reset();
+            start = System.nanoTime();
+            for (int from = 0; from < messages.size(); from += batchSize) {
+                List<TransactionMessage> batch = messages.subList(from, Math.min(from + batchSize, messages.size()));
+                reportService.applyTransactions(batch);
+            }
+            double batchRate = messagesPerSecond(messages.size(), System.nanoTime() - start);
+            log.info("mode=batch batchSize={} messages={} msg/s={} speedup={}x", batchSize, messages.size(),
+                    Math.round(batchRate), String.format("%.1f", batchRate / singleRate));
+
+            Map<String, Report> actual = reportsByKey();
+            assertEquals(expected.keySet(), actual.keySet());
+            expected.forEach((key, report) -> assertReport(actual.get(key),
+                    report.getTotalIncome().toPlainString(),
+                    report.getTotalExpense().toPlainString(),
+                    report.getBalance().toPlainString()));
+        }
+    }
+
+    private List<TransactionMessage> workload(int size) {
+        List<TransactionMessage> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+            messages.add(message((long) i, USERS[i % USERS.length], type,
+                    BigDecimal.valueOf(1 + i % 97) + ".25", DATES[(i / USERS.length) % DATES.length]));
+        }
+        return messages;
+    }
+
+    private static double messagesPerSecond(int messages, long nanos) {
+        return messages / (nanos / 1_000_000_000.0);
+    }
+
+    private Map<String, BigDecimal> cumulativeIncomeByKey() {
+        return reportRepository.findAll().stream()
+                .collect(Collectors.toMap(r -> r.getUserId() + "|" + r.getPeriod(),
+                        r -> r.getCumulativeIncome().stripTrailingZeros()));
+    }
+
+    private Map<String, BigDecimal> rollupIncomeByBucket() {
+        return reportRollupRepository.findAll().stream()
+                .collect(Collectors.toMap(r -> r.getGranularity() + "|" + r.getBucket(), r -> r.getTotalIncome()));
+    }
+
+    private Map<String, Report> reportsByKey() {
+        return reportRepository.findAll().stream()
+                .collect(Collectors.toMap(r -> r.getUserId() + "|" + r.getPeriod(), Function.identity(),
+                        (a, b) -> { throw new IllegalStateException("Duplicate report " + a.getUserId()); },
+                        LinkedHashMap::new));
+    }
+
+    private static Report emptyReport(String userId, String period) {
+        return Report.builder()
+                .userId(userId).period(period)
+                .totalIncome(BigDecimal.ZERO).totalExpense(BigDecimal.ZERO).balance(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static void assertReport(Report report, String income, String expense, String balance) {
+        assertNotNull(report);
+        assertEquals(0, new BigDecimal(income).compareTo(report.getTotalIncome()), "totalIncome");
+        assertEquals(0, new BigDecimal(expense).compareTo(report.getTotalExpense()), "totalExpense");
+        assertEquals(0, new BigDecimal(balance).compareTo(report.getBalance()), "balance");
+    }
+
+    private static TransactionMessage message(Long id, String userId, TransactionType type, String amount, LocalDate date) {
+        return new TransactionMessage(id, userId, type, new BigDecimal(amount), date, "General", null);
+    }
+}
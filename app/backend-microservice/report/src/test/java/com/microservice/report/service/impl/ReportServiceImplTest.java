@@ -14,9 +14,18 @@ import com.microservice.report.infrastructure.dto.TransactionType;
 import com.microservice.report.mapper.ReportMapper;
 import com.microservice.report.model.Report;
 import com.microservice.report.repository.ReportRepository;
+import com.microservice.report.service.ProcessedTransactionService;
+import com.microservice.report.service.ReportCumulativeService;
+import com.microservice.report.service.ReportRollupService;
 import com.microservice.report.service.ReportService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -55,12 +64,27 @@ class ReportServiceImplTest {
     @Mock
     private ReportRepository reportRepository;
 
+    @Mock
+    private ProcessedTransactionService processedTransactionService;
+
+    @Mock
+    private ReportRollupService reportRollupService;
+
+    @Mock
+    private ReportCumulativeService reportCumulativeService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private ReportService reportService;
 
     @BeforeEach
     void setUp() {
         // Crear instancia del servicio con repositorio mockeado
-        reportService = new ReportServiceImpl(reportRepository);
+        reportService = new ReportServiceImpl(reportRepository, processedTransactionService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new ReportWriteRetrier(meterRegistry, 3, Duration.ZERO, Duration.ZERO), new PendingReportDeltas(),
+                new ReportReadCache(meterRegistry, 1_000, Duration.ofMinutes(5)), reportRollupService,
+                reportCumulativeService);
     }
 
     // ==========================================
@@ -706,4 +730,73 @@ class ReportServiceImplTest {
         verify(reportRepository).findByUserIdAndPeriod(userId, period);
         verify(reportRepository).save(any(Report.class));
     }
+
+    @Test
+    @DisplayName("should retry recalculation on optimistic lock conflict and count the conflict")
+    void shouldRetryRecalculation_OnOptimisticLockConflict() {
+        // Given (Arrange)
+        String userId = "user-950";
+        String period = "2026-03";
+
+        Report report = Report.builder()
+                .reportId(20L)
+                .userId(userId)
+                .period(period)
+                .totalIncome(BigDecimal.valueOf(900))
+                .totalExpense(BigDecimal.valueOf(300))
+                .balance(BigDecimal.ZERO)
+                .version(4L)
+                .build();
+
+        when(reportRepository.findByUserIdAndPeriod(userId, period))
+                .thenReturn(Optional.of(report));
+
+        // Mock: el primer guardado choca con una escritura concurrente
+        when(reportRepository.save(any(Report.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Report.class, 20L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When (Act)
+        ReportResponse response = reportService.recalculateReport(userId, period);
+
+        // Then (Assert)
+        assertEquals(0, response.balance().compareTo(BigDecimal.valueOf(600)));
+        assertEquals(1.0, meterRegistry.counter("report.write.conflicts", "operation", "recalculate").count());
+        assertEquals(1.0, meterRegistry.counter("report.write.retries", "operation", "recalculate").count());
+
+        // Verify: se relee el reporte en el reintento
+        verify(reportRepository, times(2)).findByUserIdAndPeriod(userId, period);
+        verify(reportRepository, times(2)).save(any(Report.class));
+    }
+
+    @Test
+    @DisplayName("should give up after max attempts when conflicts persist")
+    void shouldGiveUp_WhenConflictsPersist() {
+        // Given (Arrange)
+        String userId = "user-951";
+        String period = "2026-03";
+
+        Report report = Report.builder()
+                .reportId(21L)
+                .userId(userId)
+                .period(period)
+                .totalIncome(BigDecimal.TEN)
+                .totalExpense(BigDecimal.ONE)
+                .balance(BigDecimal.ZERO)
+                .build();
+
+        when(reportRepository.findByUserIdAndPeriod(userId, period))
+                .thenReturn(Optional.of(report));
+        when(reportRepository.save(any(Report.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Report.class, 21L));
+
+        // When & Then (Act & Assert)
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> reportService.recalculateReport(userId, period));
+
+        assertEquals(3.0, meterRegistry.counter("report.write.conflicts", "operation", "recalculate").count());
+        assertEquals(2.0, meterRegistry.counter("report.write.retries", "operation", "recalculate").count());
+        assertEquals(1.0, meterRegistry.counter("report.write.failures", "operation", "recalculate").count());
+        verify(reportRepository, times(3)).save(any(Report.class));
+    }
 }
@@ -0,0 +1,124 @@
+package com.microservice.report.service.impl;
+
+import com.microservice.report.model.DataMigration;
+import com.microservice.report.model.Report;
+import com.microservice.report.repository.DataMigrationRepository;
+import com.microservice.report.repository.ReportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la migración que fusiona reportes duplicados y crea
+ * {@code uk_reports_user_period}, contra H2 en modo MySQL.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportUniqueKeyMigrationTest {
+
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private DataMigrationRepository dataMigrationRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+    private DataMigrations dataMigrations;
+
+    @BeforeEach
+    void setUp() {
+        reportRepository.deleteAllInBatch();
+        dataMigrationRepository.deleteAllInBatch();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        dataMigrations = new DataMigrations(dataMigrationRepository, transactionTemplate, Duration.ofMinutes(5));
+        // Tabla creada antes de la restricción
+        jdbcTemplate.execute("alter table reports drop constraint " + ReportRepository.UNIQUE_KEY_NAME);
+    }
+
+    @AfterEach
+    void restoreUniqueKey() {
+        reportRepository.deleteAllInBatch();
+        if (!reportRepository.hasUniqueUserPeriodKey()) {
+            reportRepository.addUniqueUserPeriodKey();
+        }
+    }
+
+    @Test
+    @DisplayName("run — fusiona los reportes repetidos por período, recalcula acumulados y crea la clave única")
+    void run_fusionaDuplicadosYCreaLaClave() {
+        assertFalse(reportRepository.hasUniqueUserPeriodKey());
+        Long kept = report("user-001", "2026-01", "100.00", "40.00").getReportId();
+        report("user-001", "2026-01", "20.00", "5.00");
+        report("user-001", "2026-01", "1.00", "0.00");
+        report("user-001", "2026-02", "50.00", "10.00");
+        report("user-002", "2026-01", "7.00", "0.00");
+
+        assertTrue(migration().run());
+
+        assertTrue(reportRepository.hasUniqueUserPeriodKey());
+        assertTrue(dataMigrationRepository.existsByNameAndCompletedAtIsNotNull(ReportUniqueKeyMigration.NAME));
+        List<Report> reports = reports("user-001");
+        assertEquals(2, reports.size());
+        Report january = reports.get(0);
+        assertEquals(kept, january.getReportId());
+        assertAmount("121.00", january.getTotalIncome());
+        assertAmount("45.00", january.getTotalExpense());
+        assertAmount("76.00", january.getBalance());
+        assertAmount("171.00", reports.get(1).getCumulativeIncome());
+        assertAmount("55.00", reports.get(1).getCumulativeExpense());
+        assertEquals(1, reports("user-002").size());
+
+        assertThrows(DataIntegrityViolationException.class, () -> report("user-002", "2026-01", "1.00", "0.00"));
+    }
+
+    @Test
+    @DisplayName("afterSingletonsInstantiated — falla el arranque si la migración consta como completada y falta la clave")
+    void arranque_sinClaveUnicaTrasCompletar_falla() {
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(ReportUniqueKeyMigration.NAME).completedAt(OffsetDateTime.now()).build());
+
+        assertThrows(IllegalStateException.class, () -> migration().afterSingletonsInstantiated());
+    }
+
+    private ReportUniqueKeyMigration migration() {
+        return new ReportUniqueKeyMigration(dataMigrations, reportRepository,
+                new ReportCumulativeServiceImpl(reportRepository, dataMigrations), transactionTemplate,
+                new ReportWriteRetrier(new SimpleMeterRegistry(), 3, Duration.ZERO, Duration.ZERO));
+    }
+
+    private Report report(String userId, String period, String income, String expense) {
+        return reportRepository.save(Report.builder().userId(userId).period(period)
+                .totalIncome(new BigDecimal(income)).totalExpense(new BigDecimal(expense))
+                .balance(new BigDecimal(income).subtract(new BigDecimal(expense))).build());
+    }
+
+    private List<Report> reports(String userId) {
+        return reportRepository.findByUserIdAndPeriodBetweenOrderByPeriodAsc(userId, "0000-01", "9999-12");
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), expected + " != " + actual);
+    }
+}
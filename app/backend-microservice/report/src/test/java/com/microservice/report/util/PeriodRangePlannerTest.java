@@ -0,0 +1,56 @@
+package com.microservice.report.util;
+
+import com.microservice.report.util.PeriodRangePlanner.MonthSpan;
+import com.microservice.report.util.PeriodRangePlanner.Plan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeriodRangePlannerTest {
+
+    @Test
+    @DisplayName("plan — un rango de diez años alineado se cubre solo con rollups anuales")
+    void plan_rangoAlineadoUsaAnios() {
+        Plan plan = PeriodRangePlanner.plan("2016-01", "2025-12");
+
+        assertEquals(10, plan.years().size());
+        assertTrue(plan.quarters().isEmpty());
+        assertTrue(plan.monthSpans().isEmpty());
+    }
+
+    @Test
+    @DisplayName("plan — un rango desalineado usa meses y trimestres solo en los extremos")
+    void plan_rangoDesalineado() {
+        Plan plan = PeriodRangePlanner.plan("2023-02", "2025-11");
+
+        assertEquals(List.of(new MonthSpan("2023-02", "2023-03"), new MonthSpan("2025-10", "2025-11")), plan.monthSpans());
+        assertEquals(List.of("2023-Q2", "2023-Q3", "2023-Q4", "2025-Q1", "2025-Q2", "2025-Q3"), plan.quarters());
+        assertEquals(List.of("2024"), plan.years());
+    }
+
+    @Test
+    @DisplayName("plan — cubre cada mes del rango exactamente una vez")
+    void plan_coberturaExacta() {
+        YearMonth origin = YearMonth.of(2020, 1);
+        for (int from = 0; from < 30; from++) {
+            for (int to = from; to < 40; to++) {
+                YearMonth start = origin.plusMonths(from);
+                YearMonth end = origin.plusMonths(to);
+                Plan plan = PeriodRangePlanner.plan(start.toString(), end.toString());
+
+                int covered = plan.years().size() * 12 + plan.quarters().size() * 3;
+                for (MonthSpan span : plan.monthSpans()) {
+                    covered += YearMonth.parse(span.endPeriod()).getMonthValue()
+                            - YearMonth.parse(span.startPeriod()).getMonthValue() + 1
+                            + 12 * (YearMonth.parse(span.endPeriod()).getYear() - YearMonth.parse(span.startPeriod()).getYear());
+                }
+                assertEquals(to - from + 1, covered, start + ".." + end);
+                assertTrue(plan.monthSpans().size() <= 2, start + ".." + end);
+            }
+        }
+    }
+}
@@ -1,32 +1,67 @@
 package com.microservice.transaction.controller;
 
+import com.microservice.transaction.dto.CursorPage;
+import com.microservice.transaction.dto.ExportFormat;
+import com.microservice.transaction.dto.IdempotentResult;
 import com.microservice.transaction.dto.PaginatedResponse;
+import com.microservice.transaction.dto.TransactionBatchResponse;
+import com.microservice.transaction.dto.TransactionFilter;
 import com.microservice.transaction.dto.TransactionRequest;
 import com.microservice.transaction.dto.TransactionResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 
+import com.microservice.transaction.service.TransactionExportService;
+import com.microservice.transaction.service.TransactionIdempotencyService;
 import com.microservice.transaction.service.TransactionService;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("api/v1/transactions")
 public class TransactionController {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final TransactionService transactionService;
+    private final TransactionIdempotencyService transactionIdempotencyService;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping
-    public ResponseEntity<TransactionResponse> create(@Valid @RequestBody TransactionRequest dto) {
-        TransactionResponse created = transactionService.create(dto);
+    public ResponseEntity<TransactionResponse> create(
+            @Valid @RequestBody TransactionRequest dto,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            TransactionResponse created = transactionService.create(dto);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(created);
+        }
+        IdempotentResult result = transactionIdempotencyService.createOnce(idempotencyKey, dto);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(created);
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<TransactionBatchResponse> createBatch(@RequestBody List<TransactionRequest> dtos) {
+        TransactionBatchResponse result = transactionService.createBatch(dtos);
+        HttpStatus status = result.rejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity
+                .status(status)
+                .body(result);
     }
 
     @GetMapping("/{id}")
@@ -41,4 +76,56 @@ public class TransactionController {
         PaginatedResponse<TransactionResponse> transactions = transactionService.getAll(pageable);
         return ResponseEntity.ok(transactions);
     }
+
+    @GetMapping(params = "userId")
+    public ResponseEntity<PaginatedResponse<TransactionResponse>> getByUser(
+            TransactionFilter filter,
+            @PageableDefault(size = 10, page = 0, sort = "date", direction = Sort.Direction.DESC) Pageable pageable) {
+        PaginatedResponse<TransactionResponse> transactions = transactionService.getByUser(filter, pageable);
+        return ResponseEntity.ok(transactions);
+    }
+
+    /**
+     * Listado por cursor (keyset), ordenado por fecha e id descendentes.
+     *
+     * <p>{@code GET /cursor?size=20} devuelve la primera página; las siguientes se piden
+     * con {@code ?cursor=<nextCursor>} de la respuesta anterior hasta que
+     * {@code hasNext} sea {@code false}. {@code includeTotal=true} añade el total de
+     * filas a costa de un {@code COUNT(*)}.</p>
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<TransactionResponse>> getAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<TransactionResponse> transactions = transactionService.getAllByCursor(cursor, size, includeTotal);
+        return ResponseEntity.ok(transactions);
+    }
+
+    /**
+     * Alias de {@link #getAllByCursor} para los clientes que ya piden {@code ?cursor=}
+     * sobre el listado; un cursor vacío devuelve la primera página.
+     */
+    @GetMapping(params = {"cursor", "!userId"})
+    public ResponseEntity<CursorPage<TransactionResponse>> getAllByCursorParam(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return getAllByCursor(cursor, size, includeTotal);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String userId,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> transactionExportService.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
@@ -0,0 +1,48 @@
+package com.microservice.transaction.controller;
+
+import com.microservice.transaction.dto.ImportJobResponse;
+import com.microservice.transaction.dto.ImportRowError;
+import com.microservice.transaction.dto.PaginatedResponse;
+import com.microservice.transaction.service.TransactionImportService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/transactions/imports")
+public class TransactionImportController {
+    private final TransactionImportService transactionImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> submit(@RequestParam String userId,
+                                                    @RequestParam("file") MultipartFile file) {
+        ImportJobResponse job = transactionImportService.submit(userId, file);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{jobId}")
+                        .buildAndExpand(job.jobId())
+                        .toUri())
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobResponse> getJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(transactionImportService.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<PaginatedResponse<ImportRowError>> getErrors(
+            @PathVariable Long jobId,
+            @PageableDefault(size = 50) Pageable pageable) {
+        return ResponseEntity.ok(transactionImportService.getErrors(jobId, pageable));
+    }
+}
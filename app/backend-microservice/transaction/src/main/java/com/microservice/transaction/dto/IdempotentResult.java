@@ -0,0 +1,6 @@
+package com.microservice.transaction.dto;
+
+public record IdempotentResult(
+        TransactionResponse response,
+        boolean replayed) {
+}
@@ -0,0 +1,26 @@
+package com.microservice.transaction.dto;
+
+import com.microservice.transaction.model.ImportJob;
+import com.microservice.transaction.model.ImportJobError;
+
+public class ImportJobMapper {
+    public static ImportJobResponse toResponse(ImportJob entity) {
+        return new ImportJobResponse(
+                entity.getJobId(),
+                entity.getUserId(),
+                entity.getFileName(),
+                entity.getStatus(),
+                entity.getProcessedRows(),
+                entity.getImportedRows(),
+                entity.getRejectedRows(),
+                entity.getErrorMessage(),
+                entity.getCreatedAt(),
+                entity.getStartedAt(),
+                entity.getFinishedAt()
+        );
+    }
+
+    public static ImportRowError toResponse(ImportJobError entity) {
+        return new ImportRowError(entity.getLineNumber(), entity.getMessage());
+    }
+}
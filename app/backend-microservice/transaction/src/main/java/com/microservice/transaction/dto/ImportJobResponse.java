@@ -0,0 +1,19 @@
+package com.microservice.transaction.dto;
+
+import com.microservice.transaction.model.ImportJobStatus;
+
+import java.time.OffsetDateTime;
+
+public record ImportJobResponse(
+        Long jobId,
+        String userId,
+        String fileName,
+        ImportJobStatus status,
+        long processedRows,
+        long importedRows,
+        long rejectedRows,
+        String errorMessage,
+        OffsetDateTime createdAt,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt) {
+}
@@ -0,0 +1,6 @@
+package com.microservice.transaction.dto;
+
+public record ImportRowError(
+        long lineNumber,
+        String message) {
+}
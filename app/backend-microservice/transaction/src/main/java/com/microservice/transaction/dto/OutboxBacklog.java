@@ -0,0 +1,8 @@
+package com.microservice.transaction.dto;
+
+import java.time.OffsetDateTime;
+
+public record OutboxBacklog(
+        long pending,
+        OffsetDateTime oldestCreatedAt) {
+}
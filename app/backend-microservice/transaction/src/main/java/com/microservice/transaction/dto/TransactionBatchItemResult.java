@@ -0,0 +1,23 @@
+package com.microservice.transaction.dto;
+
+import java.util.List;
+
+public record TransactionBatchItemResult(
+        int index,
+        Status status,
+        Long transactionId,
+        List<String> errors) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static TransactionBatchItemResult created(int index, Long transactionId) {
+        return new TransactionBatchItemResult(index, Status.CREATED, transactionId, List.of());
+    }
+
+    public static TransactionBatchItemResult rejected(int index, List<String> errors) {
+        return new TransactionBatchItemResult(index, Status.REJECTED, null, errors);
+    }
+}
@@ -0,0 +1,10 @@
+package com.microservice.transaction.dto;
+
+import java.util.List;
+
+public record TransactionBatchResponse(
+        int received,
+        int created,
+        int rejected,
+        List<TransactionBatchItemResult> results) {
+}
@@ -0,0 +1,40 @@
+package com.microservice.transaction.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición dentro del listado ordenado por {@code (date DESC, transactionId DESC)}.
+ *
+ * <p>Se expone al cliente como un token opaco (Base64 URL-safe de {@code date|id});
+ * el cliente solo debe devolverlo tal cual para pedir la página siguiente.</p>
+ */
+public record TransactionCursor(LocalDate date, Long transactionId) {
+    private static final char SEPARATOR = '|';
+
+    public static TransactionCursor of(TransactionResponse transaction) {
+        return new TransactionCursor(transaction.date(), transaction.transactionId());
+    }
+
+    public String encode() {
+        String raw = date.toString() + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TransactionCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
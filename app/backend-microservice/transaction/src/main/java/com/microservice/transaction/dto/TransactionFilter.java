@@ -0,0 +1,17 @@
+package com.microservice.transaction.dto;
+
+import com.microservice.transaction.model.TransactionType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record TransactionFilter(
+        String userId,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        TransactionType type,
+        String category,
+        BigDecimal minAmount,
+        BigDecimal maxAmount) {
+}
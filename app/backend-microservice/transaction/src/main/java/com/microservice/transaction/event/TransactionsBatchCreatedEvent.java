@@ -0,0 +1,17 @@
+package com.microservice.transaction.event;
+
+import com.microservice.transaction.model.Transaction;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+@Getter
+public class TransactionsBatchCreatedEvent extends ApplicationEvent {
+    private final List<Transaction> transactions;
+
+    public TransactionsBatchCreatedEvent(Object source, List<Transaction> transactions) {
+        super(source);
+        this.transactions = transactions;
+    }
+}
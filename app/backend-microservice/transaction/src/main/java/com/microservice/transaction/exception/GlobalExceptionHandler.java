@@ -22,6 +22,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<CustomErrorResponse> handleIllegalArgument(IllegalArgumentException ex, HttpServletRequest request) {
+        CustomErrorResponse body = CustomErrorResponse.builder()
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .dateTime(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<CustomErrorResponse> handleIdempotencyConflict(IdempotencyKeyConflictException ex, HttpServletRequest request) {
+        CustomErrorResponse body = CustomErrorResponse.builder()
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .dateTime(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT).body(body);
+    }
+
+    @ExceptionHandler(ImportRejectedException.class)
+    public ResponseEntity<CustomErrorResponse> handleImportRejected(ImportRejectedException ex, HttpServletRequest request) {
+        CustomErrorResponse body = CustomErrorResponse.builder()
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .dateTime(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CustomErrorResponse> handleGeneric(Exception ex, HttpServletRequest request) {
         CustomErrorResponse body = CustomErrorResponse.builder()
@@ -0,0 +1,7 @@
+package com.microservice.transaction.exception;
+
+public class ImportRejectedException extends RuntimeException {
+    public ImportRejectedException(String message) {
+        super(message);
+    }
+}
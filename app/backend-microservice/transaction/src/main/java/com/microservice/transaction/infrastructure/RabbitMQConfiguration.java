@@ -12,6 +12,8 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitMQConfiguration {
+    public static final String TRANSACTION_CREATED_ROUTING_KEY = "transaction.created";
+
     @Value("${rabbitmq.queues.transaction-exchange}")
     private String transactionExchange;
     @Value("${rabbitmq.queues.transaction-created}")
@@ -31,7 +33,7 @@ public class RabbitMQConfiguration {
     public Binding bindingCreated(Queue createdQueue, TopicExchange transactionExchange) {
         return BindingBuilder.bind(createdQueue)
                 .to(transactionExchange)
-                .with("transaction.created");
+                .with(TRANSACTION_CREATED_ROUTING_KEY);
     }
 
     @Bean
@@ -1,30 +1,208 @@
 package com.microservice.transaction.infrastructure;
 
-import com.microservice.transaction.infrastructure.dto.TransactionMessage;
-import com.microservice.transaction.model.Transaction;
-import lombok.RequiredArgsConstructor;
+import com.microservice.transaction.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-@RequiredArgsConstructor
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica los eventos del outbox en {@code transaction-exchange}.
+ *
+ * <p>Cuando la conexión tiene habilitados los <em>publisher confirms</em>
+ * ({@code spring.rabbitmq.publisher-confirm-type=correlated}) publica en modo
+ * pipeline: mantiene hasta {@code max-in-flight} mensajes sin confirmar, cada uno
+ * con su {@link CorrelationData}, y espera las confirmaciones al final del lote en
+ * lugar de hacerlo mensaje a mensaje. Los mensajes rechazados (nack) o sin
+ * confirmar dentro de {@code confirm-timeout} se reintentan hasta
+ * {@code max-attempts} veces; los que siguen sin confirmar se devuelven al outbox.</p>
+ *
+ * <p>Sin confirms, publica en modo fire-and-forget y considera publicado todo el lote.</p>
+ *
+ * <p>Métricas expuestas:</p>
+ * <ul>
+ *   <li>{@code transaction.publisher.confirm.latency} — tiempo entre el envío y la confirmación.</li>
+ *   <li>{@code transaction.publisher.confirms.outstanding} — mensajes en vuelo sin confirmar.</li>
+ *   <li>{@code transaction.publisher.nacks} — mensajes rechazados o sin confirmar a tiempo.</li>
+ *   <li>{@code transaction.publisher.retries} — reenvíos de mensajes no confirmados.</li>
+ * </ul>
+ */
+@Slf4j
 @Service
 public class TransactionMessageProducer {
     private final RabbitTemplate rabbitTemplate;
+    private final String transactionExchange;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration confirmTimeout;
+
+    private final Timer confirmLatency;
+    private final Counter nackCounter;
+    private final Counter retryCounter;
+    private final AtomicInteger outstandingConfirms = new AtomicInteger();
+
+    public TransactionMessageProducer(RabbitTemplate rabbitTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${rabbitmq.queues.transaction-exchange}") String transactionExchange,
+                                      @Value("${app.rabbitmq.publisher.max-in-flight:256}") int maxInFlight,
+                                      @Value("${app.rabbitmq.publisher.max-attempts:3}") int maxAttempts,
+                                      @Value("${app.rabbitmq.publisher.confirm-timeout:5s}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionExchange = transactionExchange;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.confirmTimeout = confirmTimeout;
+
+        this.confirmLatency = Timer.builder("transaction.publisher.confirm.latency")
+                .description("Time between publishing a message and receiving its broker confirm")
+                .register(meterRegistry);
+        this.nackCounter = Counter.builder("transaction.publisher.nacks")
+                .description("Messages nacked or not confirmed in time by the broker")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("transaction.publisher.retries")
+                .description("Messages republished after a nack or confirm timeout")
+                .register(meterRegistry);
+        Gauge.builder("transaction.publisher.confirms.outstanding", outstandingConfirms, AtomicInteger::get)
+                .description("Messages published and still waiting for a broker confirm")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica un lote de eventos del outbox.
+     *
+     * @param events eventos a publicar, en orden
+     * @return los eventos que el broker confirmó; el resto debe permanecer en el outbox
+     */
+    public List<OutboxEvent> publish(List<OutboxEvent> events) {
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxEvent event : events) {
+                    operations.send(transactionExchange, event.getRoutingKey(), toAmqpMessage(event));
+                }
+                return null;
+            });
+            return events;
+        }
+
+        List<OutboxEvent> confirmed = new ArrayList<>(events.size());
+        List<OutboxEvent> pending = events;
+        for (int attempt = 1; attempt <= maxAttempts && !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                retryCounter.increment(pending.size());
+            }
+            List<OutboxEvent> toSend = pending;
+            pending = rabbitTemplate.invoke(operations -> publishAndAwaitConfirms(operations, toSend, confirmed));
+        }
+        if (!pending.isEmpty()) {
+            log.warn("{} outbox events were not confirmed after {} attempts, they stay in the outbox",
+                    pending.size(), maxAttempts);
+        }
+        return confirmed;
+    }
 
-    public void sendCreated(Transaction transaction) {
-        TransactionMessage message = toMessage(transaction);
-        rabbitTemplate.convertAndSend("transaction-exchange", "transaction.created", message);
+    /**
+     * Envía los eventos manteniendo como máximo {@code maxInFlight} confirmaciones
+     * pendientes y espera el resultado de todas. Todo el lote comparte un mismo plazo
+     * de {@code confirmTimeout}: si vence esperando hueco en la ventana, deja de enviar
+     * y devuelve como no confirmados los eventos restantes.
+     *
+     * @return los eventos que no fueron confirmados
+     */
+    private List<OutboxEvent> publishAndAwaitConfirms(RabbitOperations operations, List<OutboxEvent> events,
+                                                      List<OutboxEvent> confirmed) {
+        Semaphore window = new Semaphore(maxInFlight);
+        List<InFlight> inFlight = new ArrayList<>(events.size());
+        List<OutboxEvent> unconfirmed = new ArrayList<>();
+        // Un único plazo para todo el lote: las filas del outbox siguen bloqueadas mientras tanto
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (!acquire(window, deadline)) {
+                // El broker no confirma a tiempo: el resto del lote queda para el siguiente intento
+                unconfirmed.addAll(events.subList(i, events.size()));
+                break;
+            }
+            CorrelationData correlation = new CorrelationData(String.valueOf(event.getOutboxId()));
+            long startedAt = System.nanoTime();
+            outstandingConfirms.incrementAndGet();
+            CompletableFuture<Boolean> acked = correlation.getFuture().handle((confirm, error) -> {
+                window.release();
+                outstandingConfirms.decrementAndGet();
+                confirmLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                return error == null && confirm.ack();
+            });
+            try {
+                operations.send(transactionExchange, event.getRoutingKey(), toAmqpMessage(event), correlation);
+            } catch (AmqpException ex) {
+                correlation.getFuture().complete(new CorrelationData.Confirm(false, ex.getMessage()));
+            }
+            inFlight.add(new InFlight(event, correlation, acked));
+        }
+
+        for (InFlight message : inFlight) {
+            if (awaitAck(message, deadline)) {
+                confirmed.add(message.event());
+            } else {
+                nackCounter.increment();
+                unconfirmed.add(message.event());
+            }
+        }
+        return unconfirmed;
+    }
+
+    private boolean acquire(Semaphore window, long deadline) {
+        try {
+            return window.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
-    private TransactionMessage toMessage(Transaction transaction) {
-        return TransactionMessage.builder()
-                .transactionId(transaction.getTransactionId())
-                .userId(transaction.getUserId())
-                .amount(transaction.getAmount())
-                .category(transaction.getCategory())
-                .date(transaction.getDate())
-                .description(transaction.getDescription())
-                .type(transaction.getType())
+    private boolean awaitAck(InFlight message, long deadline) {
+        try {
+            return message.acked().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            message.correlation().getFuture().complete(new CorrelationData.Confirm(false, "confirm timeout"));
+            return false;
+        } catch (ExecutionException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Message toAmqpMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId(String.valueOf(event.getOutboxId()))
                 .build();
     }
+
+    private record InFlight(OutboxEvent event, CorrelationData correlation, CompletableFuture<Boolean> acked) {
+    }
 }
@@ -0,0 +1,69 @@
+package com.microservice.transaction.infrastructure.export;
+
+import com.microservice.transaction.dto.TransactionResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe transacciones en CSV (RFC 4180) con cabecera.
+ */
+public class CsvTransactionExportWriter implements TransactionExportWriter {
+    private static final String HEADER = "transactionId,userId,type,amount,category,date,description,createdAt";
+
+    private final Writer writer;
+
+    public CsvTransactionExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(TransactionResponse transaction) throws IOException {
+        writer.write(String.valueOf(transaction.transactionId()));
+        writer.write(',');
+        writeField(transaction.userId());
+        writer.write(',');
+        writer.write(transaction.type().name());
+        writer.write(',');
+        writer.write(transaction.amount().toPlainString());
+        writer.write(',');
+        writeField(transaction.category());
+        writer.write(',');
+        writer.write(transaction.date().toString());
+        writer.write(',');
+        writeField(transaction.description());
+        writer.write(',');
+        if (transaction.createdAt() != null) {
+            writer.write(transaction.createdAt().toString());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
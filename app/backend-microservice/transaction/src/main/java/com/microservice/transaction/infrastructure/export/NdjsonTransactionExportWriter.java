@@ -0,0 +1,40 @@
+package com.microservice.transaction.infrastructure.export;
+
+import com.microservice.transaction.dto.TransactionResponse;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escribe transacciones como NDJSON: un objeto JSON por línea, sin array envolvente.
+ */
+public class NdjsonTransactionExportWriter implements TransactionExportWriter {
+    private static final int NEWLINE = '\n';
+
+    private final OutputStream out;
+    private final ObjectWriter objectWriter;
+
+    public NdjsonTransactionExportWriter(OutputStream out, JsonMapper jsonMapper) {
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+        this.objectWriter = jsonMapper.writerFor(TransactionResponse.class);
+    }
+
+    @Override
+    public void writeHeader() {
+        // NDJSON no tiene cabecera
+    }
+
+    @Override
+    public void write(TransactionResponse transaction) throws IOException {
+        out.write(objectWriter.writeValueAsBytes(transaction));
+        out.write(NEWLINE);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,19 @@
+package com.microservice.transaction.infrastructure.export;
+
+import com.microservice.transaction.dto.TransactionResponse;
+
+import java.io.IOException;
+
+/**
+ * Serializa transacciones fila a fila sobre un stream de salida.
+ *
+ * <p>Las implementaciones no retienen las filas escritas: solo mantienen un buffer
+ * de tamaño fijo, de modo que el consumo de memoria no depende del volumen exportado.</p>
+ */
+public interface TransactionExportWriter {
+    void writeHeader() throws IOException;
+
+    void write(TransactionResponse transaction) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.microservice.transaction.infrastructure.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) en streaming: devuelve un registro por llamada y solo
+ * mantiene en memoria el registro actual.
+ *
+ * <p>Admite campos entre comillas con comas, comillas duplicadas y saltos de línea
+ * embebidos, finales de línea {@code \n} o {@code \r\n} y un BOM UTF-8 inicial.</p>
+ *
+ * <p>Un registro no puede superar {@code maxRecordLength} caracteres: una comilla sin
+ * cerrar convertiría el resto del fichero en un único campo en memoria.</p>
+ */
+public class CsvRecordReader {
+    private static final int BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private int pushedBack = -2;
+    private boolean started;
+
+    public CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return el registro, o {@code null} al llegar al final del fichero
+     * @throws IOException si falla la lectura, hay comillas sin cerrar o el registro
+     *                     supera {@code maxRecordLength} caracteres
+     */
+    public CsvRecord next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        long startLine = line;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        int length = 0;
+
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new IOException("Record starting at line " + startLine + " exceeds "
+                        + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting at line " + startLine);
+                }
+                if (c == '"') {
+                    int nextChar = read();
+                    if (nextChar == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = nextChar;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int nextChar = read();
+                    if (nextChar != '\n') {
+                        unread(nextChar);
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return new CsvRecord(startLine, fields);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    /**
+     * Registro CSV con el número de línea donde empieza (1 = cabecera).
+     */
+    public record CsvRecord(long lineNumber, List<String> fields) {
+        public boolean isBlank() {
+            return fields.size() == 1 && fields.get(0).isBlank();
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package com.microservice.transaction.infrastructure.listener;
 
 import com.microservice.transaction.event.TransactionCreatedEvent;
-import com.microservice.transaction.infrastructure.TransactionMessageProducer;
+import com.microservice.transaction.event.TransactionsBatchCreatedEvent;
+import com.microservice.transaction.infrastructure.outbox.TransactionOutboxWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+/**
+ * Traduce los eventos de dominio a filas del outbox.
+ *
+ * <p>Se ejecuta de forma síncrona en el hilo y la transacción de quien publica el
+ * evento; la publicación a RabbitMQ la hace después {@code TransactionOutboxRelay}.</p>
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TransactionEventListener {
 
-    private final TransactionMessageProducer transactionMessageProducer;
+    private final TransactionOutboxWriter transactionOutboxWriter;
 
-    @Async
     @EventListener
     public void handleTransactionCreatedEvent(TransactionCreatedEvent event) {
-        log.info("Handling TransactionCreatedEvent for transaction: {}", event.getTransaction().getTransactionId());
-        transactionMessageProducer.sendCreated(event.getTransaction());
+        log.debug("Enqueuing TransactionCreatedEvent for transaction: {}", event.getTransaction().getTransactionId());
+        transactionOutboxWriter.enqueueCreated(event.getTransaction());
+    }
+
+    @EventListener
+    public void handleTransactionsBatchCreatedEvent(TransactionsBatchCreatedEvent event) {
+        log.debug("Enqueuing TransactionsBatchCreatedEvent with {} transactions", event.getTransactions().size());
+        transactionOutboxWriter.enqueueCreated(event.getTransactions());
     }
 }
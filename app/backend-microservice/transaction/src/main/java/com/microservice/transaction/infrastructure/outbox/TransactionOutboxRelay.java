@@ -0,0 +1,130 @@
+package com.microservice.transaction.infrastructure.outbox;
+
+import com.microservice.transaction.dto.OutboxBacklog;
+import com.microservice.transaction.infrastructure.TransactionMessageProducer;
+import com.microservice.transaction.model.OutboxEvent;
+import com.microservice.transaction.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drena la tabla {@code transaction_outbox} y publica los eventos en
+ * {@code transaction-exchange}.
+ *
+ * <p>En cada ciclo bloquea hasta {@code batch-size} filas con {@code SKIP LOCKED},
+ * las publica por un único canal y elimina, dentro de la misma transacción, solo las
+ * que el broker confirmó. Si la publicación falla, la transacción se revierte y las
+ * filas se reintentan en el siguiente ciclo (entrega at-least-once). Mientras los
+ * lotes salgan llenos y confirmados se encadenan hasta {@code max-batches-per-poll}
+ * lotes sin esperar al siguiente ciclo.</p>
+ *
+ * <p>Métricas expuestas:</p>
+ * <ul>
+ *   <li>{@code transaction.outbox.pending} — eventos pendientes de publicar.</li>
+ *   <li>{@code transaction.outbox.lag} — antigüedad del evento pendiente más viejo.</li>
+ *   <li>{@code transaction.outbox.published} — eventos publicados.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class TransactionOutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionMessageProducer transactionMessageProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+
+    private final Counter publishedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicReference<OffsetDateTime> oldestPendingAt = new AtomicReference<>();
+
+    public TransactionOutboxRelay(OutboxEventRepository outboxEventRepository,
+                                  TransactionMessageProducer transactionMessageProducer,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+                                  @Value("${app.outbox.relay.max-batches-per-poll:20}") int maxBatchesPerPoll) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionMessageProducer = transactionMessageProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+
+        this.publishedCounter = Counter.builder("transaction.outbox.published")
+                .description("Outbox events published to RabbitMQ")
+                .register(meterRegistry);
+        Gauge.builder("transaction.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+        // Calculado al leer: entre dos consultas del backlog el lag sigue creciendo
+        TimeGauge.builder("transaction.outbox.lag", oldestPendingAt, TimeUnit.MILLISECONDS,
+                        TransactionOutboxRelay::lagMillis)
+                .description("Age of the oldest outbox event waiting to be published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                Integer published = transactionTemplate.execute(status -> relayNextBatch());
+                if (published == null || published < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed, pending events will be retried on the next poll: {}", ex.getMessage());
+            log.debug("Outbox relay failure", ex);
+        }
+    }
+
+    private int relayNextBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findByOrderByOutboxIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> published = transactionMessageProducer.publish(batch);
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(published.stream().map(OutboxEvent::getOutboxId).toList());
+            publishedCounter.increment(published.size());
+        }
+        return published.size();
+    }
+
+    /**
+     * Consulta el backlog ({@code count} y {@code min(created_at)}) para las métricas de
+     * pendientes y lag. Va en su propio ciclo, más lento que el del relay, para no sumar
+     * esa consulta a cada poll.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.metrics-interval-ms:10000}")
+    public void refreshBacklogMetrics() {
+        try {
+            OutboxBacklog backlog = outboxEventRepository.findBacklog();
+            pendingEvents.set(backlog.pending());
+            oldestPendingAt.set(backlog.oldestCreatedAt());
+        } catch (RuntimeException ex) {
+            log.debug("Could not refresh outbox backlog metrics", ex);
+        }
+    }
+
+    private static double lagMillis(AtomicReference<OffsetDateTime> oldestPendingAt) {
+        OffsetDateTime oldest = oldestPendingAt.get();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, OffsetDateTime.now()).toMillis());
+    }
+}
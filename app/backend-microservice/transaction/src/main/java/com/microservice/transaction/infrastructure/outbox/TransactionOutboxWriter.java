@@ -0,0 +1,68 @@
+package com.microservice.transaction.infrastructure.outbox;
+
+import com.microservice.transaction.infrastructure.RabbitMQConfiguration;
+import com.microservice.transaction.infrastructure.dto.TransactionMessage;
+import com.microservice.transaction.model.OutboxEvent;
+import com.microservice.transaction.model.Transaction;
+import com.microservice.transaction.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escribe los eventos de integración en la tabla {@code transaction_outbox}.
+ *
+ * <p>Exige una transacción activa ({@link Propagation#MANDATORY}): la fila del
+ * outbox se confirma o se revierte junto con la fila de {@link Transaction}, por lo
+ * que ningún evento se pierde entre el {@code save()} y la publicación a RabbitMQ.
+ * El payload se serializa con el mismo {@link MessageConverter} que usa el broker.</p>
+ *
+ * @see TransactionOutboxRelay proceso que drena la tabla y publica los eventos
+ */
+@RequiredArgsConstructor
+@Component
+public class TransactionOutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCreated(Transaction transaction) {
+        outboxEventRepository.save(toOutboxEvent(transaction));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCreated(List<Transaction> transactions) {
+        outboxEventRepository.insertAllInBatch(transactions.stream()
+                .map(this::toOutboxEvent)
+                .toList());
+    }
+
+    private OutboxEvent toOutboxEvent(Transaction transaction) {
+        Message message = messageConverter.toMessage(toMessage(transaction), new MessageProperties());
+        return OutboxEvent.builder()
+                .aggregateId(transaction.getTransactionId())
+                .routingKey(RabbitMQConfiguration.TRANSACTION_CREATED_ROUTING_KEY)
+                .payload(new String(message.getBody(), StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private TransactionMessage toMessage(Transaction transaction) {
+        return TransactionMessage.builder()
+                .transactionId(transaction.getTransactionId())
+                .userId(transaction.getUserId())
+                .amount(transaction.getAmount())
+                .category(transaction.getCategory())
+                .date(transaction.getDate())
+                .description(transaction.getDescription())
+                .type(transaction.getType())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.microservice.transaction.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+    @Id
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+    @Column(name = "file_name")
+    private String fileName;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ImportJobStatus status;
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+    @Column(name = "rejected_rows", nullable = false)
+    private long rejectedRows;
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.createdAt == null) {
+            this.createdAt = OffsetDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservice.transaction.model;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "import_job_errors", indexes = {
+        @Index(name = "idx_import_job_errors_job_line", columnList = "job_id, line_number")
+})
+public class ImportJobError {
+    @Id
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "error_id")
+    private Long errorId;
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    @Column(name = "line_number", nullable = false)
+    private long lineNumber;
+    @Column(name = "message", nullable = false, length = 1000)
+    private String message;
+}
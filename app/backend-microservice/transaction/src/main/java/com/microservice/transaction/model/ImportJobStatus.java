@@ -0,0 +1,8 @@
+package com.microservice.transaction.model;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
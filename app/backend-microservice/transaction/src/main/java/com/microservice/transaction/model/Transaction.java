@@ -20,7 +20,11 @@ import lombok.Setter;
 @Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date_id", columnList = "date DESC, transaction_id DESC"),
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, date, transaction_id"),
+        @Index(name = "idx_transactions_user_category_date", columnList = "user_id, category, date")
+})
 public class Transaction {
     @Id
     @EqualsAndHashCode.Include
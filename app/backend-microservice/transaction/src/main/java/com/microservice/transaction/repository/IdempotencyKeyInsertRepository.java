@@ -0,0 +1,22 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.model.IdempotencyKey;
+
+/**
+ * Fragmento de repositorio para registrar claves de idempotencia.
+ *
+ * <p>Se expone a través de {@link IdempotencyKeyRepository}. Existe porque
+ * {@code save()} sobre una entidad con ID asignado hace un {@code merge}, que
+ * sobrescribiría la clave de otra petición concurrente en lugar de fallar.</p>
+ */
+public interface IdempotencyKeyInsertRepository {
+
+    /**
+     * Inserta la clave, reemplazando una clave igual que ya haya expirado.
+     *
+     * @param key clave a registrar
+     * @throws org.springframework.dao.DuplicateKeyException si otra petición ya registró la
+     *                                                       clave y sigue vigente
+     */
+    void insert(IdempotencyKey key);
+}
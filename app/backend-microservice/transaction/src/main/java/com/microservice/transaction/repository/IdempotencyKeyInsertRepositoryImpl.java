@@ -0,0 +1,59 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.model.IdempotencyKey;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Implementación JDBC de {@link IdempotencyKeyInsertRepository}.
+ *
+ * <p>Una única sentencia {@code INSERT ... ON DUPLICATE KEY UPDATE} registra la clave o
+ * reemplaza una clave igual ya expirada; si la clave sigue vigente no cambia nada. Si
+ * dos instancias registran la misma clave a la vez, la segunda espera al commit de la
+ * primera sobre la clave primaria, sin bloqueos de hueco previos que puedan acabar en
+ * deadlock. Después, una lectura con bloqueo comprueba qué transacción quedó asociada
+ * a la clave.</p>
+ */
+class IdempotencyKeyInsertRepositoryImpl implements IdempotencyKeyInsertRepository {
+
+    private static final String UPSERT_SQL = "INSERT INTO idempotency_keys "
+            + "(idempotency_key, request_hash, transaction_id, created_at, expires_at) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE "
+            // expires_at se asigna el último: las condiciones anteriores leen aún su valor original
+            + "request_hash = CASE WHEN expires_at < ? THEN ? ELSE request_hash END, "
+            + "transaction_id = CASE WHEN expires_at < ? THEN ? ELSE transaction_id END, "
+            + "created_at = CASE WHEN expires_at < ? THEN ? ELSE created_at END, "
+            + "expires_at = CASE WHEN expires_at < ? THEN ? ELSE expires_at END";
+    private static final String OWNER_SQL = "SELECT transaction_id FROM idempotency_keys "
+            + "WHERE idempotency_key = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    IdempotencyKeyInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insert(IdempotencyKey key) {
+        Timestamp createdAt = Timestamp.from(key.getCreatedAt().toInstant());
+        Timestamp expiresAt = Timestamp.from(key.getExpiresAt().toInstant());
+        jdbcTemplate.update(UPSERT_SQL,
+                key.getIdempotencyKey(), key.getRequestHash(), key.getTransactionId(), createdAt, expiresAt,
+                createdAt, key.getRequestHash(),
+                createdAt, key.getTransactionId(),
+                createdAt, createdAt,
+                createdAt, expiresAt);
+
+        // El recuento de filas afectadas no distingue "insertada" de "sin cambios" con
+        // CLIENT_FOUND_ROWS (el valor por defecto de Connector/J), así que se lee el dueño
+        List<Long> owner = jdbcTemplate.queryForList(OWNER_SQL, Long.class, key.getIdempotencyKey());
+        if (owner.isEmpty() || !Objects.equals(owner.get(0), key.getTransactionId())) {
+            throw new DuplicateKeyException("Idempotency key '" + key.getIdempotencyKey() + "' is already registered");
+        }
+    }
+}
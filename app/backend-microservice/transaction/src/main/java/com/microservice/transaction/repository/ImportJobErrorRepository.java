@@ -0,0 +1,13 @@
+package com.microservice.transaction.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.microservice.transaction.model.ImportJobError;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+    Page<ImportJobError> findByJobIdOrderByLineNumberAsc(Long jobId, Pageable pageable);
+}
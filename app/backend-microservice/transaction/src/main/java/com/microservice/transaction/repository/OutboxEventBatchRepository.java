@@ -0,0 +1,13 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositorio para escribir eventos del outbox en lotes JDBC.
+ */
+public interface OutboxEventBatchRepository {
+
+    void insertAllInBatch(List<OutboxEvent> events);
+}
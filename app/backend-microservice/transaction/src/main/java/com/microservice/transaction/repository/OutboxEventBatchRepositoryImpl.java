@@ -0,0 +1,40 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.model.OutboxEvent;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link OutboxEventBatchRepository}. A diferencia de
+ * {@link TransactionBatchRepositoryImpl} no necesita las claves generadas: el
+ * relay lee los eventos de vuelta desde la tabla.
+ */
+class OutboxEventBatchRepositoryImpl implements OutboxEventBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO transaction_outbox "
+            + "(aggregate_id, routing_key, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int jdbcBatchSize;
+
+    OutboxEventBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.transactions.batch.jdbc-batch-size:1000}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Override
+    public void insertAllInBatch(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, jdbcBatchSize, (statement, event) -> {
+            event.prePersist();
+            statement.setLong(1, event.getAggregateId());
+            statement.setString(2, event.getRoutingKey());
+            statement.setString(3, event.getPayload());
+            statement.setTimestamp(4, Timestamp.from(event.getCreatedAt().toInstant()));
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.dto.OutboxBacklog;
+import com.microservice.transaction.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventBatchRepository {
+
+    /**
+     * Bloquea el siguiente lote pendiente en orden de inserción.
+     *
+     * <p>El hint {@code lock.timeout = -2} se traduce a {@code SKIP LOCKED}, de modo
+     * que varias instancias del relay drenan lotes disjuntos sin esperarse.</p>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxEvent> findByOrderByOutboxIdAsc(Limit limit);
+
+    @Query("select new com.microservice.transaction.dto.OutboxBacklog(count(o), min(o.createdAt)) from OutboxEvent o")
+    OutboxBacklog findBacklog();
+}
@@ -0,0 +1,23 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositorio para inserciones masivas de transacciones.
+ *
+ * <p>Se expone a través de {@link TransactionRepository}. Existe porque
+ * {@code GenerationType.IDENTITY} en {@link Transaction} impide que Hibernate
+ * agrupe los INSERT en lotes JDBC.</p>
+ */
+public interface TransactionBatchRepository {
+
+    /**
+     * Inserta las transacciones usando lotes JDBC y asigna a cada entidad el ID generado.
+     *
+     * @param transactions entidades nuevas (sin ID) a persistir
+     * @return la misma lista, con {@code transactionId} y {@code createdAt} asignados
+     */
+    List<Transaction> insertAllInBatch(List<Transaction> transactions);
+}
@@ -0,0 +1,81 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.model.Transaction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link TransactionBatchRepository}.
+ *
+ * <p>Agrupa los INSERT en bloques de {@code app.transactions.batch.jdbc-batch-size}
+ * filas. Con {@code rewriteBatchedStatements=true} en la URL de MySQL, cada bloque
+ * viaja como un único INSERT multi-fila y las claves generadas se recuperan
+ * en el mismo round trip.</p>
+ */
+class TransactionBatchRepositoryImpl implements TransactionBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions "
+            + "(user_id, type, amount, category, date, description, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int jdbcBatchSize;
+
+    TransactionBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${app.transactions.batch.jdbc-batch-size:1000}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Override
+    public List<Transaction> insertAllInBatch(List<Transaction> transactions) {
+        for (int from = 0; from < transactions.size(); from += jdbcBatchSize) {
+            List<Transaction> chunk = transactions.subList(from, Math.min(from + jdbcBatchSize, transactions.size()));
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (Transaction transaction : chunk) {
+                        bind(statement, transaction);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    assignGeneratedKeys(statement, chunk);
+                }
+                return null;
+            });
+        }
+        return transactions;
+    }
+
+    private void bind(PreparedStatement statement, Transaction transaction) throws SQLException {
+        transaction.prePersist();
+        statement.setString(1, transaction.getUserId());
+        statement.setString(2, transaction.getType().name());
+        statement.setBigDecimal(3, transaction.getAmount());
+        statement.setString(4, transaction.getCategory());
+        statement.setDate(5, Date.valueOf(transaction.getDate()));
+        statement.setString(6, transaction.getDescription());
+        statement.setTimestamp(7, Timestamp.from(transaction.getCreatedAt().toInstant()));
+    }
+
+    private void assignGeneratedKeys(PreparedStatement statement, List<Transaction> chunk) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            int index = 0;
+            while (keys.next() && index < chunk.size()) {
+                chunk.get(index++).setTransactionId(keys.getLong(1));
+            }
+            if (index != chunk.size()) {
+                throw new SQLException("Expected " + chunk.size() + " generated keys but received " + index);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.dto.TransactionResponse;
+
+import java.util.stream.Stream;
+
+/**
+ * Fragmento de repositorio para exportar transacciones en streaming.
+ *
+ * <p>Se expone a través de {@link TransactionRepository}. Existe para fijar el
+ * tamaño de fetch solo en la sentencia de exportación, sin activar
+ * {@code useCursorFetch} para todas las conexiones del pool.</p>
+ */
+public interface TransactionExportRepository {
+
+    /**
+     * Cursor de solo avance sobre las transacciones, ordenadas por fecha e id.
+     * El stream debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @param userId usuario a exportar, o {@code null} para exportar todos
+     */
+    Stream<TransactionResponse> streamForExport(String userId);
+}
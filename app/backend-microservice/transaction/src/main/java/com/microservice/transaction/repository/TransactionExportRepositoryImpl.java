@@ -0,0 +1,68 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.dto.TransactionResponse;
+import com.microservice.transaction.model.TransactionType;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+/**
+ * Implementación JDBC de {@link TransactionExportRepository}.
+ *
+ * <p>En MySQL la sentencia usa {@code fetchSize = Integer.MIN_VALUE}, que hace que
+ * Connector/J entregue las filas de una en una conforme llegan del servidor en lugar
+ * de cargar el resultado completo. Mientras el stream está abierto la conexión no
+ * admite otras sentencias, así que solo se usa aquí. Con otros drivers se pide un
+ * fetch de {@value #FETCH_SIZE} filas.</p>
+ */
+class TransactionExportRepositoryImpl implements TransactionExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String SELECT_SQL = "SELECT transaction_id, user_id, type, amount, category, date, "
+            + "description, created_at FROM transactions";
+    private static final String ORDER_BY_SQL = " ORDER BY date, transaction_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TransactionExportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Stream<TransactionResponse> streamForExport(String userId) {
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    userId == null ? SELECT_SQL + ORDER_BY_SQL : SELECT_SQL + " WHERE user_id = ?" + ORDER_BY_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize(connection));
+            if (userId != null) {
+                statement.setString(1, userId);
+            }
+            return statement;
+        }, (rs, rowNum) -> toResponse(rs));
+    }
+
+    private int fetchSize(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+
+    private TransactionResponse toResponse(ResultSet rs) throws SQLException {
+        return new TransactionResponse(
+                rs.getLong("transaction_id"),
+                rs.getString("user_id"),
+                TransactionType.valueOf(rs.getString("type")),
+                rs.getBigDecimal("amount"),
+                rs.getString("category"),
+                rs.getDate("date").toLocalDate(),
+                rs.getString("description"),
+                // Mismo criterio que la inserción por lotes: Timestamp en la zona de la JVM
+                OffsetDateTime.ofInstant(rs.getTimestamp("created_at").toInstant(), ZoneId.systemDefault()));
+    }
+}
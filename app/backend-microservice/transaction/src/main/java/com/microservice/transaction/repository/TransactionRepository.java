@@ -1,13 +1,58 @@
 package com.microservice.transaction.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.microservice.transaction.dto.TransactionResponse;
 import com.microservice.transaction.model.Transaction;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByUserId(String userId);
-}
\ No newline at end of file
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        JpaSpecificationExecutor<Transaction>, TransactionBatchRepository,
+        TransactionExportRepository {
+    /*
+     * Proyecciones de solo lectura: construyen TransactionResponse directamente desde
+     * el resultado SQL, sin cargar entidades en el contexto de persistencia.
+     */
+
+    @Query("""
+            select new com.microservice.transaction.dto.TransactionResponse(
+                t.transactionId, t.userId, t.type, t.amount, t.category, t.date, t.description, t.createdAt)
+            from Transaction t
+            where t.transactionId = :id""")
+    Optional<TransactionResponse> findResponseById(@Param("id") Long id);
+
+    @Query(value = """
+            select new com.microservice.transaction.dto.TransactionResponse(
+                t.transactionId, t.userId, t.type, t.amount, t.category, t.date, t.description, t.createdAt)
+            from Transaction t""",
+            countQuery = "select count(t) from Transaction t")
+    Page<TransactionResponse> findAllResponses(Pageable pageable);
+
+    @Query("""
+            select new com.microservice.transaction.dto.TransactionResponse(
+                t.transactionId, t.userId, t.type, t.amount, t.category, t.date, t.description, t.createdAt)
+            from Transaction t
+            order by t.date desc, t.transactionId desc""")
+    List<TransactionResponse> findFirstPage(Limit limit);
+
+    @Query("""
+            select new com.microservice.transaction.dto.TransactionResponse(
+                t.transactionId, t.userId, t.type, t.amount, t.category, t.date, t.description, t.createdAt)
+            from Transaction t
+            where t.date < :date or (t.date = :date and t.transactionId < :transactionId)
+            order by t.date desc, t.transactionId desc""")
+    List<TransactionResponse> findPageAfter(@Param("date") LocalDate date,
+                                    @Param("transactionId") Long transactionId,
+                                    Limit limit);
+}
@@ -0,0 +1,49 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.dto.TransactionFilter;
+import com.microservice.transaction.model.Transaction;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Especificaciones JPA para las consultas filtradas de transacciones.
+ *
+ * <p>El predicado siempre empieza por {@code user_id} y, si hay rango de fechas,
+ * por {@code date}, para que MySQL pueda usar los índices compuestos
+ * {@code idx_transactions_user_date} e {@code idx_transactions_user_category_date}
+ * declarados en {@link Transaction}. Tipo e importe se aplican como filtros
+ * residuales sobre las filas ya acotadas por el índice.</p>
+ */
+public final class TransactionSpecifications {
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> matching(TransactionFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("userId"), filter.userId()));
+            if (filter.category() != null && !filter.category().isBlank()) {
+                predicates.add(cb.equal(root.get("category"), filter.category()));
+            }
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), filter.to()));
+            }
+            if (filter.type() != null) {
+                predicates.add(cb.equal(root.get("type"), filter.type()));
+            }
+            if (filter.minAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.minAmount()));
+            }
+            if (filter.maxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.maxAmount()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.microservice.transaction.service;
+
+import com.microservice.transaction.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TransactionExportService {
+    void export(String userId, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,8 @@
+package com.microservice.transaction.service;
+
+import com.microservice.transaction.dto.IdempotentResult;
+import com.microservice.transaction.dto.TransactionRequest;
+
+public interface TransactionIdempotencyService {
+    IdempotentResult createOnce(String idempotencyKey, TransactionRequest transactionRequest);
+}
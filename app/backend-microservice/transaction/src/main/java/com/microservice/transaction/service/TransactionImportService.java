@@ -0,0 +1,16 @@
+package com.microservice.transaction.service;
+
+import com.microservice.transaction.dto.ImportJobResponse;
+import com.microservice.transaction.dto.ImportRowError;
+import com.microservice.transaction.dto.PaginatedResponse;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface TransactionImportService {
+    ImportJobResponse submit(String userId, MultipartFile file);
+
+    ImportJobResponse getJob(Long jobId);
+
+    PaginatedResponse<ImportRowError> getErrors(Long jobId, Pageable pageable);
+}
@@ -1,15 +1,26 @@
 package com.microservice.transaction.service;
 
+import com.microservice.transaction.dto.CursorPage;
 import com.microservice.transaction.dto.PaginatedResponse;
+import com.microservice.transaction.dto.TransactionBatchResponse;
+import com.microservice.transaction.dto.TransactionFilter;
 import com.microservice.transaction.dto.TransactionRequest;
 import com.microservice.transaction.dto.TransactionResponse;
 
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface TransactionService {
     TransactionResponse create(TransactionRequest transactionRequest);
 
+    TransactionBatchResponse createBatch(List<TransactionRequest> transactionRequests);
+
     TransactionResponse getById(Long id);
 
     PaginatedResponse<TransactionResponse> getAll(Pageable pageable);
+
+    PaginatedResponse<TransactionResponse> getByUser(TransactionFilter filter, Pageable pageable);
+
+    CursorPage<TransactionResponse> getAllByCursor(String cursor, int size, boolean includeTotal);
 }
\ No newline at end of file
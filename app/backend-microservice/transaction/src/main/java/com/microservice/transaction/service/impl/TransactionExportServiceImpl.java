@@ -0,0 +1,64 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.ExportFormat;
+import com.microservice.transaction.dto.TransactionResponse;
+import com.microservice.transaction.infrastructure.export.CsvTransactionExportWriter;
+import com.microservice.transaction.infrastructure.export.NdjsonTransactionExportWriter;
+import com.microservice.transaction.infrastructure.export.TransactionExportWriter;
+import com.microservice.transaction.repository.TransactionRepository;
+import com.microservice.transaction.service.TransactionExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta transacciones en streaming, sin materializar el resultado en memoria.
+ *
+ * <p>Las filas se leen con un cursor JDBC de solo avance (ver
+ * {@link TransactionRepository#streamForExport(String)}) dentro de una transacción de
+ * solo lectura y se escriben directamente en la respuesta. Se mapean a
+ * {@link TransactionResponse} sin pasar por el contexto de persistencia, por lo que
+ * el heap usado es constante independientemente del número de filas.</p>
+ *
+ * <p><strong>Nota:</strong> si no se indica {@code userId} se exportan las
+ * transacciones de todos los usuarios. Este servicio no tiene todavía control de
+ * acceso por roles, igual que {@code TransactionServiceImpl.getAll}.</p>
+ */
+@RequiredArgsConstructor
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+    private final TransactionRepository transactionRepository;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Escribe las transacciones en {@code out}, ordenadas por fecha e id.
+     *
+     * @param userId usuario a exportar, o {@code null} para exportar todos
+     * @param format formato de salida
+     * @param out    stream de la respuesta; no se cierra
+     * @throws IOException si el cliente cierra la conexión durante la exportación
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public void export(String userId, ExportFormat format, OutputStream out) throws IOException {
+        TransactionExportWriter writer = switch (format) {
+            case CSV -> new CsvTransactionExportWriter(out);
+            case NDJSON -> new NdjsonTransactionExportWriter(out, jsonMapper);
+        };
+
+        try (Stream<TransactionResponse> rows = transactionRepository.streamForExport(userId)) {
+            writer.writeHeader();
+            Iterator<TransactionResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            writer.finish();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.microservice.transaction.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.microservice.transaction.dto.IdempotentResult;
+import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.dto.TransactionResponse;
+import com.microservice.transaction.exception.EntityNotFoundException;
+import com.microservice.transaction.exception.IdempotencyKeyConflictException;
+import com.microservice.transaction.model.IdempotencyKey;
+import com.microservice.transaction.repository.IdempotencyKeyRepository;
+import com.microservice.transaction.repository.TransactionRepository;
+import com.microservice.transaction.service.TransactionIdempotencyService;
+import com.microservice.transaction.service.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Garantiza que una creación con la misma cabecera {@code Idempotency-Key} se
+ * ejecute una sola vez.
+ *
+ * <p>Cada clave se registra en {@code idempotency_keys} junto con el id de la
+ * transacción creada y un hash del cuerpo de la petición, <em>dentro de la misma
+ * transacción</em> que el INSERT de la transacción y la fila del outbox. Si otra
+ * petición (en esta u otra instancia) ya registró la clave, la clave primaria hace
+ * fallar el INSERT, se revierte todo el trabajo y se responde con el resultado
+ * original: nunca hay un segundo INSERT ni un segundo {@code TransactionCreatedEvent}.</p>
+ *
+ * <p>Delante de la tabla hay una caché Caffeine local. Solo se llena con claves ya
+ * confirmadas y cada entrada caduca en el {@code expiresAt} de su clave (no un TTL
+ * completo desde que se cachea), por lo que un acierto en caché es siempre
+ * válido; un fallo se resuelve contra la base de datos, que es la fuente de verdad
+ * compartida por todas las instancias. Las claves expiradas se purgan
+ * periódicamente.</p>
+ */
+@Slf4j
+@Service
+public class TransactionIdempotencyServiceImpl implements TransactionIdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, IdempotencyKey> recentKeys;
+
+    public TransactionIdempotencyServiceImpl(TransactionService transactionService,
+                                             TransactionRepository transactionRepository,
+                                             IdempotencyKeyRepository idempotencyKeyRepository,
+                                             TransactionTemplate transactionTemplate,
+                                             @Value("${app.transactions.idempotency.ttl:24h}") Duration ttl,
+                                             @Value("${app.transactions.idempotency.cache-size:100000}") long cacheSize) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.writing((String id, IdempotencyKey key) -> remainingLifetime(key)))
+                .build();
+    }
+
+    /**
+     * Crea la transacción una única vez por clave.
+     *
+     * @param idempotencyKey valor de la cabecera {@code Idempotency-Key}
+     * @param request        cuerpo de la petición
+     * @return la transacción creada, o la original si la clave ya se había usado
+     * @throws IdempotencyKeyConflictException si la clave ya se usó con otro cuerpo
+     */
+    @Override
+    public IdempotentResult createOnce(String idempotencyKey, TransactionRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        Optional<IdempotencyKey> existing = lookup(idempotencyKey);
+        if (existing.isPresent()) {
+            return replay(existing.get(), requestHash);
+        }
+
+        try {
+            IdempotencyKey registered = new IdempotencyKey();
+            TransactionResponse created = transactionTemplate.execute(status -> {
+                TransactionResponse response = transactionService.create(request);
+                OffsetDateTime now = OffsetDateTime.now();
+                registered.setIdempotencyKey(idempotencyKey);
+                registered.setRequestHash(requestHash);
+                registered.setTransactionId(response.transactionId());
+                registered.setCreatedAt(now);
+                registered.setExpiresAt(now.plus(ttl));
+                idempotencyKeyRepository.insert(registered);
+                return response;
+            });
+            recentKeys.put(idempotencyKey, registered);
+            return new IdempotentResult(created, false);
+        } catch (DuplicateKeyException ex) {
+            IdempotencyKey winner = lookup(idempotencyKey)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key vanished after a duplicate insert", ex));
+            return replay(winner, requestHash);
+        } catch (PessimisticLockingFailureException ex) {
+            // Deadlock o espera de bloqueo con otra petición de la misma clave: si ya
+            // confirmó, se responde con su resultado; si no, el cliente puede reintentar
+            IdempotencyKey winner = lookup(idempotencyKey).orElseThrow(() -> ex);
+            return replay(winner, requestHash);
+        }
+    }
+
+    /**
+     * Purga las claves expiradas de la tabla.
+     */
+    @Scheduled(fixedDelayString = "${app.transactions.idempotency.prune-interval-ms:3600000}")
+    @Transactional
+    public void pruneExpired() {
+        int deleted = idempotencyKeyRepository.deleteExpired(OffsetDateTime.now());
+        if (deleted > 0) {
+            log.debug("Pruned {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Optional<IdempotencyKey> lookup(String idempotencyKey) {
+        IdempotencyKey cached = recentKeys.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<IdempotencyKey> stored = idempotencyKeyRepository.findById(idempotencyKey)
+                .filter(key -> key.getExpiresAt().isAfter(OffsetDateTime.now()));
+        stored.ifPresent(key -> recentKeys.put(idempotencyKey, key));
+        return stored;
+    }
+
+    private static Duration remainingLifetime(IdempotencyKey key) {
+        Duration remaining = Duration.between(OffsetDateTime.now(), key.getExpiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private IdempotentResult replay(IdempotencyKey key, String requestHash) {
+        if (!key.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency-Key was already used with a different request body");
+        }
+        TransactionResponse original = transactionRepository.findResponseById(key.getTransactionId())
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
+        return new IdempotentResult(original, true);
+    }
+
+    private String hash(TransactionRequest request) {
+        String canonical = String.join("|",
+                String.valueOf(request.userId()),
+                String.valueOf(request.type()),
+                request.amount() == null ? "null" : request.amount().stripTrailingZeros().toPlainString(),
+                String.valueOf(request.category()),
+                String.valueOf(request.date()),
+                String.valueOf(request.description()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
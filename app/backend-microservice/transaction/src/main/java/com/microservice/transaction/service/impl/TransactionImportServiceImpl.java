@@ -0,0 +1,335 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.ImportJobMapper;
+import com.microservice.transaction.dto.ImportJobResponse;
+import com.microservice.transaction.dto.ImportRowError;
+import com.microservice.transaction.dto.PaginatedResponse;
+import com.microservice.transaction.dto.TransactionBatchItemResult;
+import com.microservice.transaction.dto.TransactionBatchResponse;
+import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.exception.EntityNotFoundException;
+import com.microservice.transaction.exception.ImportRejectedException;
+import com.microservice.transaction.infrastructure.importer.CsvRecordReader;
+import com.microservice.transaction.infrastructure.importer.CsvRecordReader.CsvRecord;
+import com.microservice.transaction.model.ImportJob;
+import com.microservice.transaction.model.ImportJobError;
+import com.microservice.transaction.model.ImportJobStatus;
+import com.microservice.transaction.model.TransactionType;
+import com.microservice.transaction.repository.ImportJobErrorRepository;
+import com.microservice.transaction.repository.ImportJobRepository;
+import com.microservice.transaction.service.TransactionImportService;
+import com.microservice.transaction.service.TransactionService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importa extractos bancarios en CSV como trabajos en segundo plano.
+ *
+ * <p>El fichero subido se guarda en un fichero temporal y se procesa en un pool
+ * acotado ({@code app.transactions.import.pool-size} hilos y una cola de
+ * {@code queue-capacity} trabajos). El CSV se lee registro a registro y las filas
+ * válidas se insertan en bloques de {@code chunk-size} a través de
+ * {@link TransactionService#createBatch}, que aplica las mismas validaciones que
+ * {@link TransactionRequest}, inserta con JDBC batch y registra los eventos en el
+ * outbox. En memoria solo vive un bloque (filas válidas y errores), por lo que el
+ * consumo es constante sea cual sea el tamaño del fichero; un registro de más de
+ * {@code max-record-length} caracteres hace fallar el trabajo.</p>
+ *
+ * <p>Formato esperado: cabecera con las columnas {@code date} (ISO {@code yyyy-MM-dd}),
+ * {@code type} ({@code INCOME}/{@code EXPENSE}), {@code amount} y {@code category},
+ * y opcionalmente {@code description}, en cualquier orden.</p>
+ *
+ * <h3>Deuda Técnica Identificada</h3>
+ * <ul>
+ *   <li><strong>DT-IMP-01:</strong> Cada bloque se confirma por separado. Si la
+ *       instancia se detiene a mitad de un trabajo, este queda en {@code RUNNING} con
+ *       los bloques ya importados y no se reanuda automáticamente.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class TransactionImportServiceImpl implements TransactionImportService {
+    private static final List<String> REQUIRED_COLUMNS = List.of("date", "type", "amount", "category");
+
+    private final TransactionService transactionService;
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final int chunkSize;
+    private final int maxRecordLength;
+    private final ThreadPoolExecutor executor;
+
+    public TransactionImportServiceImpl(TransactionService transactionService,
+                                        ImportJobRepository importJobRepository,
+                                        ImportJobErrorRepository importJobErrorRepository,
+                                        @Value("${app.transactions.import.chunk-size:1000}") int chunkSize,
+                                        @Value("${app.transactions.import.max-record-length:65536}") int maxRecordLength,
+                                        @Value("${app.transactions.import.pool-size:2}") int poolSize,
+                                        @Value("${app.transactions.import.queue-capacity:20}") int queueCapacity) {
+        this.transactionService = transactionService;
+        this.importJobRepository = importJobRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.chunkSize = chunkSize;
+        this.maxRecordLength = maxRecordLength;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "transaction-import-" + threadCount.incrementAndGet()));
+    }
+
+    /**
+     * Registra el trabajo y lo encola para procesarse en segundo plano.
+     *
+     * @param userId usuario al que se asignan las transacciones importadas
+     * @param file   extracto CSV subido
+     * @return el trabajo en estado {@code QUEUED}
+     * @throws IllegalArgumentException si falta el usuario o el fichero está vacío
+     * @throws ImportRejectedException  si la cola de importaciones está llena
+     */
+    @Override
+    public ImportJobResponse submit(String userId, MultipartFile file) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("'userId' is required");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty");
+        }
+
+        Path upload = storeUpload(file);
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .userId(userId)
+                .fileName(file.getOriginalFilename())
+                .status(ImportJobStatus.QUEUED)
+                .build());
+
+        try {
+            executor.execute(() -> runImport(job.getJobId(), userId, upload));
+        } catch (RejectedExecutionException ex) {
+            deleteQuietly(upload);
+            finish(job, ImportJobStatus.FAILED, "Import queue is full");
+            throw new ImportRejectedException("Too many imports in progress, try again later");
+        }
+        return ImportJobMapper.toResponse(job);
+    }
+
+    @Override
+    public ImportJobResponse getJob(Long jobId) {
+        return ImportJobMapper.toResponse(findJobOrThrow(jobId));
+    }
+
+    @Override
+    public PaginatedResponse<ImportRowError> getErrors(Long jobId, Pageable pageable) {
+        findJobOrThrow(jobId);
+        Page<ImportJobError> page = importJobErrorRepository.findByJobIdOrderByLineNumberAsc(jobId, pageable);
+        List<ImportRowError> content = page.map(ImportJobMapper::toResponse).getContent();
+
+        return new PaginatedResponse<>(
+                content,
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isLast());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Procesa el fichero de un trabajo. Se ejecuta en el pool de importación y borra
+     * el fichero temporal al terminar.
+     */
+    void runImport(Long jobId, String userId, Path upload) {
+        ImportJob job = findJobOrThrow(jobId);
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setStartedAt(OffsetDateTime.now());
+        importJobRepository.save(job);
+
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            CsvRecordReader csv = new CsvRecordReader(reader, maxRecordLength);
+            Map<String, Integer> columns = readHeader(csv.next());
+
+            List<TransactionRequest> requests = new ArrayList<>(chunkSize);
+            List<Long> lineNumbers = new ArrayList<>(chunkSize);
+            List<ImportJobError> errors = new ArrayList<>();
+
+            CsvRecord csvRecord;
+            while ((csvRecord = csv.next()) != null) {
+                if (csvRecord.isBlank()) {
+                    continue;
+                }
+                job.setProcessedRows(job.getProcessedRows() + 1);
+                try {
+                    requests.add(toRequest(userId, csvRecord, columns));
+                    lineNumbers.add(csvRecord.lineNumber());
+                } catch (IllegalArgumentException ex) {
+                    errors.add(error(jobId, csvRecord.lineNumber(), ex.getMessage()));
+                }
+                if (requests.size() == chunkSize || errors.size() >= chunkSize) {
+                    flushChunk(job, requests, lineNumbers, errors);
+                }
+            }
+            flushChunk(job, requests, lineNumbers, errors);
+            finish(job, ImportJobStatus.COMPLETED, null);
+        } catch (Exception ex) {
+            log.warn("Import job {} failed: {}", jobId, ex.getMessage());
+            finish(job, ImportJobStatus.FAILED, ex.getMessage());
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    private void flushChunk(ImportJob job, List<TransactionRequest> requests, List<Long> lineNumbers,
+                            List<ImportJobError> errors) {
+        if (!requests.isEmpty()) {
+            TransactionBatchResponse result = transactionService.createBatch(requests);
+            job.setImportedRows(job.getImportedRows() + result.created());
+            for (TransactionBatchItemResult item : result.results()) {
+                if (item.status() == TransactionBatchItemResult.Status.REJECTED) {
+                    errors.add(error(job.getJobId(), lineNumbers.get(item.index()), String.join("; ", item.errors())));
+                }
+            }
+        }
+        job.setRejectedRows(job.getRejectedRows() + errors.size());
+        if (!errors.isEmpty()) {
+            importJobErrorRepository.saveAll(errors);
+        }
+        importJobRepository.save(job);
+        requests.clear();
+        lineNumbers.clear();
+        errors.clear();
+    }
+
+    private Map<String, Integer> readHeader(CsvRecord header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The file has no header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.fields().size(); i++) {
+            columns.put(header.fields().get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing required columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private TransactionRequest toRequest(String userId, CsvRecord csvRecord, Map<String, Integer> columns) {
+        return new TransactionRequest(
+                userId,
+                parseType(field(csvRecord, columns, "type")),
+                parseAmount(field(csvRecord, columns, "amount")),
+                field(csvRecord, columns, "category"),
+                parseDate(field(csvRecord, columns, "date")),
+                field(csvRecord, columns, "description"));
+    }
+
+    private String field(CsvRecord csvRecord, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= csvRecord.fields().size()) {
+            return null;
+        }
+        String value = csvRecord.fields().get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private TransactionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return TransactionType.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("type: invalid value '" + value + "'");
+        }
+    }
+
+    private BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("amount: invalid number '" + value + "'");
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("date: invalid ISO date '" + value + "'");
+        }
+    }
+
+    private ImportJobError error(Long jobId, long lineNumber, String message) {
+        String truncated = message.length() > 1000 ? message.substring(0, 1000) : message;
+        return ImportJobError.builder()
+                .jobId(jobId)
+                .lineNumber(lineNumber)
+                .message(truncated)
+                .build();
+    }
+
+    private void finish(ImportJob job, ImportJobStatus status, String errorMessage) {
+        job.setStatus(status);
+        job.setErrorMessage(errorMessage != null && errorMessage.length() > 1000
+                ? errorMessage.substring(0, 1000) : errorMessage);
+        job.setFinishedAt(OffsetDateTime.now());
+        importJobRepository.save(job);
+    }
+
+    private ImportJob findJobOrThrow(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Import job not found: " + jobId));
+    }
+
+    private Path storeUpload(MultipartFile file) {
+        try {
+            Path upload = Files.createTempFile("transaction-import-", ".csv");
+            file.transferTo(upload);
+            return upload;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not store the uploaded file", ex);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete temporary import file {}", path);
+        }
+    }
+}
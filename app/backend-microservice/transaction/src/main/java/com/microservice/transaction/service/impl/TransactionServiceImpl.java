@@ -1,21 +1,39 @@
 package com.microservice.transaction.service.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
+import com.microservice.transaction.dto.CursorPage;
 import com.microservice.transaction.dto.PaginatedResponse;
+import com.microservice.transaction.dto.TransactionBatchItemResult;
+import com.microservice.transaction.dto.TransactionBatchResponse;
 import com.microservice.transaction.dto.TransactionMapper;
 import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.dto.TransactionCursor;
+import com.microservice.transaction.dto.TransactionFilter;
 import com.microservice.transaction.dto.TransactionResponse;
 import com.microservice.transaction.event.TransactionCreatedEvent;
+import com.microservice.transaction.event.TransactionsBatchCreatedEvent;
 import com.microservice.transaction.exception.EntityNotFoundException;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.microservice.transaction.model.Transaction;
 import com.microservice.transaction.repository.TransactionRepository;
+import com.microservice.transaction.repository.TransactionSpecifications;
 import com.microservice.transaction.service.TransactionService;
 
 import lombok.RequiredArgsConstructor;
@@ -37,24 +55,21 @@ import lombok.RequiredArgsConstructor;
  * <p>Esta clase actúa como el <strong>productor originario</strong> de la cadena:</p>
  * <pre>
  *   <strong>TransactionServiceImpl.create()</strong> (publica ApplicationEvent)
- *     → TransactionEventListener (intercepta @Async)
- *       → TransactionMessageProducer (envía a RabbitMQ)
- *         → ReportConsumer (consume)
- *           → ReportServiceImpl.updateReport() (agrega datos)
+ *     → TransactionEventListener (escribe en el outbox, misma transacción)
+ *       → TransactionOutboxRelay (drena el outbox en lotes)
+ *         → TransactionMessageProducer (envía a RabbitMQ)
+ *           → ReportConsumer (consume)
+ *             → ReportServiceImpl.updateReport() (agrega datos)
  * </pre>
  *
  * <p><strong>Desacoplamiento clave:</strong> Esta clase NO conoce RabbitMQ. Solo
- * publica un evento Spring interno ({@link TransactionCreatedEvent}), que es
- * interceptado asíncronamente por {@code TransactionEventListener} en un hilo
- * separado. Esto mantiene el servicio desacoplado del broker de mensajería.</p>
+ * publica un evento Spring interno ({@link TransactionCreatedEvent}), que
+ * {@code TransactionEventListener} convierte en una fila del outbox dentro de la
+ * misma transacción de base de datos. Si el broker no está disponible o la JVM cae,
+ * el evento sigue en el outbox y se publica en el siguiente ciclo del relay.</p>
  *
  * <h3>Deuda Técnica Identificada</h3>
  * <ul>
- *   <li><strong>DT-DOC-04:</strong> El método {@code create()} no tiene
- *       {@code @Transactional}. Si {@code save()} ocurre pero el evento falla
- *       antes de publicarse (error en la misma transacción), NO hay rollback
- *       automático. Sin embargo, dado que el evento es {@code @Async}, esta
- *       omisión es menos crítica ya que el evento se procesa en otro hilo.</li>
  *   <li><strong>DT-DOC-05:</strong> Faltan operaciones {@code update()} y
  *       {@code delete()} — la interfaz {@link TransactionService} solo define
  *       {@code create}, {@code getById} y {@code getAll}. Esto limita la
@@ -72,8 +87,14 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Service
 public class TransactionServiceImpl implements TransactionService {
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    @Value("${app.transactions.batch.max-size:5000}")
+    private int maxBatchSize;
 
     /**
      * Crea una nueva transacción financiera, la persiste y dispara el evento
@@ -86,9 +107,8 @@ public class TransactionServiceImpl implements TransactionService {
      *   <li>Persiste la entidad en la base de datos MySQL
      *       ({@code transactionRepository.save()}).</li>
      *   <li>Publica {@link TransactionCreatedEvent} con la entidad persistida.
-     *       Este evento es capturado asíncronamente por
-     *       {@code TransactionEventListener}, que a su vez delega al
-     *       {@code TransactionMessageProducer} para enviar el mensaje a RabbitMQ.</li>
+     *       {@code TransactionEventListener} lo registra en el outbox dentro de esta
+     *       misma transacción; {@code TransactionOutboxRelay} lo publica luego a RabbitMQ.</li>
      *   <li>Retorna la entidad mapeada a {@link TransactionResponse}.</li>
      * </ol>
      *
@@ -96,6 +116,7 @@ public class TransactionServiceImpl implements TransactionService {
      *            (validación Bean ocurre en {@code @Valid} del controller)
      * @return respuesta con los datos de la transacción creada, incluyendo el ID generado
      */
+    @Transactional
     @Override
     public TransactionResponse create(TransactionRequest dto) {
         Transaction entity = TransactionMapper.toRequest(dto);
@@ -104,6 +125,76 @@ public class TransactionServiceImpl implements TransactionService {
         return TransactionMapper.toResponse(saved);
     }
 
+    /**
+     * Crea un lote de transacciones en una sola llamada (importaciones de extractos).
+     *
+     * <p>Cada elemento se valida de forma independiente con las mismas reglas de
+     * {@link TransactionRequest}; los inválidos se reportan como {@code REJECTED}
+     * sin impedir la inserción del resto. Los válidos se insertan con lotes JDBC
+     * ({@link TransactionRepository#insertAllInBatch}) y se publica un único
+     * {@link TransactionsBatchCreatedEvent} con todas las entidades persistidas.</p>
+     *
+     * @param dtos transacciones a crear, como máximo {@code app.transactions.batch.max-size}
+     * @return resultado por elemento, en el mismo orden del request
+     * @throws IllegalArgumentException si el lote está vacío o excede el tamaño máximo
+     */
+    @Transactional
+    @Override
+    public TransactionBatchResponse createBatch(List<TransactionRequest> dtos) {
+        validateBatchSize(dtos);
+
+        TransactionBatchItemResult[] results = new TransactionBatchItemResult[dtos.size()];
+        List<Transaction> accepted = new ArrayList<>(dtos.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(dtos.size());
+
+        for (int index = 0; index < dtos.size(); index++) {
+            List<String> errors = validateItem(dtos.get(index));
+            if (errors.isEmpty()) {
+                accepted.add(TransactionMapper.toRequest(dtos.get(index)));
+                acceptedIndexes.add(index);
+            } else {
+                results[index] = TransactionBatchItemResult.rejected(index, errors);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            transactionRepository.insertAllInBatch(accepted);
+            eventPublisher.publishEvent(new TransactionsBatchCreatedEvent(this, accepted));
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = TransactionBatchItemResult.created(index, accepted.get(i).getTransactionId());
+        }
+
+        return new TransactionBatchResponse(
+                dtos.size(),
+                accepted.size(),
+                dtos.size() - accepted.size(),
+                Arrays.asList(results));
+    }
+
+    private void validateBatchSize(List<TransactionRequest> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction");
+        }
+        if (dtos.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    String.format("Batch size %d exceeds the maximum of %d", dtos.size(), maxBatchSize));
+        }
+    }
+
+    private List<String> validateItem(TransactionRequest dto) {
+        if (dto == null) {
+            return List.of("Transaction cannot be null");
+        }
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(dto);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
     /**
      * Busca una transacción por su identificador único.
      *
@@ -113,25 +204,68 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public TransactionResponse getById(Long id) {
-        Transaction found = transactionRepository.findById(id)
+        return transactionRepository.findResponseById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found"));
-        return TransactionMapper.toResponse(found);
     }
 
     /**
      * Obtiene todas las transacciones del sistema con paginación.
      *
      * <p><strong>Nota:</strong> Este método retorna las transacciones de <em>todos</em>
-     * los usuarios, no filtradas por {@code userId}. El filtrado por usuario se
-     * hace actualmente en el frontend. Esto representa un posible problema de
-     * seguridad si no se implementa filtrado por usuario en el backend.</p>
+     * los usuarios, no filtradas por {@code userId}. Los listados de un usuario deben
+     * usar {@link #getByUser}, que filtra en la base de datos.</p>
+     *
+     * <p>Usa OFFSET y un {@code COUNT(*)} en cada llamada; para listados profundos
+     * usar {@link #getAllByCursor}. Como {@link #getById}, lee una proyección a
+     * {@link TransactionResponse} sin hidratar entidades.</p>
      *
      * @param pageable parámetros de paginación (page, size, sort) inyectados por Spring
      * @return respuesta paginada con la lista de transacciones
      */
     @Override
     public PaginatedResponse<TransactionResponse> getAll(Pageable pageable) {
-        Page<Transaction> page = transactionRepository.findAll(pageable);
+        Page<TransactionResponse> page = transactionRepository.findAllResponses(pageable);
+
+        return new PaginatedResponse<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isLast());
+    }
+
+    /**
+     * Obtiene las transacciones de un usuario aplicando los filtros opcionales de
+     * rango de fechas, tipo, categoría y rango de importe.
+     *
+     * <p>El filtrado y la ordenación se resuelven en la base de datos sobre los índices
+     * compuestos que empiezan por {@code user_id}, de modo que solo viaja al cliente la
+     * página pedida. A igualdad de fecha se desempata por {@code transactionId} para
+     * que el orden sea estable entre páginas.</p>
+     *
+     * @param filter   usuario y filtros opcionales
+     * @param pageable parámetros de paginación inyectados por Spring
+     * @return respuesta paginada con las transacciones del usuario
+     * @throws IllegalArgumentException si falta el usuario o algún rango está invertido
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public PaginatedResponse<TransactionResponse> getByUser(TransactionFilter filter, Pageable pageable) {
+        if (filter.userId() == null || filter.userId().isBlank()) {
+            throw new IllegalArgumentException("'userId' is required");
+        }
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+            throw new IllegalArgumentException("'minAmount' must not be greater than 'maxAmount'");
+        }
+
+        Pageable stablePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by(Sort.Direction.DESC, "transactionId")));
+        Page<Transaction> page = transactionRepository.findAll(TransactionSpecifications.matching(filter), stablePageable);
         List<TransactionResponse> content = page.map(TransactionMapper::toResponse).getContent();
 
         return new PaginatedResponse<>(
@@ -143,5 +277,51 @@ public class TransactionServiceImpl implements TransactionService {
                 page.isLast());
     }
 
+    /**
+     * Obtiene las transacciones con paginación por cursor (keyset) sobre
+     * {@code (date DESC, transactionId DESC)}.
+     *
+     * <p>Cada página se resuelve con un seek sobre el índice
+     * {@code idx_transactions_date_id} en lugar de un OFFSET, por lo que su coste no
+     * depende de la profundidad. Se lee un elemento extra para saber si hay página
+     * siguiente sin ejecutar {@code COUNT(*)}; el total solo se calcula si el cliente
+     * lo pide con {@code includeTotal}.</p>
+     *
+     * @param cursor       token devuelto en {@code nextCursor} de la página anterior;
+     *                     vacío o {@code null} para la primera página
+     * @param size         tamaño de página (1 a {@value #MAX_CURSOR_PAGE_SIZE})
+     * @param includeTotal si {@code true}, incluye el total de transacciones
+     * @return página con el cursor de la siguiente, o {@code null} si es la última
+     * @throws IllegalArgumentException si el cursor es inválido o el tamaño está fuera de rango
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<TransactionResponse> getAllByCursor(String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        Limit limit = Limit.of(size + 1);
+        List<TransactionResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findFirstPage(limit);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findPageAfter(after.date(), after.transactionId(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<TransactionResponse> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? TransactionCursor.of(page.get(page.size() - 1)).encode() : null;
+        Long totalElements = includeTotal ? transactionRepository.count() : null;
+
+        return new CursorPage<>(
+                page,
+                size,
+                nextCursor,
+                hasNext,
+                totalElements);
+    }
+
 }
 
@@ -0,0 +1,181 @@
+package com.microservice.transaction.infrastructure;
+
+import com.microservice.transaction.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Usa un {@link RabbitTemplate} simulado como sustituto del broker: las
+ * confirmaciones llegan de forma asíncrona con una latencia fija, igual que los
+ * acks de RabbitMQ sobre un canal con publisher confirms.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransactionMessageProducerTest {
+    private static final long CONFIRM_LATENCY_MS = 2;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    private ScheduledExecutorService broker;
+    private SimpleMeterRegistry meterRegistry;
+    private final Set<String> nackOnFirstAttempt = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        broker = Executors.newSingleThreadScheduledExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(rabbitTemplate);
+        });
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            boolean ack = !nackOnFirstAttempt.remove(correlation.getId());
+            broker.schedule(() -> correlation.getFuture().complete(
+                    new CorrelationData.Confirm(ack, ack ? null : "nack")), CONFIRM_LATENCY_MS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("publish — reintenta los mensajes rechazados y devuelve todos confirmados")
+    void publish_conNacks_reintentaYConfirma() {
+        nackOnFirstAttempt.addAll(Set.of("2", "4"));
+        TransactionMessageProducer producer = producer(16);
+
+        List<OutboxEvent> confirmed = producer.publish(events(5));
+
+        assertEquals(5, confirmed.size());
+        verify(rabbitTemplate, times(7)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(2.0, meterRegistry.get("transaction.publisher.nacks").counter().count());
+        assertEquals(2.0, meterRegistry.get("transaction.publisher.retries").counter().count());
+        assertEquals(7, meterRegistry.get("transaction.publisher.confirm.latency").timer().count());
+        assertEquals(0.0, meterRegistry.get("transaction.publisher.confirms.outstanding").gauge().value());
+    }
+
+    @Test
+    @DisplayName("publish — devuelve solo los confirmados cuando se agotan los reintentos")
+    void publish_conNacksPersistentes_devuelveSoloConfirmados() {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            boolean ack = !correlation.getId().equals("3");
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        TransactionMessageProducer producer = producer(16);
+
+        List<OutboxEvent> confirmed = producer.publish(events(3));
+
+        assertEquals(List.of(1L, 2L), confirmed.stream().map(OutboxEvent::getOutboxId).toList());
+        assertEquals(3.0, meterRegistry.get("transaction.publisher.nacks").counter().count());
+    }
+
+    @Test
+    @DisplayName("publish — mantiene hasta max-in-flight mensajes sin confirmar, nunca más")
+    void publish_respetaVentanaDeMensajesEnVuelo() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            broker.schedule(() -> {
+                inFlight.decrementAndGet();
+                correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+            }, CONFIRM_LATENCY_MS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        assertEquals(100, producer(1).publish(events(100)).size());
+        assertEquals(1, maxInFlight.getAndSet(0));
+
+        // El broker confirma más despacio de lo que se envía: la ventana se llena
+        assertEquals(100, producer(8).publish(events(100)).size());
+        assertEquals(8, maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("publish — si el broker no confirma, el lote entero espera un solo confirm-timeout")
+    void publish_sinConfirmaciones_dejaDeEnviarAlVencerElPlazo() {
+        doNothing().when(rabbitTemplate)
+                .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        TransactionMessageProducer producer = new TransactionMessageProducer(rabbitTemplate, meterRegistry,
+                "transaction-exchange", 2, 1, Duration.ofMillis(500));
+
+        // Esperando cada evento su propio plazo, los 18 que no caben en la ventana tardarían 9 s
+        List<OutboxEvent> confirmed = assertTimeoutPreemptively(Duration.ofSeconds(3),
+                () -> producer.publish(events(20)));
+
+        assertTrue(confirmed.isEmpty());
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(2.0, meterRegistry.get("transaction.publisher.nacks").counter().count());
+        assertEquals(0.0, meterRegistry.get("transaction.publisher.confirms.outstanding").gauge().value());
+    }
+
+    @Test
+    @DisplayName("publish — sin publisher confirms publica todo el lote sin correlación")
+    void publish_sinConfirms_publicaFireAndForget() {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+
+        List<OutboxEvent> confirmed = producer(16).publish(events(3));
+
+        assertEquals(3, confirmed.size());
+        verify(rabbitTemplate, times(3)).send(anyString(), anyString(), any(Message.class));
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private TransactionMessageProducer producer(int maxInFlight) {
+        return new TransactionMessageProducer(rabbitTemplate, meterRegistry, "transaction-exchange",
+                maxInFlight, 3, Duration.ofSeconds(5));
+    }
+
+    private List<OutboxEvent> events(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> OutboxEvent.builder()
+                        .outboxId(id)
+                        .aggregateId(id)
+                        .routingKey("transaction.created")
+                        .payload("{}")
+                        .createdAt(OffsetDateTime.now())
+                        .build())
+                .toList();
+    }
+}
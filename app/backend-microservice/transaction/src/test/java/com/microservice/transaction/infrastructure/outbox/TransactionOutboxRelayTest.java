@@ -0,0 +1,119 @@
+package com.microservice.transaction.infrastructure.outbox;
+
+import com.microservice.transaction.dto.OutboxBacklog;
+import com.microservice.transaction.infrastructure.TransactionMessageProducer;
+import com.microservice.transaction.model.OutboxEvent;
+import com.microservice.transaction.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxRelayTest {
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private TransactionMessageProducer transactionMessageProducer;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new TransactionOutboxRelay(outboxEventRepository, transactionMessageProducer,
+                new TransactionTemplate(transactionManager), meterRegistry, 2, 10);
+        lenient().when(outboxEventRepository.findBacklog()).thenReturn(new OutboxBacklog(0, null));
+    }
+
+    @Test
+    @DisplayName("relay — encadena lotes llenos, publica y elimina cada lote hasta vaciar el outbox")
+    void relay_conVariosLotes_publicaYEliminaHastaVaciar() {
+        when(outboxEventRepository.findByOrderByOutboxIdAsc(any(Limit.class)))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+        when(transactionMessageProducer.publish(anyList())).thenAnswer(returnsFirstArg());
+
+        relay.relay();
+
+        verify(transactionMessageProducer, times(2)).publish(anyList());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("transaction.outbox.published").counter().count(),
+                "Debe contar los tres eventos publicados");
+        verify(outboxEventRepository, never()).findBacklog();
+    }
+
+    @Test
+    @DisplayName("relay — si el broker falla no elimina los eventos para reintentarlos en el siguiente ciclo")
+    void relay_conBrokerCaido_noEliminaEventos() {
+        when(outboxEventRepository.findByOrderByOutboxIdAsc(any(Limit.class)))
+                .thenReturn(List.of(event(1L)));
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+                .when(transactionMessageProducer).publish(anyList());
+
+        assertDoesNotThrow(() -> relay.relay());
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+        assertEquals(0.0, meterRegistry.get("transaction.outbox.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("relay — elimina solo los eventos confirmados y no encadena más lotes")
+    void relay_conConfirmacionParcial_eliminaSoloConfirmados() {
+        OutboxEvent confirmado = event(1L);
+        when(outboxEventRepository.findByOrderByOutboxIdAsc(any(Limit.class)))
+                .thenReturn(List.of(confirmado, event(2L)));
+        when(transactionMessageProducer.publish(anyList())).thenReturn(List.of(confirmado));
+
+        relay.relay();
+
+        verify(outboxEventRepository, times(1)).findByOrderByOutboxIdAsc(any(Limit.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        assertEquals(1.0, meterRegistry.get("transaction.outbox.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("refreshBacklogMetrics — actualiza las métricas de pendientes y lag con el backlog restante")
+    void refreshBacklogMetrics_conBacklog_actualizaMetricasDeLag() {
+        when(outboxEventRepository.findBacklog())
+                .thenReturn(new OutboxBacklog(5, OffsetDateTime.now().minusSeconds(10)));
+
+        relay.refreshBacklogMetrics();
+
+        assertEquals(5.0, meterRegistry.get("transaction.outbox.pending").gauge().value());
+        assertTrue(meterRegistry.get("transaction.outbox.lag").timeGauge().value(TimeUnit.SECONDS) >= 10.0,
+                "El lag debe reflejar la antigüedad del evento pendiente más viejo");
+    }
+
+    private OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+                .outboxId(id)
+                .aggregateId(id)
+                .routingKey("transaction.created")
+                .payload("{}")
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+package com.microservice.transaction.repository;
+
+import com.microservice.transaction.dto.TransactionFilter;
+import com.microservice.transaction.model.Transaction;
+import com.microservice.transaction.model.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consultas filtradas de transacciones contra H2. Los tests de plan ejecutan
+ * {@code EXPLAIN} sobre el SQL que Hibernate genera para {@link TransactionSpecifications},
+ * capturado con un {@link StatementInspector}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.microservice.transaction.repository.TransactionRepositoryTest$CapturedSql")
+class TransactionRepositoryTest {
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int day = 1; day <= 28; day++) {
+            transactionRepository.save(transaction("user-001", "Comida", TransactionType.EXPENSE, "15.00", day));
+            transactionRepository.save(transaction("user-001", "Salario", TransactionType.INCOME, "900.00", day));
+            transactionRepository.save(transaction("user-002", "Comida", TransactionType.EXPENSE, "15.00", day));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturedSql.clear();
+    }
+
+    @Test
+    @DisplayName("findAll(spec) — aplica todos los filtros y solo devuelve filas del usuario")
+    void findAll_conFiltros_devuelveSoloTransaccionesDelUsuario() {
+        TransactionFilter filter = new TransactionFilter("user-001",
+                LocalDate.of(2026, 2, 10), LocalDate.of(2026, 2, 19),
+                TransactionType.EXPENSE, "Comida", new BigDecimal("10.00"), new BigDecimal("20.00"));
+
+        Page<Transaction> page = transactionRepository.findAll(TransactionSpecifications.matching(filter),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "date")));
+
+        assertEquals(10, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+        assertEquals(LocalDate.of(2026, 2, 19), page.getContent().get(0).getDate());
+        assertTrue(page.getContent().stream().allMatch(t -> t.getUserId().equals("user-001")
+                && t.getType() == TransactionType.EXPENSE));
+    }
+
+    @Test
+    @DisplayName("plan — el filtro por usuario y rango de fechas usa idx_transactions_user_date")
+    void explain_filtroPorUsuarioYFecha_usaIndiceCompuesto() {
+        TransactionFilter filter = new TransactionFilter("user-001",
+                LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28), null, null, null, null);
+
+        String plan = explainGenerated(filter, "user-001", LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28));
+
+        assertTrue(plan.contains("IDX_TRANSACTIONS_USER_DATE"), plan);
+    }
+
+    @Test
+    @DisplayName("plan — el filtro por usuario y categoría usa idx_transactions_user_category_date")
+    void explain_filtroPorUsuarioYCategoria_usaIndiceCompuesto() {
+        TransactionFilter filter = new TransactionFilter("user-001",
+                LocalDate.of(2026, 2, 1), null, null, "Comida", null, null);
+
+        String plan = explainGenerated(filter, "user-001", "Comida", LocalDate.of(2026, 2, 1));
+
+        assertTrue(plan.contains("IDX_TRANSACTIONS_USER_CATEGORY_DATE"), plan);
+    }
+
+    /**
+     * Ejecuta la consulta paginada del filtro y devuelve el plan de la sentencia de datos
+     * que generó Hibernate (no la de {@code count}).
+     *
+     * @param filterParameters valores de los filtros en el orden de {@link TransactionSpecifications};
+     *                         los de la paginación se añaden al final
+     */
+    private String explainGenerated(TransactionFilter filter, Object... filterParameters) {
+        transactionRepository.findAll(TransactionSpecifications.matching(filter),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "date")));
+        String sql = CapturedSql.statements().stream()
+                .filter(statement -> !statement.toLowerCase().contains("count("))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No select captured: " + CapturedSql.statements()));
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                List<Object> parameters = new ArrayList<>(List.of(filterParameters));
+                // Tras los filtros van offset (si el dialecto lo emite) y tamaño de la primera página
+                int pagingParameters = statement.getParameterMetaData().getParameterCount() - parameters.size();
+                parameters.addAll(pagingParameters == 2 ? List.of(0, 5) : List.of(5));
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return sql + "\n" + rs.getString(1).toUpperCase();
+                }
+            }
+        });
+    }
+
+    private Transaction transaction(String userId, String category, TransactionType type, String amount, int day) {
+        return Transaction.builder()
+                .userId(userId)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .category(category)
+                .date(LocalDate.of(2026, 2, day))
+                .build();
+    }
+
+    /**
+     * Guarda el SQL de cada sentencia que prepara Hibernate.
+     */
+    public static class CapturedSql implements StatementInspector {
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static List<String> statements() {
+            synchronized (STATEMENTS) {
+                return List.copyOf(STATEMENTS);
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.ExportFormat;
+import com.microservice.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exporta un resultado mucho mayor que el heap: se ejecuta en su propia ejecución de
+ * surefire con {@code -Xmx64m} ({@code export-memory}), así que falla con
+ * {@link OutOfMemoryError} si el export o el driver materializan las filas.
+ *
+ * <p>H2 en fichero y con ejecución perezosa, para que ni la base de datos ni el
+ * resultado ocupen el heap; la salida se cuenta y se descarta.</p>
+ */
+@Tag("export-memory")
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:file:./target/export-memory/db;LAZY_QUERY_EXECUTION=1;CACHE_SIZE=8192",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionExportLargeResultTest {
+    private static final int ROWS = 250_000;
+    private static final int INSERT_CHUNK = 10_000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("export — escribe 250.000 filas con un heap de 64 MB, en el que no caben materializadas")
+    void export_resultadoMayorQueElHeap() throws Exception {
+        // El export solo usa idx_transactions_user_date; los demás índices solo ralentizan la carga
+        jdbcTemplate.execute("drop index idx_transactions_date_id");
+        jdbcTemplate.execute("drop index idx_transactions_user_category_date");
+        for (int from = 1; from <= ROWS; from += INSERT_CHUNK) {
+            // Las filas se generan en la base de datos: ni siquiera la carga pasa por el heap
+            jdbcTemplate.update("""
+                    insert into transactions (user_id, type, amount, category, date, description, created_at)
+                    select 'user-001', 'EXPENSE', 12.50, 'Otros', dateadd('DAY', mod(x, 365), date '2025-01-01'),
+                           concat('Fila ', x), timestamp with time zone '2026-02-01 10:00:00+00'
+                    from system_range(?, ?)""", from, from + INSERT_CHUNK - 1);
+        }
+        TransactionExportServiceImpl exportService =
+                new TransactionExportServiceImpl(transactionRepository, JsonMapper.builder().build());
+        CountingOutputStream out = new CountingOutputStream();
+
+        exportService.export("user-001", ExportFormat.CSV, out);
+
+        assertEquals(ROWS + 1, out.lines, "Debe escribir la cabecera y una línea por transacción");
+    }
+
+    /**
+     * Cuenta los saltos de línea y descarta el contenido.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.ExportFormat;
+import com.microservice.transaction.model.Transaction;
+import com.microservice.transaction.model.TransactionType;
+import com.microservice.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exporta desde H2 a través del cursor JDBC real de {@link TransactionRepository#streamForExport(String)}.
+ */
+@DataJpaTest
+class TransactionExportServiceImplTest {
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.parse("2026-02-01T10:00:00Z");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private TransactionExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new TransactionExportServiceImpl(transactionRepository, JsonMapper.builder().build());
+    }
+
+    @Test
+    @DisplayName("export CSV — escribe cabecera y escapa comas, comillas y saltos de línea")
+    void export_csv_escapaCamposEspeciales() throws Exception {
+        Transaction saved = transactionRepository.insertAllInBatch(List.of(
+                transaction("user-001", "Comida, bebida", "Dijo \"hola\"\nadiós", 1))).get(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export("user-001", ExportFormat.CSV, out);
+
+        String createdAt = OffsetDateTime.ofInstant(CREATED_AT.toInstant(), ZoneId.systemDefault()).toString();
+        assertEquals("""
+                transactionId,userId,type,amount,category,date,description,createdAt\r
+                %d,user-001,EXPENSE,12.50,"Comida, bebida",2026-02-01,"Dijo ""hola""
+                adiós",%s\r
+                """.formatted(saved.getTransactionId(), createdAt), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("export NDJSON — escribe un objeto JSON por línea")
+    void export_ndjson_unObjetoPorLinea() throws Exception {
+        transactionRepository.insertAllInBatch(List.of(
+                transaction("user-001", "Otros", null, 1),
+                transaction("user-002", "Otros", null, 2)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(null, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"transactionId\":"), lines[0]);
+        assertTrue(lines[0].contains("\"userId\":\"user-001\""), lines[0]);
+        assertTrue(lines[1].contains("\"amount\":12.50"), lines[1]);
+    }
+
+    @Test
+    @DisplayName("export — recorre el resultado completo de un usuario ordenado por fecha e id")
+    void export_ordenadoPorFechaEId() throws Exception {
+        // El volumen se prueba con heap reducido en TransactionExportLargeResultTest
+        int rows = 500;
+        List<Transaction> transactions = new ArrayList<>(rows + 100);
+        for (int i = 0; i < rows; i++) {
+            // Fechas intercaladas para que el orden de inserción no coincida con el de exportación
+            transactions.add(transaction("user-001", "Otros", "Fila " + i, 28 - i % 28));
+        }
+        for (int i = 0; i < 100; i++) {
+            transactions.add(transaction("user-002", "Otros", "Fila " + i, 1));
+        }
+        transactionRepository.insertAllInBatch(transactions);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export("user-001", ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(rows + 1, lines.length, "Debe escribir la cabecera y una línea por transacción del usuario");
+        String previousKey = "";
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",");
+            assertEquals("user-001", fields[1]);
+            String key = fields[5] + String.format("%010d", Long.parseLong(fields[0]));
+            assertTrue(key.compareTo(previousKey) > 0, "Fuera de orden en la línea " + i + ": " + lines[i]);
+            previousKey = key;
+        }
+    }
+
+    private Transaction transaction(String userId, String category, String description, int day) {
+        return Transaction.builder()
+                .userId(userId)
+                .type(TransactionType.EXPENSE)
+                .amount(new BigDecimal("12.50"))
+                .category(category)
+                .date(LocalDate.of(2026, 2, day))
+                .description(description)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+}
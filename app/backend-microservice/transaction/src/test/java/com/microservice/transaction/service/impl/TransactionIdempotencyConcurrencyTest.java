@@ -0,0 +1,124 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.IdempotentResult;
+import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.model.IdempotencyKey;
+import com.microservice.transaction.model.TransactionType;
+import com.microservice.transaction.repository.IdempotencyKeyRepository;
+import com.microservice.transaction.repository.TransactionRepository;
+import com.microservice.transaction.service.TransactionService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Registra la misma clave desde dos hilos contra H2 en modo MySQL, con el upsert real
+ * de {@code IdempotencyKeyInsertRepositoryImpl}.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionIdempotencyConcurrencyTest {
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TransactionRequest request = new TransactionRequest("user-001", TransactionType.EXPENSE,
+            new BigDecimal("12.50"), "Comida", LocalDate.of(2026, 2, 1), null);
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("createOnce — dos peticiones simultáneas con la misma clave crean una sola transacción")
+    void createOnce_mismaClaveEnParalelo_unaSolaTransaccion() throws Exception {
+        TransactionServiceImpl delegate = new TransactionServiceImpl(transactionRepository,
+                mock(ApplicationEventPublisher.class), Validation.buildDefaultValidatorFactory().getValidator());
+        CyclicBarrier bothCreated = new CyclicBarrier(2);
+        TransactionService transactionService = mock(TransactionService.class);
+        // Ambas peticiones han insertado su transacción antes de registrar la clave
+        when(transactionService.create(any())).thenAnswer(invocation -> {
+            var created = delegate.create(invocation.getArgument(0));
+            bothCreated.await(10, TimeUnit.SECONDS);
+            return created;
+        });
+        TransactionIdempotencyServiceImpl idempotencyService = new TransactionIdempotencyServiceImpl(
+                transactionService, transactionRepository, idempotencyKeyRepository,
+                new TransactionTemplate(transactionManager), Duration.ofHours(24), 1000);
+
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<IdempotentResult>> results = List.of(
+                    clients.submit(() -> idempotencyService.createOnce("key-1", request)),
+                    clients.submit(() -> idempotencyService.createOnce("key-1", request)));
+            IdempotentResult first = results.get(0).get(30, TimeUnit.SECONDS);
+            IdempotentResult second = results.get(1).get(30, TimeUnit.SECONDS);
+
+            assertNotEquals(first.replayed(), second.replayed(), "Una crea y la otra repite el resultado");
+            assertEquals(first.response().transactionId(), second.response().transactionId());
+            assertEquals(1, transactionRepository.count());
+            assertEquals(1, idempotencyKeyRepository.count());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("createOnce — una clave expirada se reemplaza en el mismo upsert y una vigente no")
+    void createOnce_claveExpirada_seReemplaza() {
+        TransactionIdempotencyServiceImpl idempotencyService = new TransactionIdempotencyServiceImpl(
+                new TransactionServiceImpl(transactionRepository, mock(ApplicationEventPublisher.class),
+                        Validation.buildDefaultValidatorFactory().getValidator()),
+                transactionRepository, idempotencyKeyRepository,
+                new TransactionTemplate(transactionManager), Duration.ofHours(24), 1000);
+        OffsetDateTime longAgo = OffsetDateTime.now().minusDays(2);
+        idempotencyKeyRepository.save(IdempotencyKey.builder()
+                .idempotencyKey("key-1")
+                .requestHash("otro-cuerpo")
+                .transactionId(999L)
+                .createdAt(longAgo)
+                .expiresAt(longAgo.plusHours(24))
+                .build());
+
+        IdempotentResult created = idempotencyService.createOnce("key-1", request);
+
+        assertFalse(created.replayed());
+        IdempotencyKey stored = idempotencyKeyRepository.findById("key-1").orElseThrow();
+        assertEquals(created.response().transactionId(), stored.getTransactionId());
+        assertTrue(stored.getExpiresAt().isAfter(OffsetDateTime.now()));
+        assertTrue(idempotencyService.createOnce("key-1", request).replayed());
+        assertEquals(1, transactionRepository.count());
+    }
+}
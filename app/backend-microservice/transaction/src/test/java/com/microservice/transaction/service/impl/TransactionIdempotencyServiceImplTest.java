@@ -0,0 +1,143 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.IdempotentResult;
+import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.dto.TransactionResponse;
+import com.microservice.transaction.exception.IdempotencyKeyConflictException;
+import com.microservice.transaction.model.IdempotencyKey;
+import com.microservice.transaction.model.TransactionType;
+import com.microservice.transaction.repository.IdempotencyKeyRepository;
+import com.microservice.transaction.repository.TransactionRepository;
+import com.microservice.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIdempotencyServiceImplTest {
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionIdempotencyServiceImpl idempotencyService;
+
+    private final TransactionRequest request = new TransactionRequest("user-001", TransactionType.EXPENSE,
+            new BigDecimal("12.50"), "Comida", LocalDate.of(2026, 2, 1), null);
+    private final TransactionResponse response = new TransactionResponse(42L, "user-001", TransactionType.EXPENSE,
+            new BigDecimal("12.50"), "Comida", LocalDate.of(2026, 2, 1), null, OffsetDateTime.now());
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new TransactionIdempotencyServiceImpl(transactionService, transactionRepository,
+                idempotencyKeyRepository, new TransactionTemplate(transactionManager), Duration.ofHours(24), 1000);
+    }
+
+    @Test
+    @DisplayName("createOnce — un reintento con la misma clave devuelve la respuesta original sin crear otra transacción")
+    void createOnce_reintentoConMismaClave_noCreaDosVeces() {
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(transactionService.create(request)).thenReturn(response);
+        when(transactionRepository.findResponseById(42L)).thenReturn(Optional.of(response));
+
+        IdempotentResult first = idempotencyService.createOnce("key-1", request);
+        IdempotentResult retry = idempotencyService.createOnce("key-1", request);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(response, retry.response());
+        verify(transactionService, times(1)).create(request);
+        verify(idempotencyKeyRepository, times(1)).insert(any(IdempotencyKey.class));
+        verify(idempotencyKeyRepository, times(1)).findById("key-1");
+    }
+
+    @Test
+    @DisplayName("createOnce — si otra instancia registró la clave primero, devuelve el resultado ganador")
+    void createOnce_carreraEntreInstancias_devuelveResultadoGanador() {
+        ArgumentCaptor<IdempotencyKey> inserted = ArgumentCaptor.forClass(IdempotencyKey.class);
+        IdempotencyKey winner = IdempotencyKey.builder()
+                .idempotencyKey("key-1")
+                .transactionId(7L)
+                .expiresAt(OffsetDateTime.now().plusHours(1))
+                .build();
+        when(transactionService.create(request)).thenReturn(response);
+        doAnswer(invocation -> {
+            winner.setRequestHash(invocation.<IdempotencyKey>getArgument(0).getRequestHash());
+            throw new DuplicateKeyException("duplicate");
+        }).when(idempotencyKeyRepository).insert(inserted.capture());
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(winner));
+        TransactionResponse original = new TransactionResponse(7L, "user-001", TransactionType.EXPENSE,
+                new BigDecimal("12.50"), "Comida", LocalDate.of(2026, 2, 1), null, OffsetDateTime.now());
+        when(transactionRepository.findResponseById(7L)).thenReturn(Optional.of(original));
+
+        IdempotentResult result = idempotencyService.createOnce("key-1", request);
+
+        assertTrue(result.replayed());
+        assertEquals(7L, result.response().transactionId());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("createOnce — rechaza reutilizar la clave con un cuerpo distinto")
+    void createOnce_claveConOtroCuerpo_lanzaConflicto() {
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(transactionService.create(request)).thenReturn(response);
+        idempotencyService.createOnce("key-1", request);
+
+        TransactionRequest otherBody = new TransactionRequest("user-001", TransactionType.EXPENSE,
+                new BigDecimal("99.99"), "Comida", LocalDate.of(2026, 2, 1), null);
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.createOnce("key-1", otherBody));
+        verify(transactionService, times(1)).create(any());
+    }
+
+    @Test
+    @DisplayName("createOnce — una clave leída de la BD caduca en caché en su expiresAt, no un TTL después")
+    void createOnce_claveCacheadaCaducaEnSuExpiresAt() throws Exception {
+        ArgumentCaptor<IdempotencyKey> inserted = ArgumentCaptor.forClass(IdempotencyKey.class);
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.empty());
+        when(transactionService.create(request)).thenReturn(response);
+        idempotencyService.createOnce("key-0", request);
+        verify(idempotencyKeyRepository).insert(inserted.capture());
+
+        // Clave registrada hace casi 24 h por otra instancia: le quedan 200 ms
+        IdempotencyKey stored = IdempotencyKey.builder()
+                .idempotencyKey("key-1")
+                .requestHash(inserted.getValue().getRequestHash())
+                .transactionId(42L)
+                .expiresAt(OffsetDateTime.now().plus(Duration.ofMillis(200)))
+                .build();
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.of(stored));
+        when(transactionRepository.findResponseById(42L)).thenReturn(Optional.of(response));
+
+        assertTrue(idempotencyService.createOnce("key-1", request).replayed());
+        Thread.sleep(300);
+
+        assertFalse(idempotencyService.createOnce("key-1", request).replayed());
+        verify(transactionService, times(2)).create(request);
+    }
+}
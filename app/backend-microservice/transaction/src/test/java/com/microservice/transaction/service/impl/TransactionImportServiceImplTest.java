@@ -0,0 +1,206 @@
+package com.microservice.transaction.service.impl;
+
+import com.microservice.transaction.dto.TransactionBatchItemResult;
+import com.microservice.transaction.dto.TransactionBatchResponse;
+import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.model.ImportJob;
+import com.microservice.transaction.model.ImportJobError;
+import com.microservice.transaction.model.ImportJobStatus;
+import com.microservice.transaction.model.Transaction;
+import com.microservice.transaction.repository.ImportJobErrorRepository;
+import com.microservice.transaction.repository.ImportJobRepository;
+import com.microservice.transaction.repository.TransactionRepository;
+import com.microservice.transaction.service.TransactionService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransactionImportServiceImplTest {
+    @TempDir
+    Path tempDir;
+
+    private ImportJobRepository importJobRepository;
+    private ImportJobErrorRepository importJobErrorRepository;
+    private final List<ImportJobError> savedErrors = new ArrayList<>();
+    private ImportJob job;
+    private TransactionImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        // stubOnly: los mocks no registran invocaciones, así no retienen las filas importadas
+        importJobRepository = mock(ImportJobRepository.class, withSettings().stubOnly());
+        importJobErrorRepository = mock(ImportJobErrorRepository.class, withSettings().stubOnly());
+        job = ImportJob.builder().jobId(1L).userId("user-001").status(ImportJobStatus.QUEUED).build();
+        when(importJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(importJobErrorRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            savedErrors.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (importService != null) {
+            importService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("runImport — importa las filas válidas y reporta errores por número de línea")
+    void runImport_conFilasMixtas_importaValidasYReportaErrores() throws Exception {
+        TransactionRepository transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.insertAllInBatch(anyList())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            long id = 100;
+            for (Transaction transaction : batch) {
+                transaction.setTransactionId(id++);
+            }
+            return batch;
+        });
+        TransactionServiceImpl transactionService = new TransactionServiceImpl(transactionRepository,
+                mock(ApplicationEventPublisher.class), Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(transactionService, "maxBatchSize", 5000);
+        importService = new TransactionImportServiceImpl(transactionService, importJobRepository,
+                importJobErrorRepository, 2, 65_536, 1, 1);
+
+        Path upload = write("""
+                category,amount,date,type,description
+                Salario,2500.00,2026-02-01,income,Pago
+                "Comida, bebida",15.50,2026-02-02,EXPENSE,"Cena ""especial""
+                con amigos"
+                Otros,abc,2026-02-03,EXPENSE,
+                Otros,-5.00,2026-02-04,EXPENSE,
+
+                Transporte,3.20,2026-02-05,EXPENSE,Bus
+                """);
+
+        importService.runImport(1L, "user-001", upload);
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(2, job.getRejectedRows());
+        assertEquals(List.of(5L, 6L), savedErrors.stream().map(ImportJobError::getLineNumber).sorted().toList());
+        assertTrue(savedErrors.stream().anyMatch(error -> error.getMessage().contains("amount: invalid number")));
+        assertTrue(savedErrors.stream().anyMatch(error -> error.getMessage().contains("Amount must be positive")));
+        assertFalse(Files.exists(upload), "El fichero temporal debe borrarse al terminar");
+    }
+
+    @Test
+    @DisplayName("runImport — marca el trabajo como FAILED si faltan columnas obligatorias")
+    void runImport_sinColumnasObligatorias_marcaFallido() throws Exception {
+        TransactionService transactionService = mock(TransactionService.class);
+        importService = new TransactionImportServiceImpl(transactionService, importJobRepository,
+                importJobErrorRepository, 1000, 65_536, 1, 1);
+
+        importService.runImport(1L, "user-001", write("date,amount\n2026-02-01,10.00\n"));
+
+        assertEquals(ImportJobStatus.FAILED, job.getStatus());
+        assertTrue(job.getErrorMessage().contains("type, category"), job.getErrorMessage());
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @DisplayName("runImport — importa un millón de filas en bloques de chunk-size")
+    void runImport_unMillonDeFilas_insertaEnBloques() throws Exception {
+        int rows = 1_000_000;
+        int chunkSize = 1000;
+        TransactionService transactionService = mock(TransactionService.class, withSettings().stubOnly());
+        int[] chunks = {0};
+        when(transactionService.createBatch(anyList())).thenAnswer(invocation -> {
+            List<TransactionRequest> requests = invocation.getArgument(0);
+            assertTrue(requests.size() <= chunkSize);
+            chunks[0]++;
+            return new TransactionBatchResponse(requests.size(), requests.size(), 0,
+                    IntStream.range(0, requests.size())
+                            .mapToObj(i -> TransactionBatchItemResult.created(i, (long) i))
+                            .toList());
+        });
+        importService = new TransactionImportServiceImpl(transactionService, importJobRepository,
+                importJobErrorRepository, chunkSize, 65_536, 1, 1);
+
+        Path upload = tempDir.resolve("large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(upload, StandardCharsets.UTF_8)) {
+            writer.write("date,type,amount,category,description\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("2026-02-01,EXPENSE,12.50,Otros,Fila " + i + "\n");
+            }
+        }
+
+        importService.runImport(1L, "user-001", upload);
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(rows, job.getImportedRows());
+        assertEquals(rows / chunkSize, chunks[0]);
+    }
+
+    @Test
+    @DisplayName("runImport — guarda los errores en bloques aunque no haya filas válidas")
+    void runImport_soloFilasInvalidas_guardaErroresPorBloques() throws Exception {
+        TransactionService transactionService = mock(TransactionService.class);
+        List<Integer> flushedErrors = new ArrayList<>();
+        when(importJobErrorRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ImportJobError> errors = invocation.getArgument(0);
+            flushedErrors.add(errors.size());
+            return errors;
+        });
+        importService = new TransactionImportServiceImpl(transactionService, importJobRepository,
+                importJobErrorRepository, 10, 65_536, 1, 1);
+
+        StringBuilder content = new StringBuilder("date,type,amount,category\n");
+        for (int i = 0; i < 35; i++) {
+            content.append("2026-02-01,EXPENSE,abc,Otros\n");
+        }
+        importService.runImport(1L, "user-001", write(content.toString()));
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(35, job.getRejectedRows());
+        assertEquals(List.of(10, 10, 10, 5), flushedErrors);
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    @DisplayName("runImport — marca el trabajo como FAILED si un registro supera la longitud máxima")
+    void runImport_comillaSinCerrar_fallaAlSuperarLongitudMaxima() throws Exception {
+        TransactionService transactionService = mock(TransactionService.class);
+        importService = new TransactionImportServiceImpl(transactionService, importJobRepository,
+                importJobErrorRepository, 1000, 100, 1, 1);
+
+        StringBuilder content = new StringBuilder("date,type,amount,category,description\n")
+                .append("2026-02-01,EXPENSE,12.50,Otros,\"Sin cerrar\n");
+        for (int i = 0; i < 1000; i++) {
+            content.append("2026-02-01,EXPENSE,12.50,Otros,Fila ").append(i).append('\n');
+        }
+        importService.runImport(1L, "user-001", write(content.toString()));
+
+        assertEquals(ImportJobStatus.FAILED, job.getStatus());
+        assertEquals("Record starting at line 2 exceeds 100 characters", job.getErrorMessage());
+        verifyNoInteractions(transactionService);
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = Files.createTempFile(tempDir, "import-", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -1,12 +1,19 @@
 package com.microservice.transaction.service.impl;
 
+import com.microservice.transaction.dto.CursorPage;
+import com.microservice.transaction.dto.TransactionBatchItemResult;
+import com.microservice.transaction.dto.TransactionBatchResponse;
 import com.microservice.transaction.dto.TransactionRequest;
+import com.microservice.transaction.dto.TransactionCursor;
+import com.microservice.transaction.dto.TransactionFilter;
 import com.microservice.transaction.dto.TransactionResponse;
 import com.microservice.transaction.event.TransactionCreatedEvent;
+import com.microservice.transaction.event.TransactionsBatchCreatedEvent;
 import com.microservice.transaction.model.Transaction;
 import com.microservice.transaction.model.TransactionType;
 import com.microservice.transaction.repository.TransactionRepository;
 
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,13 +23,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -111,4 +123,125 @@ class TransactionServiceImplTest {
 
         verifyNoMoreInteractions(transactionRepository, eventPublisher);
     }
+
+    @Test
+    @DisplayName("createBatch — inserta en lote solo los válidos, reporta los inválidos y publica un único evento")
+    void createBatch_conItemsMixtos_insertaValidosYReportaRechazados() {
+        TransactionServiceImpl batchService = new TransactionServiceImpl(
+                transactionRepository, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(batchService, "maxBatchSize", 10);
+
+        TransactionRequest valido1 = new TransactionRequest("user-001", TransactionType.INCOME,
+                new BigDecimal("100.00"), "Salario", LocalDate.of(2026, 2, 1), null);
+        TransactionRequest invalido = new TransactionRequest("user-001", TransactionType.EXPENSE,
+                new BigDecimal("-5.00"), "", LocalDate.of(2026, 2, 2), null);
+        TransactionRequest valido2 = new TransactionRequest("user-001", TransactionType.EXPENSE,
+                new BigDecimal("40.00"), "Comida", LocalDate.of(2026, 2, 3), "Almuerzo");
+
+        when(transactionRepository.insertAllInBatch(anyList())).thenAnswer(invocation -> {
+            List<Transaction> entidades = invocation.getArgument(0);
+            for (int i = 0; i < entidades.size(); i++) {
+                entidades.get(i).setTransactionId(100L + i);
+            }
+            return entidades;
+        });
+
+        TransactionBatchResponse response = batchService.createBatch(List.of(valido1, invalido, valido2));
+
+        assertAll("Resumen del lote",
+                () -> assertEquals(3, response.received()),
+                () -> assertEquals(2, response.created()),
+                () -> assertEquals(1, response.rejected()));
+
+        List<TransactionBatchItemResult> results = response.results();
+        assertAll("Resultados por elemento en el orden del request",
+                () -> assertEquals(TransactionBatchItemResult.Status.CREATED, results.get(0).status()),
+                () -> assertEquals(100L, results.get(0).transactionId()),
+                () -> assertEquals(TransactionBatchItemResult.Status.REJECTED, results.get(1).status()),
+                () -> assertEquals(2, results.get(1).errors().size(),
+                        "Debe reportar el monto negativo y la categoría vacía"),
+                () -> assertEquals(TransactionBatchItemResult.Status.CREATED, results.get(2).status()),
+                () -> assertEquals(101L, results.get(2).transactionId()));
+
+        ArgumentCaptor<TransactionsBatchCreatedEvent> batchEventCaptor =
+                ArgumentCaptor.forClass(TransactionsBatchCreatedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(batchEventCaptor.capture());
+        assertEquals(2, batchEventCaptor.getValue().getTransactions().size(),
+                "El evento debe contener solo las transacciones persistidas");
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("createBatch — rechaza lotes que exceden el tamaño máximo sin tocar la base de datos")
+    void createBatch_conLoteDemasiadoGrande_lanzaIllegalArgumentException() {
+        TransactionServiceImpl batchService = new TransactionServiceImpl(
+                transactionRepository, eventPublisher, Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(batchService, "maxBatchSize", 1);
+
+        TransactionRequest request = new TransactionRequest("user-001", TransactionType.INCOME,
+                new BigDecimal("1.00"), "Otros", LocalDate.of(2026, 2, 1), null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.createBatch(List.of(request, request)));
+        verifyNoInteractions(transactionRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("getAllByCursor — lee size+1 filas, devuelve el cursor de la última y no cuenta el total")
+    void getAllByCursor_primeraPagina_devuelveCursorSinTotal() {
+        when(transactionRepository.findFirstPage(any(Limit.class))).thenReturn(List.of(
+                response(30L, LocalDate.of(2026, 3, 2)),
+                response(29L, LocalDate.of(2026, 3, 1)),
+                response(28L, LocalDate.of(2026, 3, 1))));
+
+        CursorPage<TransactionResponse> page = transactionService.getAllByCursor("", 2, false);
+
+        verify(transactionRepository).findFirstPage(Limit.of(3));
+        assertEquals(List.of(30L, 29L), page.content().stream().map(TransactionResponse::transactionId).toList());
+        assertTrue(page.hasNext());
+        assertEquals(new TransactionCursor(LocalDate.of(2026, 3, 1), 29L),
+                TransactionCursor.decode(page.nextCursor()));
+        assertNull(page.totalElements());
+        verify(transactionRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("getAllByCursor — continúa desde el cursor y marca la última página")
+    void getAllByCursor_conCursor_buscaDespuesDeLaPosicion() {
+        String cursor = new TransactionCursor(LocalDate.of(2026, 3, 1), 29L).encode();
+        when(transactionRepository.findPageAfter(LocalDate.of(2026, 3, 1), 29L, Limit.of(3)))
+                .thenReturn(List.of(response(28L, LocalDate.of(2026, 3, 1))));
+        when(transactionRepository.count()).thenReturn(3L);
+
+        CursorPage<TransactionResponse> page = transactionService.getAllByCursor(cursor, 2, true);
+
+        assertEquals(1, page.content().size());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        assertEquals(3L, page.totalElements());
+    }
+
+    @Test
+    @DisplayName("getAllByCursor — rechaza cursores manipulados")
+    void getAllByCursor_conCursorInvalido_lanzaIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getAllByCursor("no-es-un-cursor", 10, false));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("getByUser — rechaza rangos de fecha invertidos sin consultar la base de datos")
+    void getByUser_conRangoInvertido_lanzaIllegalArgumentException() {
+        TransactionFilter filter = new TransactionFilter("user-001",
+                LocalDate.of(2026, 3, 31), LocalDate.of(2026, 3, 1), null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getByUser(filter, PageRequest.of(0, 10)));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private TransactionResponse response(Long id, LocalDate date) {
+        return new TransactionResponse(id, "user-001", TransactionType.EXPENSE, new BigDecimal("10.00"),
+                "Otros", date, null, OffsetDateTime.parse("2026-03-01T10:00:00Z"));
+    }
 }